@@ -0,0 +1,118 @@
+package com.fooddelivery.benchmark;
+
+import com.fooddelivery.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory entity graphs for the benchmarks; nothing here touches a database
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Restaurant restaurant() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(1L);
+        restaurant.setName("Benchmark Biryani House");
+        restaurant.setCuisine("Indian");
+        restaurant.setAddress("1 Food Street");
+        restaurant.setLat(12.97);
+        restaurant.setLongitude(77.59);
+        restaurant.setIsOpen(true);
+        restaurant.setIsApproved(true);
+        return restaurant;
+    }
+
+    public static List<MenuItem> menuItems(Restaurant restaurant, int count) {
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Mains");
+
+        List<MenuItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MenuItem item = new MenuItem();
+            item.setId((long) i + 1);
+            item.setRestaurant(restaurant);
+            item.setCategory(category);
+            item.setName("Dish " + (i + 1));
+            item.setDescription("House special number " + (i + 1));
+            item.setPrice(new BigDecimal("149.50").add(BigDecimal.valueOf(i)));
+            item.setIsVeg(i % 2 == 0);
+            items.add(item);
+        }
+        return items;
+    }
+
+    public static Cart cart(int lines) {
+        Restaurant restaurant = restaurant();
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cart.setRestaurant(restaurant);
+        for (MenuItem menuItem : menuItems(restaurant, lines)) {
+            CartItem item = new CartItem();
+            item.setId(menuItem.getId());
+            item.setCart(cart);
+            item.setMenuItem(menuItem);
+            item.setQuantity(1 + (int) (menuItem.getId() % 3));
+            item.setPrice(menuItem.getPrice());
+            cart.getCartItems().add(item);
+        }
+        return cart;
+    }
+
+    public static Order order(int lines) {
+        Restaurant restaurant = restaurant();
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("customer@bench.test");
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setUser(user);
+        customer.setName("Benchmark Customer");
+
+        CustomerAddress address = new CustomerAddress();
+        address.setId(1L);
+        address.setCustomer(customer);
+        address.setAddressType(CustomerAddress.AddressType.HOME);
+        address.setStreet("42 Benchmark Road");
+        address.setCity("Bengaluru");
+        address.setPincode("560001");
+        address.setLat(12.95);
+        address.setLongitude(77.60);
+
+        DeliveryPartner partner = new DeliveryPartner();
+        partner.setId(1L);
+        partner.setName("Benchmark Rider");
+        partner.setVehicleType(DeliveryPartner.VehicleType.BIKE);
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setAddress(address);
+        order.setDeliveryPartner(partner);
+        order.setStatus(Order.OrderStatus.OUT_FOR_DELIVERY);
+        order.setPaymentStatus(Order.PaymentStatus.PAID);
+        order.setOrderDate(LocalDateTime.now());
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (MenuItem menuItem : menuItems(restaurant, lines)) {
+            OrderItem item = new OrderItem();
+            item.setId(menuItem.getId());
+            item.setOrder(order);
+            item.setMenuItem(menuItem);
+            item.setQuantity(2);
+            item.setPrice(menuItem.getPrice());
+            order.getOrderItems().add(item);
+            total = total.add(menuItem.getPrice().multiply(BigDecimal.valueOf(2)));
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+}
@@ -0,0 +1,72 @@
+package com.fooddelivery.config;
+
+import com.fooddelivery.service.LocalRateLimitBackend;
+import com.fooddelivery.service.RateLimitService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit check on anonymous requests spread over a pool of client addresses
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitInterceptorBenchmark {
+
+    private static final int CLIENTS = 1024;
+
+    // requests per window; large enough to stay under the limit, or 1 to measure the 429 path
+    @Param({"1000000000", "1"})
+    public int limit;
+
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor();
+
+    private final MockHttpServletRequest[] requests = new MockHttpServletRequest[CLIENTS];
+
+    // reused so the gc profiler counts only what the interceptor allocates
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RateLimitService rateLimitService = new RateLimitService(new LocalRateLimitBackend(), limit, limit, limit, 60);
+        ReflectionTestUtils.setField(interceptor, "rateLimitService", rateLimitService);
+
+        for (int i = 0; i < CLIENTS; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurants");
+            request.setRemoteAddr("10.0." + (i / 256) + "." + (i % 256));
+            requests[i] = request;
+        }
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        MockHttpServletRequest request = requests[next++ & (CLIENTS - 1)];
+        response.reset();
+        return interceptor.preHandle(request, response, null);
+    }
+
+    /**
+     * The header reads and writes preHandle makes, without rate limiting; the servlet mocks
+     * allocate on their own, so this is the floor to subtract from preHandle's gc.alloc.rate.norm
+     */
+    @Benchmark
+    public String servletMockBaseline() {
+        MockHttpServletRequest request = requests[next++ & (CLIENTS - 1)];
+        response.reset();
+        request.getHeader("X-Forwarded-For");
+        request.getHeader("X-Real-IP");
+        response.setHeader("X-RateLimit-Limit", "100");
+        response.setHeader("X-RateLimit-Remaining", "99");
+        response.setHeader("X-RateLimit-Reset", "0");
+        return request.getRemoteAddr();
+    }
+}
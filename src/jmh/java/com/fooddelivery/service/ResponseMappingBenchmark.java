@@ -0,0 +1,68 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.benchmark.BenchmarkFixtures;
+import com.fooddelivery.dto.CartResponse;
+import com.fooddelivery.dto.MenuItemResponse;
+import com.fooddelivery.dto.OrderResponse;
+import com.fooddelivery.model.Cart;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping and order totals on in-memory entity graphs
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    // lines per order / cart
+    @Param({"1", "5", "20"})
+    public int lines;
+
+    private final OrderService orderService = new OrderService();
+
+    private final CartService cartService = new CartService();
+
+    private final MenuService menuService = new MenuService();
+
+    private Order order;
+
+    private Cart cart;
+
+    private MenuItem menuItem;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkFixtures.order(lines);
+        cart = BenchmarkFixtures.cart(lines);
+        menuItem = cart.getCartItems().get(0).getMenuItem();
+    }
+
+    @Benchmark
+    public OrderResponse orderResponse() {
+        return orderService.convertToOrderResponse(order);
+    }
+
+    @Benchmark
+    public CartResponse cartResponse() {
+        return cartService.convertToCartResponse(cart);
+    }
+
+    @Benchmark
+    public MenuItemResponse menuItemResponse() {
+        return menuService.convertToResponse(menuItem);
+    }
+
+    @Benchmark
+    public BigDecimal orderTotal() {
+        return OrderService.calculateTotal(cart.getCartItems());
+    }
+}
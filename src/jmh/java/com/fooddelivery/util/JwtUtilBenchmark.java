@@ -0,0 +1,75 @@
+package com.fooddelivery.util;
+
+import com.fooddelivery.model.User;
+import com.fooddelivery.security.AuthenticatedUser;
+import com.fooddelivery.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token parsing and validation as done by the JWT filter on every authenticated request,
+ * and the verified-token cache lookup that replaces them for a repeat token
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    private String token;
+
+    private UserDetails userDetails;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        jwtUtil.init();
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("customer@bench.test");
+        user.setRole(User.Role.CUSTOMER);
+        token = jwtUtil.generateToken(user);
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole().name(), 0);
+        userDetails = principal;
+        verifiedTokenCache = new VerifiedTokenCache(10_000, 300);
+        verifiedTokenCache.put(token, principal, jwtUtil.extractExpiration(token));
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser verifiedTokenCacheHit() {
+        return verifiedTokenCache.get(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateTokenForUser() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+}
@@ -14,14 +14,12 @@ import java.util.concurrent.TimeUnit;
 public class CacheConfig {
 
     public static final String RESTAURANT_CACHE = "restaurants";
-    public static final String MENU_ITEMS_CACHE = "menuItems";
     public static final String CUSTOMER_ADDRESSES_CACHE = "customerAddresses";
 
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
                 RESTAURANT_CACHE,
-                MENU_ITEMS_CACHE,
                 CUSTOMER_ADDRESSES_CACHE
         );
         cacheManager.setCaffeine(caffeineCacheBuilder());
@@ -0,0 +1,119 @@
+package com.fooddelivery.config;
+
+import com.fooddelivery.util.InstrumentedThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named, bounded executors per workload. Each pool reads
+ * executor.&lt;name&gt;.core-size / max-size / queue-capacity / rejection-policy;
+ * executor.virtual-threads=true runs pool workers on virtual threads when the JVM supports them.
+ */
+@Configuration
+public class ExecutorConfig implements AsyncConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    public static final String DEFAULT_EXECUTOR = "defaultExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String ANALYTICS_EXECUTOR = "analyticsExecutor";
+    public static final String DISPATCH_EXECUTOR = "dispatchExecutor";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${executor.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Fallback for @Async methods that do not name a pool
+     */
+    @Bean(name = DEFAULT_EXECUTOR)
+    public InstrumentedThreadPoolExecutor defaultExecutor() {
+        return createExecutor("default", 2, 4, 100, InstrumentedThreadPoolExecutor.RejectionPolicy.CALLER_RUNS);
+    }
+
+    /**
+     * Email outbox draining (SMTP I/O)
+     */
+    @Bean(name = EMAIL_EXECUTOR)
+    public InstrumentedThreadPoolExecutor emailExecutor() {
+        return createExecutor("email", 1, 2, 10, InstrumentedThreadPoolExecutor.RejectionPolicy.DROP);
+    }
+
+    /**
+     * Analytics rollups and counter maintenance
+     */
+    @Bean(name = ANALYTICS_EXECUTOR)
+    public InstrumentedThreadPoolExecutor analyticsExecutor() {
+        return createExecutor("analytics", 1, 2, 500, InstrumentedThreadPoolExecutor.RejectionPolicy.CALLER_RUNS);
+    }
+
+    /**
+     * Delivery dispatch batches; one at a time, extra ticks are dropped while a batch runs
+     */
+    @Bean(name = DISPATCH_EXECUTOR)
+    public InstrumentedThreadPoolExecutor dispatchExecutor() {
+        return createExecutor("dispatch", 1, 1, 1, InstrumentedThreadPoolExecutor.RejectionPolicy.DROP);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return defaultExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async task {} failed", method.getName(), ex);
+    }
+
+    private InstrumentedThreadPoolExecutor createExecutor(String name, int coreSize, int maxSize, int queueCapacity,
+                                                          InstrumentedThreadPoolExecutor.RejectionPolicy rejectionPolicy) {
+        String prefix = "executor." + name + ".";
+        int core = environment.getProperty(prefix + "core-size", Integer.class, coreSize);
+        int max = Math.max(core, environment.getProperty(prefix + "max-size", Integer.class, maxSize));
+        int capacity = environment.getProperty(prefix + "queue-capacity", Integer.class, queueCapacity);
+        InstrumentedThreadPoolExecutor.RejectionPolicy policy = environment.getProperty(
+                prefix + "rejection-policy", InstrumentedThreadPoolExecutor.RejectionPolicy.class, rejectionPolicy);
+
+        ThreadFactory virtualFactory = virtualThreads ? virtualThreadFactory(name + "-") : null;
+        ThreadFactory threadFactory = virtualFactory != null ? virtualFactory : platformThreadFactory(name + "-");
+        return new InstrumentedThreadPoolExecutor(name, core, max, capacity, policy, threadFactory, virtualFactory != null);
+    }
+
+    private ThreadFactory platformThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 0).factory(), looked up reflectively so the build stays on Java 17
+     */
+    private ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method name = Class.forName("java.lang.Thread$Builder$OfVirtual").getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, prefix, 0L);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads requested but not supported by this JVM; using platform threads for {}", prefix);
+            return null;
+        }
+    }
+}
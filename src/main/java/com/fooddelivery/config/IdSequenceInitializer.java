@@ -0,0 +1,58 @@
+package com.fooddelivery.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Moves id sequences past rows created while their tables still used IDENTITY columns.
+ *
+ * order_item switched to a pooled sequence; ddl-auto creates that sequence at 1, which would
+ * collide with existing ids. Runs once at startup on PostgreSQL and only ever moves a
+ * sequence forward.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdSequenceInitializer implements ApplicationRunner {
+
+    // table, sequence, allocationSize of its @SequenceGenerator
+    private static final String[][] SEQUENCES = {
+            {"order_item", "order_item_seq", "50"}
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+        }
+
+        for (String[] sequence : SEQUENCES) {
+            String table = sequence[0];
+            String name = sequence[1];
+            long allocationSize = Long.parseLong(sequence[2]);
+            // The pooled optimizer hands out (value - allocationSize, value], so keep value - allocationSize above MAX(id)
+            Long floor = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) + " + allocationSize + " FROM \"" + table + "\"", Long.class);
+            Long current = jdbcTemplate.queryForObject("SELECT last_value FROM \"" + name + "\"", Long.class);
+            if (floor != null && current != null && current < floor) {
+                jdbcTemplate.queryForObject("SELECT setval('\"" + name + "\"', ?)", Long.class, floor);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.fooddelivery.config;
+
+import com.fooddelivery.service.InMemoryCompareAndSwapProxyManager;
+import com.fooddelivery.service.JdbcCompareAndSwapProxyManager;
+import com.fooddelivery.service.LocalRateLimitBackend;
+import com.fooddelivery.service.ProxyManagerRateLimitBackend;
+import com.fooddelivery.service.RateLimitBackend;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Selects where rate-limit buckets live with rate.limit.backend:
+ * local (per node, the default), jdbc (shared through the database) or cas (shared in-process,
+ * for tests). rate.limit.prefetch-tokens above 0 lets shared backends spend that many tokens
+ * locally between synchronizations.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${rate.limit.backend:local}")
+    private String backend;
+
+    @Value("${rate.limit.prefetch-tokens:0}")
+    private long prefetchTokens;
+
+    @Value("${rate.limit.prefetch-max-delay-ms:100}")
+    private long prefetchMaxDelayMs;
+
+    @Value("${rate.limit.window:60}")
+    private int windowSeconds;
+
+    @Bean
+    public RateLimitBackend rateLimitBackend(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        Duration prefetchMaxDelay = Duration.ofMillis(prefetchMaxDelayMs);
+        return switch (backend) {
+            case "local" -> new LocalRateLimitBackend();
+            case "jdbc" -> new ProxyManagerRateLimitBackend(
+                    new JdbcCompareAndSwapProxyManager(jdbcTemplate.getObject(), Duration.ofSeconds(windowSeconds)),
+                    prefetchTokens, prefetchMaxDelay);
+            case "cas" -> new ProxyManagerRateLimitBackend(
+                    new InMemoryCompareAndSwapProxyManager(), prefetchTokens, prefetchMaxDelay);
+            default -> throw new IllegalStateException("Unknown rate.limit.backend: " + backend);
+        };
+    }
+}
@@ -1,9 +1,15 @@
 package com.fooddelivery.config;
 
+import com.fooddelivery.security.AuthenticatedUser;
 import com.fooddelivery.service.RateLimitService;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
@@ -12,120 +18,132 @@ import java.time.Instant;
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
+    // header values for remaining-token counts below this are formatted once up front
+    private static final int PREFORMATTED_COUNTS = 1024;
+
+    private static final String[] COUNTS = new String[PREFORMATTED_COUNTS];
+
+    static {
+        for (int i = 0; i < PREFORMATTED_COUNTS; i++) {
+            COUNTS[i] = String.valueOf(i);
+        }
+    }
+
     @Autowired
     private RateLimitService rateLimitService;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String key = getKey(request);
-        RateLimitService.LimitType limitType = getLimitType(request);
-
-        if (!rateLimitService.tryConsume(key, limitType)) {
-            // Rate limit exceeded
-            long availableTokens = rateLimitService.getAvailableTokens(key, limitType);
-            int limit = rateLimitService.getLimitForTypePublic(limitType);
-            int windowSeconds = rateLimitService.getWindowSeconds();
-            
-            // Calculate reset time (current time + window seconds)
-            long resetTime = Instant.now().getEpochSecond() + windowSeconds;
-            
-            // Set rate limit headers
-            response.setHeader("X-RateLimit-Limit", String.valueOf(limit));
-            response.setHeader("X-RateLimit-Remaining", String.valueOf(availableTokens));
-            response.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
-            response.setHeader("Retry-After", String.valueOf(windowSeconds));
-            
-            // Return 429 Too Many Requests
-            response.setStatus(429);
-            response.setContentType("application/json");
-            response.getWriter().write(String.format(
-                "{\"status\":429,\"message\":\"Rate limit exceeded. Maximum %d requests per %d seconds.\",\"timestamp\":\"%s\",\"path\":\"%s\"}",
-                limit, windowSeconds, Instant.now().toString(), request.getRequestURI()
-            ));
-            return false;
-        }
+        Authentication authentication = getAuthentication();
+        // usernames are emails and always contain '@'; client addresses never do
+        String key = authentication != null ? authentication.getName() : getClientIpAddress(request);
+        RateLimitService.Policy policy = rateLimitService.resolvePolicy(
+                request.getMethod(), request.getRequestURI(), getRole(authentication));
 
-        // Rate limit not exceeded, set headers
-        long availableTokens = rateLimitService.getAvailableTokens(key, limitType);
-        int limit = rateLimitService.getLimitForTypePublic(limitType);
-        int windowSeconds = rateLimitService.getWindowSeconds();
-        long resetTime = Instant.now().getEpochSecond() + windowSeconds;
+        ConsumptionProbe probe = rateLimitService.tryConsume(key, policy);
+        long nowMillis = System.currentTimeMillis();
 
-        response.setHeader("X-RateLimit-Limit", String.valueOf(limit));
-        response.setHeader("X-RateLimit-Remaining", String.valueOf(availableTokens));
-        response.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
+        response.setHeader("X-RateLimit-Limit", policy.getLimitHeader());
+        response.setHeader("X-RateLimit-Remaining", count(probe.getRemainingTokens()));
+        response.setHeader("X-RateLimit-Reset", policy.getResetHeader(nowMillis / 1000));
 
-        return true;
+        if (probe.isConsumed()) {
+            return true;
+        }
+
+        // Rate limit exceeded; a costly request may have to wait for more than one token
+        response.setHeader("Retry-After", count((probe.getNanosToWaitForRefill() + 999_999_999L) / 1_000_000_000L));
+
+        // Return 429 Too Many Requests
+        response.setStatus(429);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"status\":429,\"message\":\"Rate limit exceeded. Maximum "
+                + policy.getRefillTokens() + " tokens per " + policy.getRefillSeconds()
+                + " seconds; this request costs " + policy.getCost()
+                + ".\",\"timestamp\":\"" + Instant.ofEpochMilli(nowMillis)
+                + "\",\"path\":\"" + request.getRequestURI() + "\"}");
+        return false;
+    }
+
+    private static String count(long value) {
+        return value >= 0 && value < PREFORMATTED_COUNTS ? COUNTS[(int) value] : String.valueOf(value);
     }
 
     /**
-     * Get unique key for rate limiting (IP address or user ID)
+     * The authenticated caller, or null for anonymous requests
      */
-    private String getKey(HttpServletRequest request) {
-        // Try to get authenticated user from SecurityContext
-        String username = null;
+    private Authentication getAuthentication() {
         try {
-            org.springframework.security.core.Authentication authentication = 
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated() && 
-                !(authentication instanceof org.springframework.security.authentication.AnonymousAuthenticationToken)) {
-                username = authentication.getName();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return authentication;
             }
         } catch (Exception e) {
             // Ignore if security context is not available
         }
+        return null;
+    }
 
-        if (username != null) {
-            return "user:" + username;
+    /**
+     * Role of the caller as used in rate limit policies, or null when anonymous
+     */
+    private String getRole(Authentication authentication) {
+        if (authentication == null) {
+            return null;
         }
-
-        // Fall back to IP address
-        String ipAddress = getClientIpAddress(request);
-        return "ip:" + ipAddress;
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getRole();
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                return name.substring(5);
+            }
+        }
+        return null;
     }
 
     /**
-     * Get client IP address from request
+     * Client address: the first X-Forwarded-For hop or X-Real-IP when it is an address literal,
+     * otherwise the socket address. Anything else in those headers is ignored, so an anonymous
+     * caller cannot name a username (always containing '@') and spend that user's tokens.
      */
     private String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
-            return xForwardedFor.split(",")[0].trim();
+        if (xForwardedFor != null) {
+            int comma = xForwardedFor.indexOf(',');
+            String firstHop = (comma < 0 ? xForwardedFor : xForwardedFor.substring(0, comma)).trim();
+            if (isAddressLiteral(firstHop)) {
+                return firstHop;
+            }
         }
 
         String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
-            return xRealIp;
+        if (xRealIp != null && isAddressLiteral(xRealIp.trim())) {
+            return xRealIp.trim();
         }
 
         return request.getRemoteAddr();
     }
 
     /**
-     * Determine rate limit type based on request path
+     * Whether a value is made only of IPv4/IPv6 literal characters (hex digits, '.' and ':')
      */
-    private RateLimitService.LimitType getLimitType(HttpServletRequest request) {
-        String path = request.getRequestURI();
-
-        // Payment endpoints
-        if (path.startsWith("/api/payments/")) {
-            return RateLimitService.LimitType.PAYMENT;
+    static boolean isAddressLiteral(String value) {
+        int length = value.length();
+        if (length == 0 || length > 45) {
+            return false;
         }
-
-        // Authenticated endpoints (require authentication)
-        if (path.startsWith("/api/customer/") ||
-            path.startsWith("/api/cart/") ||
-            path.startsWith("/api/orders/") ||
-            path.startsWith("/api/restaurant/") ||
-            path.startsWith("/api/delivery/") ||
-            path.startsWith("/api/admin/") ||
-            path.startsWith("/api/reviews/submit") ||
-            path.startsWith("/api/reviews/my-reviews")) {
-            return RateLimitService.LimitType.AUTHENTICATED;
+        boolean separator = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' || c == ':') {
+                separator = true;
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
         }
-
-        // Public endpoints (no authentication required)
-        return RateLimitService.LimitType.PUBLIC;
+        return separator;
     }
 }
-
@@ -1,16 +1,19 @@
 package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.AdminAnalyticsOverviewResponse;
+import com.fooddelivery.dto.AnalyticsRollupStatsResponse;
 import com.fooddelivery.dto.OrderTrendResponse;
 import com.fooddelivery.dto.TopCustomerResponse;
 import com.fooddelivery.dto.TopRestaurantResponse;
 import com.fooddelivery.service.AdminAnalyticsService;
+import com.fooddelivery.service.AnalyticsRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -25,6 +28,9 @@ public class AdminAnalyticsController {
     @Autowired
     private AdminAnalyticsService adminAnalyticsService;
 
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
     @GetMapping("/overview")
@@ -68,5 +74,17 @@ public class AdminAnalyticsController {
         List<TopCustomerResponse> topCustomers = adminAnalyticsService.getTopCustomers(limit);
         return ResponseEntity.ok(topCustomers);
     }
-}
 
+    @GetMapping("/rollup-stats")
+    public ResponseEntity<AnalyticsRollupStatsResponse> getRollupStats() {
+        return ResponseEntity.ok(analyticsRollupService.getStats());
+    }
+
+    @PostMapping("/rollups/reconcile")
+    public ResponseEntity<AnalyticsRollupStatsResponse> reconcileRollups(
+            @RequestParam(defaultValue = "30") int days) {
+        LocalDate today = LocalDate.now();
+        analyticsRollupService.reconcile(today.minusDays(Math.max(days, 1) - 1L), today);
+        return ResponseEntity.ok(analyticsRollupService.getStats());
+    }
+}
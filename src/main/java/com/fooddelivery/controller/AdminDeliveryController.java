@@ -0,0 +1,41 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.DispatchStatsResponse;
+import com.fooddelivery.dto.LocationIngestionStatsResponse;
+import com.fooddelivery.service.DeliveryLocationStore;
+import com.fooddelivery.service.DispatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/delivery")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Delivery", description = "Delivery fleet monitoring endpoints (requires ADMIN role)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminDeliveryController {
+
+    @Autowired
+    private DeliveryLocationStore deliveryLocationStore;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @GetMapping("/location-stats")
+    @Operation(summary = "Location ingestion stats", description = "Ping throughput and write-back batching for delivery partner locations")
+    public ResponseEntity<LocationIngestionStatsResponse> getLocationStats() {
+        return ResponseEntity.ok(deliveryLocationStore.getStats());
+    }
+
+    @GetMapping("/dispatch-stats")
+    @Operation(summary = "Dispatch stats", description = "Queue depth, batch sizes and assignment outcomes of the dispatch engine")
+    public ResponseEntity<DispatchStatsResponse> getDispatchStats() {
+        return ResponseEntity.ok(dispatchService.getStats());
+    }
+}
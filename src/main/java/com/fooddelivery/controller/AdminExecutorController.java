@@ -0,0 +1,56 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.ExecutorStatsResponse;
+import com.fooddelivery.util.InstrumentedThreadPoolExecutor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/admin/executors")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Executors", description = "Background thread pool monitoring endpoints (requires ADMIN role)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminExecutorController {
+
+    @Autowired
+    private List<InstrumentedThreadPoolExecutor> executors;
+
+    @GetMapping
+    @Operation(summary = "Executor pool stats", description = "Queue depth, active threads, task latency and rejections per named pool")
+    public ResponseEntity<List<ExecutorStatsResponse>> getExecutorStats() {
+        List<ExecutorStatsResponse> stats = executors.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(stats);
+    }
+
+    private ExecutorStatsResponse convertToResponse(InstrumentedThreadPoolExecutor executor) {
+        ExecutorStatsResponse response = new ExecutorStatsResponse();
+        response.setName(executor.getName());
+        response.setVirtualThreads(executor.isVirtualThreads());
+        response.setCorePoolSize(executor.getCorePoolSize());
+        response.setMaxPoolSize(executor.getMaximumPoolSize());
+        response.setPoolSize(executor.getPoolSize());
+        response.setActiveThreads(executor.getActiveCount());
+        response.setQueueDepth(executor.getQueue().size());
+        response.setQueueCapacity(executor.getQueueCapacity());
+        response.setRejectionPolicy(executor.getRejectionPolicy().name());
+        response.setCompletedTasks(executor.getCompletedTaskTotal());
+        response.setFailedTasks(executor.getFailedTaskTotal());
+        response.setRejectedTasks(executor.getRejectedTaskTotal());
+        response.setAverageQueueWaitMs(executor.getAverageQueueWaitMillis());
+        response.setAverageTaskLatencyMs(executor.getAverageRunMillis());
+        response.setMaxTaskLatencyMs(executor.getMaxRunMillis());
+        return response;
+    }
+}
@@ -0,0 +1,30 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.EmailOutboxStatsResponse;
+import com.fooddelivery.service.EmailOutboxDispatcher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/notifications")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Notifications", description = "Notification delivery monitoring endpoints (requires ADMIN role)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminNotificationController {
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @GetMapping("/outbox-stats")
+    @Operation(summary = "Email outbox stats", description = "Backlog depth, retries and send latency of the email outbox")
+    public ResponseEntity<EmailOutboxStatsResponse> getOutboxStats() {
+        return ResponseEntity.ok(emailOutboxDispatcher.getStats());
+    }
+}
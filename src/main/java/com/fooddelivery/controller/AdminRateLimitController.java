@@ -0,0 +1,59 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.RateLimitPolicyResponse;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.service.RateLimitService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/admin/rate-limits")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Rate Limits", description = "Rate limit policy endpoints (requires ADMIN role)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminRateLimitController {
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @GetMapping
+    @Operation(summary = "Rate limit policies", description = "Policies in force with their bucket settings and token cost")
+    public ResponseEntity<List<RateLimitPolicyResponse>> getPolicies() {
+        return ResponseEntity.ok(convertToResponse(rateLimitService.getPolicies()));
+    }
+
+    @PostMapping("/reload")
+    @Operation(summary = "Reload rate limit policies", description = "Re-read the policy file without waiting for the periodic check")
+    public ResponseEntity<List<RateLimitPolicyResponse>> reloadPolicies() {
+        try {
+            return ResponseEntity.ok(convertToResponse(rateLimitService.reloadPolicies()));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Rate limit policies not reloaded: " + e.getMessage());
+        }
+    }
+
+    private List<RateLimitPolicyResponse> convertToResponse(List<RateLimitService.Policy> policies) {
+        return policies.stream()
+                .map(policy -> new RateLimitPolicyResponse(
+                        policy.getPath(),
+                        policy.getMethod(),
+                        policy.getRole(),
+                        policy.getBucket(),
+                        policy.getCost(),
+                        policy.getCapacity(),
+                        policy.getRefillTokens(),
+                        policy.getRefillSeconds()))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,6 +1,9 @@
 package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.CacheStatsResponse;
+import com.fooddelivery.service.MenuSnapshotCache;
+import com.fooddelivery.service.ResponseBytesCache;
+import com.fooddelivery.service.UserCache;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
@@ -21,6 +24,15 @@ public class CacheController {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<CacheStatsResponse>> getCacheStatistics() {
@@ -30,28 +42,15 @@ public class CacheController {
             CaffeineCache cache = (CaffeineCache) cacheManager.getCache(cacheName);
             if (cache != null) {
                 com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
-                CacheStats stats = nativeCache.stats();
-
-                CacheStatsResponse response = new CacheStatsResponse();
-                response.setCacheName(cacheName);
-                response.setSize(nativeCache.estimatedSize());
-                response.setHitCount(stats.hitCount());
-                response.setMissCount(stats.missCount());
-                response.setHitRate(stats.hitRate());
-                response.setMissRate(stats.missRate());
-
-                Map<String, Object> additionalStats = new HashMap<>();
-                additionalStats.put("evictionCount", stats.evictionCount());
-                additionalStats.put("loadCount", stats.loadCount());
-                additionalStats.put("loadSuccessCount", stats.loadSuccessCount());
-                additionalStats.put("loadFailureCount", stats.loadFailureCount());
-                additionalStats.put("totalLoadTime", stats.totalLoadTime());
-                response.setAdditionalStats(additionalStats);
-
-                statsList.add(response);
+                statsList.add(toStatsResponse(cacheName, nativeCache.estimatedSize(), nativeCache.stats()));
             }
         });
 
+        // the user, menu and response caches live outside the cache manager
+        statsList.add(toStatsResponse(UserCache.NAME, userCache.size(), userCache.stats()));
+        statsList.add(toStatsResponse(MenuSnapshotCache.NAME, menuSnapshotCache.size(), menuSnapshotCache.stats()));
+        statsList.add(toStatsResponse(ResponseBytesCache.NAME, responseBytesCache.size(), responseBytesCache.stats()));
+
         return ResponseEntity.ok(statsList);
     }
 
@@ -61,6 +60,9 @@ public class CacheController {
         cacheManager.getCacheNames().forEach(cacheName -> {
             cacheManager.getCache(cacheName).clear();
         });
+        userCache.invalidateAll();
+        menuSnapshotCache.invalidateAll();
+        responseBytesCache.invalidateAll();
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "All caches cleared successfully");
@@ -70,7 +72,22 @@ public class CacheController {
     @DeleteMapping("/clear/{cacheName}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, String>> clearCache(@PathVariable String cacheName) {
-        if (cacheManager.getCache(cacheName) != null) {
+        if (UserCache.NAME.equals(cacheName)) {
+            userCache.invalidateAll();
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Cache '" + cacheName + "' cleared successfully");
+            return ResponseEntity.ok(response);
+        } else if (MenuSnapshotCache.NAME.equals(cacheName)) {
+            menuSnapshotCache.invalidateAll();
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Cache '" + cacheName + "' cleared successfully");
+            return ResponseEntity.ok(response);
+        } else if (ResponseBytesCache.NAME.equals(cacheName)) {
+            responseBytesCache.invalidateAll();
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Cache '" + cacheName + "' cleared successfully");
+            return ResponseEntity.ok(response);
+        } else if (cacheManager.getCache(cacheName) != null) {
             cacheManager.getCache(cacheName).clear();
             Map<String, String> response = new HashMap<>();
             response.put("message", "Cache '" + cacheName + "' cleared successfully");
@@ -81,5 +98,23 @@ public class CacheController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
 
+    private CacheStatsResponse toStatsResponse(String cacheName, long size, CacheStats stats) {
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setCacheName(cacheName);
+        response.setSize(size);
+        response.setHitCount(stats.hitCount());
+        response.setMissCount(stats.missCount());
+        response.setHitRate(stats.hitRate());
+        response.setMissRate(stats.missRate());
+
+        Map<String, Object> additionalStats = new HashMap<>();
+        additionalStats.put("evictionCount", stats.evictionCount());
+        additionalStats.put("loadCount", stats.loadCount());
+        additionalStats.put("loadSuccessCount", stats.loadSuccessCount());
+        additionalStats.put("loadFailureCount", stats.loadFailureCount());
+        additionalStats.put("totalLoadTime", stats.totalLoadTime());
+        response.setAdditionalStats(additionalStats);
+        return response;
+    }
+}
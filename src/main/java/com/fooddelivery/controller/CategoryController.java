@@ -2,22 +2,33 @@ package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.CategoryRequest;
 import com.fooddelivery.model.Category;
+import com.fooddelivery.service.CatalogVersions;
 import com.fooddelivery.service.CategoryService;
+import com.fooddelivery.util.HttpCaching;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/categories")
 public class CategoryController {
 
+    // categories are edited by admins only, rarely
+    private static final CacheControl CATEGORY_CACHE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @PostMapping
     public ResponseEntity<Category> createCategory(@Valid @RequestBody CategoryRequest request) {
         Category category = categoryService.createCategory(request);
@@ -25,15 +36,28 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
+    public ResponseEntity<List<Category>> getAllCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.categoriesETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, CATEGORY_CACHE);
+        }
+
         List<Category> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return HttpCaching.ok(categories, etag, CATEGORY_CACHE);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<Category> getCategoryById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.categoriesETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, CATEGORY_CACHE);
+        }
+
         Category category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+        return HttpCaching.ok(category, etag, CATEGORY_CACHE);
     }
 
     @PutMapping("/{id}")
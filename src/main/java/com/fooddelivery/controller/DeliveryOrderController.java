@@ -61,8 +61,8 @@ public class DeliveryOrderController {
             @PathVariable Long id,
             @Valid @RequestBody UpdateLocationRequest request) {
         Long userId = securityUtil.getUserIdFromAuthentication(authentication);
-        // Verify the order belongs to this delivery partner
-        orderService.getOrderById(id); // This will throw if order doesn't exist
+        // One indexed existence query; the ping itself only moves the partner in the in-memory location store
+        orderService.assertAssignedToDeliveryPartner(userId, id);
         DeliveryPartnerResponse response = deliveryPartnerService.updateLocation(userId, request);
         return ResponseEntity.ok(response);
     }
@@ -5,6 +5,7 @@ import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.model.MenuItem;
 import com.fooddelivery.repository.RestaurantRepository;
 import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.service.MenuService;
 import com.fooddelivery.util.FileUploadUtil;
 import com.fooddelivery.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class FileUploadController {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuService menuService;
+
     @Autowired
     private SecurityUtil securityUtil;
 
@@ -77,6 +81,7 @@ public class FileUploadController {
             String fileUrl = fileUploadUtil.uploadFile(file, "/menu-items");
             menuItem.setImage(fileUrl);
             menuItemRepository.save(menuItem);
+            menuService.menuChanged(restaurant.getId());
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Image uploaded successfully");
@@ -1,21 +1,41 @@
 package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.MenuItemResponse;
+import com.fooddelivery.service.CatalogVersions;
 import com.fooddelivery.service.MenuService;
+import com.fooddelivery.service.MenuSnapshotCache.MenuSnapshot;
+import com.fooddelivery.service.ResponseBytesCache;
+import com.fooddelivery.util.HttpCaching;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/restaurant")
 public class PublicMenuController {
 
+    // menus change a few times a day; clients revalidate after a minute
+    private static final CacheControl MENU_CACHE = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
     @GetMapping("/{restaurantId}/menu")
     public ResponseEntity<Page<MenuItemResponse>> getRestaurantMenu(
             @PathVariable Long restaurantId,
@@ -23,17 +43,47 @@ public class PublicMenuController {
             @RequestParam(required = false) Boolean isVeg,
             @RequestParam(required = false) Boolean isAvailable,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<MenuItemResponse> menuItems = menuService.getMenuItems(restaurantId, category, isVeg, isAvailable, pageable);
-        return ResponseEntity.ok(menuItems);
+        MenuSnapshot snapshot = menuService.getMenuSnapshot(restaurantId);
+        if (snapshot == null) {
+            return ResponseEntity.ok(Page.empty(pageable));
+        }
+
+        // every view of a menu changes with the snapshot's version
+        String etag = CatalogVersions.menuETag(snapshot);
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, MENU_CACHE);
+        }
+
+        if (responseBytesCache.isEnabled(ResponseBytesCache.MENU)) {
+            // bound parameters rather than the raw query, so ?isVeg=TRUE&page=0 and ?isVeg=true share an entry
+            String key = etag + "/menu?category=" + category + "&isVeg=" + isVeg + "&isAvailable=" + isAvailable
+                    + "&page=" + page + "&size=" + size;
+            responseBytesCache.write(key,
+                    () -> menuService.getMenuItems(snapshot, category, isVeg, isAvailable, pageable),
+                    etag, MENU_CACHE, request, response);
+            return null;
+        }
+
+        Page<MenuItemResponse> menuItems = menuService.getMenuItems(snapshot, category, isVeg, isAvailable, pageable);
+        return HttpCaching.ok(menuItems, etag, MENU_CACHE);
     }
 
     @GetMapping("/menu/items/{id}")
-    public ResponseEntity<MenuItemResponse> getMenuItemById(@PathVariable Long id) {
+    public ResponseEntity<MenuItemResponse> getMenuItemById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.menuItemsETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, MENU_CACHE);
+        }
+
         MenuItemResponse menuItem = menuService.getMenuItemById(id);
-        return ResponseEntity.ok(menuItem);
+        return HttpCaching.ok(menuItem, etag, MENU_CACHE);
     }
 }
-
@@ -1,31 +1,58 @@
 package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.RestaurantResponse;
+import com.fooddelivery.service.CatalogVersions;
+import com.fooddelivery.service.ResponseBytesCache;
 import com.fooddelivery.service.RestaurantService;
+import com.fooddelivery.util.HttpCaching;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/restaurants")
 @Tag(name = "Public Restaurant", description = "Public endpoints for browsing restaurants (no authentication required)")
 public class PublicRestaurantController {
 
+    // listings move with open/closed toggles, so they are revalidated sooner than a single restaurant
+    private static final CacheControl LIST_CACHE = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic();
+
+    private static final CacheControl DETAIL_CACHE = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+
+    private static final long MAX_NEARBY_RADIUS_KM = 50;
+
+    private static final long MAX_NEARBY_LIMIT = 100;
+
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
     @GetMapping
     @Operation(
             summary = "Get all restaurants with filters",
@@ -49,7 +76,9 @@ public class PublicRestaurantController {
             @Parameter(description = "Sort field (id, name, rating)", example = "rating")
             @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Sort direction (asc, desc)", example = "desc")
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") 
             ? Sort.by(sortBy).descending() 
@@ -57,8 +86,13 @@ public class PublicRestaurantController {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
+        String etag = catalogVersions.restaurantsETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, LIST_CACHE);
+        }
+
         Page<RestaurantResponse> restaurants = restaurantService.getAllRestaurants(cuisine, city, minRating, pageable);
-        return ResponseEntity.ok(restaurants);
+        return HttpCaching.ok(restaurants, etag, LIST_CACHE);
     }
 
     @GetMapping("/{id}")
@@ -72,38 +106,76 @@ public class PublicRestaurantController {
     })
     public ResponseEntity<RestaurantResponse> getRestaurantById(
             @Parameter(description = "Restaurant ID", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String etag = catalogVersions.restaurantsETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, DETAIL_CACHE);
+        }
+
+        if (responseBytesCache.isEnabled(ResponseBytesCache.RESTAURANT)) {
+            responseBytesCache.write(etag + "/restaurants/" + id, () -> restaurantService.getRestaurantById(id),
+                    etag, DETAIL_CACHE, request, response);
+            return null;
+        }
+
         RestaurantResponse restaurant = restaurantService.getRestaurantById(id);
-        return ResponseEntity.ok(restaurant);
+        return HttpCaching.ok(restaurant, etag, DETAIL_CACHE);
     }
 
     @GetMapping("/cuisine/{cuisine}")
     public ResponseEntity<Page<RestaurantResponse>> getRestaurantsByCuisine(
             @PathVariable String cuisine,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Pageable pageable = PageRequest.of(page, size);
+        String etag = catalogVersions.restaurantsETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, LIST_CACHE);
+        }
+
         Page<RestaurantResponse> restaurants = restaurantService.getRestaurantsByCuisine(cuisine, pageable);
-        return ResponseEntity.ok(restaurants);
+        return HttpCaching.ok(restaurants, etag, LIST_CACHE);
     }
 
     @GetMapping("/city/{city}")
     public ResponseEntity<Page<RestaurantResponse>> getRestaurantsByCity(
             @PathVariable String city,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Pageable pageable = PageRequest.of(page, size);
+        String etag = catalogVersions.restaurantsETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, LIST_CACHE);
+        }
+
         Page<RestaurantResponse> restaurants = restaurantService.getRestaurantsByCity(city, pageable);
-        return ResponseEntity.ok(restaurants);
+        return HttpCaching.ok(restaurants, etag, LIST_CACHE);
     }
 
     @GetMapping("/nearby")
     public ResponseEntity<List<RestaurantResponse>> getNearbyRestaurants(
-            @RequestParam Double lat,
-            @RequestParam Double longitude,
-            @RequestParam(defaultValue = "5.0") Double radius) {
-        List<RestaurantResponse> restaurants = restaurantService.getNearbyRestaurants(lat, longitude, radius);
-        return ResponseEntity.ok(restaurants);
+            // the bounds also reject NaN and infinities, which would otherwise reach the geo index
+            @RequestParam @Min(-90) @Max(90) Double lat,
+            @RequestParam @Min(-180) @Max(180) Double longitude,
+            @Parameter(description = "Search radius in km, at most " + MAX_NEARBY_RADIUS_KM)
+            @RequestParam(defaultValue = "5.0") @Positive @Max(MAX_NEARBY_RADIUS_KM) Double radius,
+            @Parameter(description = "Return only the k nearest restaurants within the radius")
+            @RequestParam(required = false) @Min(1) @Max(MAX_NEARBY_LIMIT) Integer limit,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.restaurantsETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, LIST_CACHE);
+        }
+
+        List<RestaurantResponse> restaurants = restaurantService.getNearbyRestaurants(lat, longitude, radius, limit);
+        return HttpCaching.ok(restaurants, etag, LIST_CACHE);
     }
 }
 
@@ -1,5 +1,6 @@
 package com.fooddelivery.controller;
 
+import com.fooddelivery.dto.OrderHeatmapResponse;
 import com.fooddelivery.dto.PeakHourResponse;
 import com.fooddelivery.dto.PopularItemResponse;
 import com.fooddelivery.dto.RestaurantDashboardResponse;
@@ -69,5 +70,11 @@ public class RestaurantAnalyticsController {
         List<PeakHourResponse> peakHours = restaurantAnalyticsService.getPeakHours(userId);
         return ResponseEntity.ok(peakHours);
     }
-}
 
+    @GetMapping("/heatmap")
+    public ResponseEntity<OrderHeatmapResponse> getHeatmap(Authentication authentication) {
+        Long userId = securityUtil.getUserIdFromAuthentication(authentication);
+        OrderHeatmapResponse heatmap = restaurantAnalyticsService.getHeatmap(userId);
+        return ResponseEntity.ok(heatmap);
+    }
+}
@@ -0,0 +1,22 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsRollupStatsResponse {
+    private Long pendingRows;
+    private Long totalChangesRecorded;
+    private Long totalFlushes;
+    private Long totalRowsWritten;
+    private Long lastFlushDurationMs;
+    private LocalDateTime lastFlushAt;
+    private Long totalReconciles;
+    private Long lastReconcileDurationMs;
+    private LocalDateTime lastReconcileAt;
+}
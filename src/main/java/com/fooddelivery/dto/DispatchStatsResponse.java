@@ -0,0 +1,22 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStatsResponse {
+    private Long queuedOrders;
+    private Long totalAssigned;
+    private Long totalLostRaces;
+    private Long totalRequeued;
+    private Long totalGivenUp;
+    private Long lastBatchSize;
+    private Long lastBatchAssigned;
+    private Long lastBatchDurationMs;
+    private LocalDateTime lastBatchAt;
+}
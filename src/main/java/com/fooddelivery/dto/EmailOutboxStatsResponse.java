@@ -0,0 +1,23 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxStatsResponse {
+    private Long pending;
+    private Long failed;
+    private LocalDateTime oldestPendingAt;
+    private Long totalSent;
+    private Long totalRetried;
+    private Long totalGivenUp;
+    private Double averageSendLatencyMs;
+    private Long lastBatchSize;
+    private Long lastBatchDurationMs;
+    private LocalDateTime lastBatchAt;
+}
@@ -0,0 +1,26 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutorStatsResponse {
+    private String name;
+    private Boolean virtualThreads;
+    private Integer corePoolSize;
+    private Integer maxPoolSize;
+    private Integer poolSize;
+    private Integer activeThreads;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private String rejectionPolicy;
+    private Long completedTasks;
+    private Long failedTasks;
+    private Long rejectedTasks;
+    private Double averageQueueWaitMs;
+    private Double averageTaskLatencyMs;
+    private Double maxTaskLatencyMs;
+}
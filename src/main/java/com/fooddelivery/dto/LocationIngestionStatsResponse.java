@@ -0,0 +1,23 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationIngestionStatsResponse {
+    private Long trackedPartners;
+    private Long availablePartners;
+    private Long pendingWrites;
+    private Long totalPings;
+    private Double pingsPerSecond;
+    private Long totalFlushes;
+    private Long totalRowsWritten;
+    private Long lastFlushRows;
+    private Long lastFlushDurationMs;
+    private LocalDateTime lastFlushAt;
+}
@@ -0,0 +1,17 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHeatmapResponse {
+    private Integer windowDays;
+    // Monday..Sunday -> 24 order counts, index = hour of day
+    private Map<DayOfWeek, long[]> ordersByDayAndHour;
+}
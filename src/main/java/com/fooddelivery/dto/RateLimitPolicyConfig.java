@@ -0,0 +1,46 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contents of the rate limit policy file (rate.limit.policy-file)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitPolicyConfig {
+    // named token buckets; "public", "authenticated" and "payment" exist even when not listed
+    private Map<String, BucketSpec> buckets = new LinkedHashMap<>();
+    private List<PolicySpec> policies = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BucketSpec {
+        private Long capacity;
+        // defaults to capacity
+        private Long refillTokens;
+        private Integer refillSeconds;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PolicySpec {
+        private String path;
+        // null or "*" for any
+        private String method;
+        // null or "*" for any, ANONYMOUS for unauthenticated requests
+        private String role;
+        private String bucket;
+        // tokens a request takes, 1 when not set
+        private Integer cost;
+    }
+}
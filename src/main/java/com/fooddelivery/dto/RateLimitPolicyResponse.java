@@ -0,0 +1,19 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitPolicyResponse {
+    private String path;
+    private String method;
+    private String role;
+    private String bucket;
+    private Integer cost;
+    private Long capacity;
+    private Long refillTokens;
+    private Integer refillSeconds;
+}
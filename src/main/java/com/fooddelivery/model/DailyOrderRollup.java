@@ -0,0 +1,42 @@
+package com.fooddelivery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Platform-wide order totals for one day (by order date); maintained by AnalyticsRollupService
+ */
+@Entity
+@Table(name = "daily_order_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOrderRollup {
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+
+    // every order placed that day, whatever its payment state
+    @Column(name = "placed_orders", nullable = false)
+    private Long placedOrders = 0L;
+
+    @Column(name = "paid_orders", nullable = false)
+    private Long paidOrders = 0L;
+
+    @Column(name = "delivered_orders", nullable = false)
+    private Long deliveredOrders = 0L;
+
+    // total of paid orders
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.fooddelivery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Paid orders and revenue of one restaurant for one day; maintained by AnalyticsRollupService
+ */
+@Entity
+@Table(name = "daily_restaurant_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_restaurant_rollup", columnNames = {"rollup_date", "restaurant_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRestaurantRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "paid_orders", nullable = false)
+    private Long paidOrders = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.fooddelivery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running lifetime totals of a delivery partner's completed deliveries; maintained by DeliveryEarningsLedgerService
+ */
+@Entity
+@Table(name = "delivery_earnings_ledger")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryEarningsLedger {
+
+    @Id
+    @Column(name = "delivery_partner_id")
+    private Long deliveryPartnerId;
+
+    @Column(name = "completed_deliveries", nullable = false)
+    private Long completedDeliveries = 0L;
+
+    // order totals of the delivered orders; commission is applied when read
+    @Column(name = "delivered_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal deliveredAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -17,11 +19,25 @@ import java.util.List;
     @Index(name = "idx_order_date", columnList = "order_date"),
     @Index(name = "idx_order_customer", columnList = "customer_id")
 })
+@NamedEntityGraph(name = Order.DETAIL_GRAPH, attributeNodes = {
+    @NamedAttributeNode(value = "customer", subgraph = "customer"),
+    @NamedAttributeNode("restaurant"),
+    @NamedAttributeNode("deliveryPartner"),
+    @NamedAttributeNode("address"),
+    @NamedAttributeNode("payment"),
+    @NamedAttributeNode("review")
+}, subgraphs = {
+    // Customer.cart is the inverse side of a one-to-one and would otherwise be selected once per row
+    @NamedSubgraph(name = "customer", attributeNodes = @NamedAttributeNode("cart"))
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    // Fetch plan used by paged order listings: joins every to-one association read by the order response
+    public static final String DETAIL_GRAPH = "Order.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -60,8 +76,16 @@ public class Order {
     @Column(name = "delivered_date")
     private LocalDateTime deliveredDate;
 
+    // Optimistic lock; status transitions in OrderRepository bump it in their conditional UPDATEs
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version = 0L;
+
     // Relationships
+    // Batch-fetched so a page of orders loads its items with a single IN query
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<OrderItem> orderItems = new ArrayList<>();
 
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
@@ -3,7 +3,9 @@ package com.fooddelivery.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 
@@ -12,13 +14,21 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+// Identity by id only: the generated equals/hashCode would walk order -> customer -> user -> customer
+// forever once Hibernate compares the order's item bag on flush
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class OrderItem {
 
+    // Sequence ids with a pooled optimizer (allocationSize ids per round trip) so checkout
+    // can JDBC-batch its item inserts; IDENTITY would force one insert per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
+    @ToString.Exclude
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
@@ -0,0 +1,31 @@
+package com.fooddelivery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Serialized Bucket4j state of one shared rate-limit bucket; read and written by JdbcCompareAndSwapProxyManager
+ */
+@Entity
+@Table(name = "rate_limit_bucket", indexes = {
+    @Index(name = "idx_rate_limit_bucket_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    // limit type and client key, e.g. PUBLIC:10.0.0.1
+    @Id
+    @Column(length = 320)
+    private String id;
+
+    @Column(nullable = false, length = 1024)
+    private byte[] state;
+
+    // epoch millis at which the bucket has refilled completely
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+}
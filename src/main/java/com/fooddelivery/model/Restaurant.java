@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -51,6 +52,12 @@ public class Restaurant {
     @Column(name = "is_approved", nullable = false)
     private Boolean isApproved = false;
 
+    // Bumped whenever a menu of this restaurant changes; only written by RestaurantRepository's
+    // increment queries, so saving a stale entity cannot roll it back
+    @ColumnDefault("0")
+    @Column(name = "menu_version", nullable = false, updatable = false)
+    private Long menuVersion = 0L;
+
     // Relationships
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MenuItem> menuItems = new ArrayList<>();
@@ -2,6 +2,9 @@ package com.fooddelivery.repository;
 
 import com.fooddelivery.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +15,10 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByCartId(Long cartId);
     Optional<CartItem> findByIdAndCartId(Long id, Long cartId);
     Optional<CartItem> findByCartIdAndMenuItemId(Long cartId, Long menuItemId);
-    void deleteByCartId(Long cartId);
+
+    // Single bulk DELETE; a derived deleteBy would load and remove each row individually
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
 }
 
@@ -0,0 +1,24 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.model.DailyCustomerRollup;
+import com.fooddelivery.repository.projection.CustomerRollupTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyCustomerRollupRepository extends JpaRepository<DailyCustomerRollup, Long> {
+
+    // Customers with the most paid orders since a day
+    @Query("SELECT c.id AS customerId, c.name AS customerName, " +
+           "SUM(x.paidOrders) AS orderCount, SUM(x.revenue) AS revenue " +
+           "FROM DailyCustomerRollup x JOIN Customer c ON c.id = x.customerId " +
+           "WHERE x.rollupDate >= :startDate " +
+           "GROUP BY c.id, c.name HAVING SUM(x.paidOrders) > 0 ORDER BY orderCount DESC")
+    List<CustomerRollupTotal> findTopCustomers(@Param("startDate") LocalDate startDate, Pageable pageable);
+}
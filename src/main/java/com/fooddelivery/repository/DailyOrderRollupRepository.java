@@ -0,0 +1,23 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.model.DailyOrderRollup;
+import com.fooddelivery.repository.projection.RollupTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyOrderRollupRepository extends JpaRepository<DailyOrderRollup, LocalDate> {
+
+    // Days in range, oldest first (order trend)
+    List<DailyOrderRollup> findByRollupDateBetweenOrderByRollupDateAsc(LocalDate startDate, LocalDate endDate);
+
+    // All-time totals; one row per day, so this stays small however many orders there are
+    @Query("SELECT COALESCE(SUM(r.placedOrders), 0) AS placedOrders, COALESCE(SUM(r.paidOrders), 0) AS paidOrders, " +
+           "COALESCE(SUM(r.deliveredOrders), 0) AS deliveredOrders, COALESCE(SUM(r.revenue), 0) AS revenue " +
+           "FROM DailyOrderRollup r")
+    RollupTotals sumTotals();
+}
@@ -0,0 +1,24 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.model.DailyRestaurantRollup;
+import com.fooddelivery.repository.projection.RestaurantRollupTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRestaurantRollupRepository extends JpaRepository<DailyRestaurantRollup, Long> {
+
+    // Restaurants with the most paid orders since a day
+    @Query("SELECT r.id AS restaurantId, r.name AS restaurantName, r.rating AS rating, " +
+           "SUM(x.paidOrders) AS orderCount, SUM(x.revenue) AS revenue " +
+           "FROM DailyRestaurantRollup x JOIN Restaurant r ON r.id = x.restaurantId " +
+           "WHERE x.rollupDate >= :startDate " +
+           "GROUP BY r.id, r.name, r.rating HAVING SUM(x.paidOrders) > 0 ORDER BY orderCount DESC")
+    List<RestaurantRollupTotal> findTopRestaurants(@Param("startDate") LocalDate startDate, Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.model.DeliveryEarningsLedger;
+import com.fooddelivery.repository.projection.DeliveryTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DeliveryEarningsLedgerRepository extends JpaRepository<DeliveryEarningsLedger, Long> {
+
+    @Query("SELECT l.completedDeliveries AS deliveries, l.deliveredAmount AS deliveredAmount " +
+           "FROM DeliveryEarningsLedger l WHERE l.deliveryPartnerId = :deliveryPartnerId")
+    Optional<DeliveryTotals> findTotalsByDeliveryPartnerId(@Param("deliveryPartnerId") Long deliveryPartnerId);
+}
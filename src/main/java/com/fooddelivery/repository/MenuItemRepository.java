@@ -39,6 +39,11 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     // Find all menu items by restaurant (no pagination for internal use)
     List<MenuItem> findByRestaurantId(Long restaurantId);
     
+    // Whole menu of a restaurant with category and restaurant, for menu snapshots
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.category JOIN FETCH m.restaurant " +
+           "WHERE m.restaurant.id = :restaurantId ORDER BY m.id")
+    List<MenuItem> findMenuByRestaurantId(@Param("restaurantId") Long restaurantId);
+    
     // Check if menu item belongs to restaurant
     Boolean existsByIdAndRestaurantId(Long menuItemId, Long restaurantId);
 }
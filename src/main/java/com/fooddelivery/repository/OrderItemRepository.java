@@ -1,13 +1,23 @@
 package com.fooddelivery.repository;
 
 import com.fooddelivery.model.OrderItem;
+import com.fooddelivery.repository.projection.OrderItemSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
+
+    // Order lines for a page of orders in one query
+    @Query("SELECT oi.order.id AS orderId, oi.id AS id, mi.id AS menuItemId, mi.name AS menuItemName, " +
+           "oi.quantity AS quantity, oi.price AS price " +
+           "FROM OrderItem oi JOIN oi.menuItem mi WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemSummary> findSummariesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
 
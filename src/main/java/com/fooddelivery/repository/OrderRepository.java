@@ -1,37 +1,70 @@
 package com.fooddelivery.repository;
 
 import com.fooddelivery.model.Order;
+import com.fooddelivery.model.DeliveryPartner;
+import com.fooddelivery.repository.projection.DailyItemCount;
+import com.fooddelivery.repository.projection.DailyPaidTotal;
+import com.fooddelivery.repository.projection.DeliveryTotals;
+import com.fooddelivery.repository.projection.DispatchCandidate;
+import com.fooddelivery.repository.projection.HourlyOrderCount;
+import com.fooddelivery.repository.projection.OrderSummary;
+import com.fooddelivery.repository.projection.PartnerLoad;
+import com.fooddelivery.repository.projection.RestaurantOrderTotals;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
-    // Find orders by customer
-    Page<Order> findByCustomerId(Long customerId, Pageable pageable);
+    // Admin listings below use Order.DETAIL_GRAPH so the response mapping does not trigger per-order selects
     
-    // Find orders by restaurant
-    Page<Order> findByRestaurantId(Long restaurantId, Pageable pageable);
+    // Find all orders (admin listing)
+    @Override
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findAll(Pageable pageable);
     
-    // Find orders by delivery partner
-    Page<Order> findByDeliveryPartnerId(Long deliveryPartnerId, Pageable pageable);
+    // Single order with everything the order response reads
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Optional<Order> findWithDetailsById(Long id);
     
     // Find orders by status
+    @EntityGraph(Order.DETAIL_GRAPH)
     Page<Order> findByStatus(Order.OrderStatus status, Pageable pageable);
     
-    // Find orders by customer and status
-    Page<Order> findByCustomerIdAndStatus(Long customerId, Order.OrderStatus status, Pageable pageable);
-    
-    // Find orders by restaurant and status
-    Page<Order> findByRestaurantIdAndStatus(Long restaurantId, Order.OrderStatus status, Pageable pageable);
+    // Listing projections: select only the columns of OrderResponse, no entity hydration
+    String ORDER_SUMMARY_SELECT = "SELECT o.id AS id, c.id AS customerId, c.name AS customerName, " +
+           "r.id AS restaurantId, r.name AS restaurantName, dp.id AS deliveryPartnerId, dp.name AS deliveryPartnerName, " +
+           "o.status AS status, o.totalAmount AS totalAmount, o.paymentStatus AS paymentStatus, " +
+           "o.orderDate AS orderDate, o.deliveredDate AS deliveredDate, " +
+           "a.id AS addressId, a.street AS street, a.city AS city, a.pincode AS pincode, " +
+           "a.lat AS addressLat, a.longitude AS addressLongitude, a.addressType AS addressType, a.isDefault AS addressIsDefault " +
+           "FROM Order o JOIN o.customer c JOIN o.restaurant r LEFT JOIN o.deliveryPartner dp LEFT JOIN o.address a ";
+    
+    // Find order summaries by the customer's user id, optionally filtered by status
+    @Query(value = ORDER_SUMMARY_SELECT + "WHERE c.user.id = :userId AND (:status IS NULL OR o.status = :status)",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customer.user.id = :userId AND (:status IS NULL OR o.status = :status)")
+    Page<OrderSummary> findOrderSummariesByCustomerUserId(@Param("userId") Long userId,
+                                                          @Param("status") Order.OrderStatus status,
+                                                          Pageable pageable);
+    
+    // Find order summaries by the restaurant's user id, optionally filtered by status
+    @Query(value = ORDER_SUMMARY_SELECT + "WHERE r.user.id = :userId AND (:status IS NULL OR o.status = :status)",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.restaurant.user.id = :userId AND (:status IS NULL OR o.status = :status)")
+    Page<OrderSummary> findOrderSummariesByRestaurantUserId(@Param("userId") Long userId,
+                                                            @Param("status") Order.OrderStatus status,
+                                                            Pageable pageable);
     
     // Find orders by date range
     @Query("SELECT o FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate")
@@ -68,6 +101,69 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.status = 'CONFIRMED' AND o.deliveryPartner IS NULL")
     List<Order> findPendingOrdersForDelivery(Pageable pageable);
     
+    // Find unassigned orders by status (available-orders listing)
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findByStatusAndDeliveryPartnerIsNull(Order.OrderStatus status, Pageable pageable);
+    
+    // Ids of unassigned orders by status (dispatch recovery at startup)
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.deliveryPartner IS NULL ORDER BY o.orderDate ASC")
+    List<Long> findUnassignedOrderIds(@Param("status") Order.OrderStatus status);
+    
+    // Dispatch candidates among the given orders, oldest first
+    @Query("SELECT o.id AS orderId, r.lat AS restaurantLat, r.longitude AS restaurantLongitude " +
+           "FROM Order o JOIN o.restaurant r " +
+           "WHERE o.id IN :orderIds AND o.status = :status AND o.deliveryPartner IS NULL ORDER BY o.orderDate ASC")
+    List<DispatchCandidate> findDispatchCandidates(@Param("orderIds") Collection<Long> orderIds,
+                                                   @Param("status") Order.OrderStatus status);
+    
+    // Active delivery count per partner
+    @Query("SELECT o.deliveryPartner.id AS partnerId, COUNT(o.id) AS activeOrders FROM Order o " +
+           "WHERE o.deliveryPartner.id IN :partnerIds AND o.status = :status GROUP BY o.deliveryPartner.id")
+    List<PartnerLoad> countActiveOrdersByPartner(@Param("partnerIds") Collection<Long> partnerIds,
+                                                 @Param("status") Order.OrderStatus status);
+    
+    // Assign a delivery partner only if the order is still unassigned in the expected status;
+    // returns 0 when another rider or the dispatcher got there first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.deliveryPartner = :partner, o.status = :newStatus, o.version = o.version + 1 " +
+           "WHERE o.id = :orderId AND o.status = :expectedStatus AND o.deliveryPartner IS NULL")
+    int assignDeliveryPartner(@Param("orderId") Long orderId,
+                              @Param("partner") DeliveryPartner partner,
+                              @Param("expectedStatus") Order.OrderStatus expectedStatus,
+                              @Param("newStatus") Order.OrderStatus newStatus);
+    
+    // Conditional status transitions: each is a single UPDATE that only matches while the order
+    // is still in the expected status and owned by the caller, so concurrent writers cannot both
+    // succeed. A return value of 0 means the caller lost or the order is not theirs.
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1 " +
+           "WHERE o.id = :orderId AND o.customer.id = :customerId AND o.status = :expectedStatus")
+    int transitionForCustomer(@Param("orderId") Long orderId,
+                              @Param("customerId") Long customerId,
+                              @Param("expectedStatus") Order.OrderStatus expectedStatus,
+                              @Param("newStatus") Order.OrderStatus newStatus);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1 " +
+           "WHERE o.id = :orderId AND o.restaurant.id = :restaurantId AND o.status = :expectedStatus")
+    int transitionForRestaurant(@Param("orderId") Long orderId,
+                                @Param("restaurantId") Long restaurantId,
+                                @Param("expectedStatus") Order.OrderStatus expectedStatus,
+                                @Param("newStatus") Order.OrderStatus newStatus);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.deliveredDate = :deliveredDate, o.version = o.version + 1 " +
+           "WHERE o.id = :orderId AND o.deliveryPartner.id = :deliveryPartnerId AND o.status = :expectedStatus")
+    int markDelivered(@Param("orderId") Long orderId,
+                      @Param("deliveryPartnerId") Long deliveryPartnerId,
+                      @Param("expectedStatus") Order.OrderStatus expectedStatus,
+                      @Param("newStatus") Order.OrderStatus newStatus,
+                      @Param("deliveredDate") LocalDateTime deliveredDate);
+    
+    // Whether an order is assigned to a delivery partner's user, without loading it
+    boolean existsByIdAndDeliveryPartnerUserId(Long id, Long userId);
+    
     // Count orders by status
     Long countByStatus(Order.OrderStatus status);
     
@@ -77,58 +173,64 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Count orders by customer
     Long countByCustomerId(Long customerId);
     
-    // Find orders by delivery partner and status
-    List<Order> findByDeliveryPartnerIdAndStatus(Long deliveryPartnerId, Order.OrderStatus status);
+    // Count orders ever assigned to a delivery partner
+    Long countByDeliveryPartnerId(Long deliveryPartnerId);
     
-    // Find orders by delivery partner, status, and date range
-    @Query("SELECT o FROM Order o WHERE o.deliveryPartner.id = :deliveryPartnerId AND o.status = :status AND o.orderDate BETWEEN :startDate AND :endDate")
-    List<Order> findByDeliveryPartnerIdAndStatusAndOrderDateBetween(
+    // Deliveries and delivered order total of a delivery partner in a date range (earnings)
+    @Query("SELECT COUNT(o.id) AS deliveries, COALESCE(SUM(o.totalAmount), 0) AS deliveredAmount FROM Order o " +
+           "WHERE o.deliveryPartner.id = :deliveryPartnerId AND o.status = :status AND o.orderDate BETWEEN :startDate AND :endDate")
+    DeliveryTotals sumByDeliveryPartnerIdAndStatusAndOrderDateBetween(
             @Param("deliveryPartnerId") Long deliveryPartnerId,
             @Param("status") Order.OrderStatus status,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
     
-    // Find orders by delivery partner, status, and after start date
-    @Query("SELECT o FROM Order o WHERE o.deliveryPartner.id = :deliveryPartnerId AND o.status = :status AND o.orderDate >= :startDate")
-    List<Order> findByDeliveryPartnerIdAndStatusAndOrderDateAfter(
+    // Deliveries and delivered order total of a delivery partner since a start date (earnings)
+    @Query("SELECT COUNT(o.id) AS deliveries, COALESCE(SUM(o.totalAmount), 0) AS deliveredAmount FROM Order o " +
+           "WHERE o.deliveryPartner.id = :deliveryPartnerId AND o.status = :status AND o.orderDate >= :startDate")
+    DeliveryTotals sumByDeliveryPartnerIdAndStatusAndOrderDateAfter(
             @Param("deliveryPartnerId") Long deliveryPartnerId,
             @Param("status") Order.OrderStatus status,
             @Param("startDate") LocalDateTime startDate);
     
     // Analytics methods
     
-    // Count orders by date (for trends)
-    @Query("SELECT FUNCTION('DATE', o.orderDate) as orderDate, COUNT(o.id) as orderCount, COALESCE(SUM(o.totalAmount), 0) as revenue " +
-           "FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate AND o.paymentStatus = 'PAID' " +
-           "GROUP BY FUNCTION('DATE', o.orderDate) ORDER BY orderDate ASC")
-    List<Object[]> countOrdersByDate(@Param("startDate") LocalDateTime startDate, 
-                                     @Param("endDate") LocalDateTime endDate);
-    
-    // Top restaurants by orders
-    @Query("SELECT r.id, r.name, COUNT(o.id) as orderCount, COALESCE(SUM(o.totalAmount), 0) as totalRevenue, AVG(r.rating) as avgRating " +
-           "FROM Order o JOIN o.restaurant r WHERE o.orderDate BETWEEN :startDate AND :endDate AND o.paymentStatus = 'PAID' " +
-           "GROUP BY r.id, r.name ORDER BY orderCount DESC")
-    List<Object[]> findTopRestaurantsByOrders(@Param("startDate") LocalDateTime startDate,
-                                               @Param("endDate") LocalDateTime endDate,
-                                               Pageable pageable);
-    
-    // Top customers by orders
-    @Query("SELECT c.id, c.name, COUNT(o.id) as orderCount, COALESCE(SUM(o.totalAmount), 0) as totalSpent " +
-           "FROM Order o JOIN o.customer c WHERE o.orderDate BETWEEN :startDate AND :endDate AND o.paymentStatus = 'PAID' " +
-           "GROUP BY c.id, c.name ORDER BY orderCount DESC")
-    List<Object[]> findTopCustomersByOrders(@Param("startDate") LocalDateTime startDate,
-                                             @Param("endDate") LocalDateTime endDate,
-                                             Pageable pageable);
-    
-    // Count orders today by restaurant
-    @Query("SELECT COUNT(o.id) FROM Order o WHERE o.restaurant.id = :restaurantId " +
-           "AND FUNCTION('DATE', o.orderDate) = CURRENT_DATE")
-    Long countOrdersTodayByRestaurant(@Param("restaurantId") Long restaurantId);
-    
-    // Calculate revenue today by restaurant
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.restaurant.id = :restaurantId " +
-           "AND FUNCTION('DATE', o.orderDate) = CURRENT_DATE AND o.paymentStatus = 'PAID'")
-    BigDecimal calculateRevenueTodayByRestaurant(@Param("restaurantId") Long restaurantId);
+    // Platform trends and top restaurants/customers are served from the daily rollup tables (AnalyticsRollupService)
+    
+    // Restaurant dashboards are served from RestaurantDashboardStore; the queries below rebuild it
+    
+    // Orders and paid revenue per restaurant placed since a point in time
+    @Query("SELECT o.restaurant.id AS restaurantId, COUNT(o.id) AS orderCount, " +
+           "COALESCE(SUM(CASE WHEN o.paymentStatus = 'PAID' THEN o.totalAmount ELSE 0 END), 0) AS paidRevenue " +
+           "FROM Order o WHERE o.orderDate >= :since GROUP BY o.restaurant.id")
+    List<RestaurantOrderTotals> sumOrdersByRestaurantSince(@Param("since") LocalDateTime since);
+    
+    // Orders and units per restaurant, day and menu item since a point in time
+    @Query("SELECT o.restaurant.id AS restaurantId, CAST(o.orderDate AS LocalDate) AS orderDay, " +
+           "mi.id AS menuItemId, mi.name AS menuItemName, COUNT(DISTINCT o.id) AS orderCount, SUM(oi.quantity) AS totalQuantity " +
+           "FROM Order o JOIN o.orderItems oi JOIN oi.menuItem mi WHERE o.orderDate >= :since " +
+           "GROUP BY o.restaurant.id, CAST(o.orderDate AS LocalDate), mi.id, mi.name")
+    List<DailyItemCount> countItemsByRestaurantAndDaySince(@Param("since") LocalDateTime since);
+    
+    // Orders per restaurant, day and hour of day since a point in time (peak-hours histogram rebuild)
+    @Query("SELECT o.restaurant.id AS restaurantId, CAST(o.orderDate AS LocalDate) AS orderDay, " +
+           "EXTRACT(HOUR FROM o.orderDate) AS orderHour, COUNT(o.id) AS orderCount " +
+           "FROM Order o WHERE o.orderDate >= :since " +
+           "GROUP BY o.restaurant.id, CAST(o.orderDate AS LocalDate), EXTRACT(HOUR FROM o.orderDate)")
+    List<HourlyOrderCount> countOrdersByRestaurantAndHourSince(@Param("since") LocalDateTime since);
+    
+    // Paid orders and revenue per day and restaurant / customer since a point in time (top-K sketch rebuild)
+    @Query("SELECT CAST(o.orderDate AS LocalDate) AS orderDay, o.restaurant.id AS keyId, " +
+           "COUNT(o.id) AS orderCount, SUM(o.totalAmount) AS revenue " +
+           "FROM Order o WHERE o.paymentStatus = 'PAID' AND o.orderDate >= :since " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), o.restaurant.id")
+    List<DailyPaidTotal> sumPaidByRestaurantAndDaySince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT CAST(o.orderDate AS LocalDate) AS orderDay, o.customer.id AS keyId, " +
+           "COUNT(o.id) AS orderCount, SUM(o.totalAmount) AS revenue " +
+           "FROM Order o WHERE o.paymentStatus = 'PAID' AND o.orderDate >= :since " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), o.customer.id")
+    List<DailyPaidTotal> sumPaidByCustomerAndDaySince(@Param("since") LocalDateTime since);
     
     // Popular items by restaurant
     @Query("SELECT mi.id, mi.name, COUNT(DISTINCT o.id) as orderCount, SUM(oi.quantity) as totalQuantity " +
@@ -140,14 +242,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                                  @Param("endDate") LocalDateTime endDate,
                                                  Pageable pageable);
     
-    // Peak hours by restaurant
-    @Query("SELECT EXTRACT(HOUR FROM o.orderDate) as hour, COUNT(o.id) as orderCount " +
-           "FROM Order o WHERE o.restaurant.id = :restaurantId AND o.orderDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY EXTRACT(HOUR FROM o.orderDate) ORDER BY orderCount DESC")
-    List<Object[]> findPeakHoursByRestaurant(@Param("restaurantId") Long restaurantId,
-                                              @Param("startDate") LocalDateTime startDate,
-                                              @Param("endDate") LocalDateTime endDate);
-    
     // Calculate average delivery time in minutes
     // Using native query because HQL doesn't support EXTRACT(EPOCH FROM (timestamp - timestamp))
     @Query(value = "SELECT AVG(EXTRACT(EPOCH FROM (delivered_date - order_date)) / 60) " +
@@ -1,9 +1,11 @@
 package com.fooddelivery.repository;
 
 import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.repository.projection.RestaurantSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +19,22 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     
     Optional<Restaurant> findByUserId(Long userId);
     
+    boolean existsByUserId(Long userId);
+    
+    // Menu version, for stamping menu snapshots
+    @Query("SELECT r.menuVersion FROM Restaurant r WHERE r.id = :id")
+    Optional<Long> findMenuVersionById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE Restaurant r SET r.menuVersion = r.menuVersion + 1 WHERE r.id = :id")
+    int incrementMenuVersion(@Param("id") Long id);
+    
+    // Every restaurant with an item in the category, whose menu shows the category name
+    @Modifying
+    @Query("UPDATE Restaurant r SET r.menuVersion = r.menuVersion + 1 " +
+           "WHERE r.id IN (SELECT m.restaurant.id FROM MenuItem m WHERE m.category.id = :categoryId)")
+    int incrementMenuVersionByCategoryId(@Param("categoryId") Long categoryId);
+    
     // Find restaurants by cuisine
     Page<Restaurant> findByCuisineIgnoreCase(String cuisine, Pageable pageable);
     
@@ -38,19 +56,40 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     // Admin queries
     Page<Restaurant> findByIsApproved(Boolean isApproved, Pageable pageable);
     
-    // Find nearby restaurants using Haversine formula (distance in km)
-    @Query(value = "SELECT r.*, " +
-            "(6371 * acos(cos(radians(:lat)) * cos(radians(r.lat)) * " +
+    // Count approved restaurants (admin overview)
+    long countByIsApprovedTrue();
+    
+    // Find nearby open, approved restaurants (distance in km).
+    // The lat/long bounding box lets the planner discard most rows before the Haversine distance is computed.
+    @Query(value = "SELECT * FROM (" +
+            "SELECT r.id AS \"id\", r.name AS \"name\", r.cuisine AS \"cuisine\", r.address AS \"address\", " +
+            "r.lat AS \"lat\", r.longitude AS \"longitude\", r.is_open AS \"isOpen\", r.avg_prep_time AS \"avgPrepTime\", " +
+            "r.rating AS \"rating\", r.is_approved AS \"isApproved\", u.email AS \"email\", u.phone AS \"phone\", " +
+            "(6371 * acos(LEAST(1.0, cos(radians(:lat)) * cos(radians(r.lat)) * " +
             "cos(radians(r.longitude) - radians(:longitude)) + " +
-            "sin(radians(:lat)) * sin(radians(r.lat)))) AS distance " +
-            "FROM restaurant r " +
-            "WHERE r.is_open = true AND r.is_approved = true " +
-            "HAVING distance <= :radius " +
-            "ORDER BY distance ASC",
+            "sin(radians(:lat)) * sin(radians(r.lat))))) AS \"distance\" " +
+            "FROM restaurant r JOIN users u ON u.id = r.user_id " +
+            "WHERE r.is_open = true AND r.is_approved = true AND u.is_active = true " +
+            "AND r.lat BETWEEN :minLat AND :maxLat AND r.longitude BETWEEN :minLong AND :maxLong" +
+            ") nearby WHERE nearby.\"distance\" <= :radius " +
+            "ORDER BY nearby.\"distance\" ASC",
+            nativeQuery = true)
+    List<RestaurantSummary> findNearbyRestaurants(@Param("lat") Double lat,
+                                                  @Param("longitude") Double longitude,
+                                                  @Param("radius") Double radius,
+                                                  @Param("minLat") Double minLat,
+                                                  @Param("maxLat") Double maxLat,
+                                                  @Param("minLong") Double minLong,
+                                                  @Param("maxLong") Double maxLong);
+    
+    // Open, approved restaurants for warming the in-memory geo index
+    @Query(value = "SELECT r.id AS \"id\", r.name AS \"name\", r.cuisine AS \"cuisine\", r.address AS \"address\", " +
+            "r.lat AS \"lat\", r.longitude AS \"longitude\", r.is_open AS \"isOpen\", r.avg_prep_time AS \"avgPrepTime\", " +
+            "r.rating AS \"rating\", r.is_approved AS \"isApproved\", u.email AS \"email\", u.phone AS \"phone\" " +
+            "FROM restaurant r JOIN users u ON u.id = r.user_id " +
+            "WHERE r.is_open = true AND r.is_approved = true AND u.is_active = true",
             nativeQuery = true)
-    List<Restaurant> findNearbyRestaurants(@Param("lat") Double lat, 
-                                          @Param("longitude") Double longitude, 
-                                          @Param("radius") Double radius);
+    List<RestaurantSummary> findOpenApprovedSummaries();
     
     // Find approved restaurants
     Page<Restaurant> findByIsApprovedTrue(Pageable pageable);
@@ -58,8 +97,11 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     // Find open restaurants
     Page<Restaurant> findByIsOpenTrueAndIsApprovedTrue(Pageable pageable);
     
-    // Find restaurants by cuisine, city, and minimum rating
-    @Query(value = "SELECT r.* FROM restaurant r WHERE " +
+    // Find restaurants by cuisine, city, and minimum rating, projected to the listing columns only
+    @Query(value = "SELECT r.id AS \"id\", r.name AS \"name\", r.cuisine AS \"cuisine\", r.address AS \"address\", " +
+           "r.lat AS \"lat\", r.longitude AS \"longitude\", r.is_open AS \"isOpen\", r.avg_prep_time AS \"avgPrepTime\", " +
+           "r.rating AS \"rating\", r.is_approved AS \"isApproved\", u.email AS \"email\", u.phone AS \"phone\" " +
+           "FROM restaurant r JOIN users u ON u.id = r.user_id WHERE " +
            "(:cuisine IS NULL OR LOWER(CAST(r.cuisine AS text)) = LOWER(CAST(:cuisine AS text))) AND " +
            "(:city IS NULL OR LOWER(CAST(r.address AS text)) LIKE LOWER('%' || CAST(:city AS text) || '%')) AND " +
            "(:minRating IS NULL OR r.rating >= :minRating) AND " +
@@ -70,8 +112,8 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
            "(:minRating IS NULL OR r.rating >= :minRating) AND " +
            "r.is_approved = true",
            nativeQuery = true)
-    Page<Restaurant> findRestaurantsWithFilters(@Param("cuisine") String cuisine,
-                                                 @Param("city") String city,
-                                                 @Param("minRating") BigDecimal minRating,
-                                                 Pageable pageable);
+    Page<RestaurantSummary> findRestaurantSummariesWithFilters(@Param("cuisine") String cuisine,
+                                                              @Param("city") String city,
+                                                              @Param("minRating") BigDecimal minRating,
+                                                              Pageable pageable);
 }
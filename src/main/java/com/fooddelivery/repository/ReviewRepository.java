@@ -1,6 +1,7 @@
 package com.fooddelivery.repository;
 
 import com.fooddelivery.model.Review;
+import com.fooddelivery.repository.projection.RestaurantRatingTotals;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -22,5 +23,10 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Optional<BigDecimal> calculateAverageRatingByRestaurantId(@Param("restaurantId") Long restaurantId);
 
     Long countByRestaurantId(Long restaurantId);
+
+    // Rating sum and count per restaurant (dashboard counters rebuild)
+    @Query("SELECT r.restaurant.id AS restaurantId, SUM(r.rating) AS ratingSum, COUNT(r.id) AS ratingCount " +
+           "FROM Review r GROUP BY r.restaurant.id")
+    List<RestaurantRatingTotals> sumRatingsByRestaurant();
 }
 
@@ -1,9 +1,12 @@
 package com.fooddelivery.repository;
 
 import com.fooddelivery.model.User;
+import com.fooddelivery.repository.projection.UserTokenVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,5 +16,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Admin queries
     org.springframework.data.domain.Page<User> findByRole(User.Role role, org.springframework.data.domain.Pageable pageable);
+
+    // Users with revoked tokens; token_version only moves off zero on deactivation
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<UserTokenVersion> findRevokedTokenVersions();
 }
 
@@ -0,0 +1,13 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Paid orders and spend of a customer summed over a range of daily rollups
+ */
+public interface CustomerRollupTotal {
+    Long getCustomerId();
+    String getCustomerName();
+    Long getOrderCount();
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,15 @@
+package com.fooddelivery.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Orders and units of one menu item on one day
+ */
+public interface DailyItemCount {
+    Long getRestaurantId();
+    LocalDate getOrderDay();
+    Long getMenuItemId();
+    String getMenuItemName();
+    Long getOrderCount();
+    Long getTotalQuantity();
+}
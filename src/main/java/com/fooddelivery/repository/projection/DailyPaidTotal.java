@@ -0,0 +1,14 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Paid orders and revenue of one restaurant or customer (keyId) on one day
+ */
+public interface DailyPaidTotal {
+    LocalDate getOrderDay();
+    Long getKeyId();
+    Long getOrderCount();
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,11 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of delivered orders and the sum of their order totals
+ */
+public interface DeliveryTotals {
+    Long getDeliveries();
+    BigDecimal getDeliveredAmount();
+}
@@ -0,0 +1,10 @@
+package com.fooddelivery.repository.projection;
+
+/**
+ * Ready order awaiting a delivery partner, with the pickup point used for matching
+ */
+public interface DispatchCandidate {
+    Long getOrderId();
+    Double getRestaurantLat();
+    Double getRestaurantLongitude();
+}
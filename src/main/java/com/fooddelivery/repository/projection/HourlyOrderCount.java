@@ -0,0 +1,13 @@
+package com.fooddelivery.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Orders placed at a restaurant in one hour of one day
+ */
+public interface HourlyOrderCount {
+    Long getRestaurantId();
+    LocalDate getOrderDay();
+    Integer getOrderHour();
+    Long getOrderCount();
+}
@@ -0,0 +1,15 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only view of an order line, keyed by its order for batch loading
+ */
+public interface OrderItemSummary {
+    Long getOrderId();
+    Long getId();
+    Long getMenuItemId();
+    String getMenuItemName();
+    Integer getQuantity();
+    BigDecimal getPrice();
+}
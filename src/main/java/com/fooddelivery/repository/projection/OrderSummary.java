@@ -0,0 +1,36 @@
+package com.fooddelivery.repository.projection;
+
+import com.fooddelivery.model.CustomerAddress;
+import com.fooddelivery.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of the order columns needed by listing responses.
+ * Loaded without hydrating the Order entity or its associations.
+ */
+public interface OrderSummary {
+    Long getId();
+    Long getCustomerId();
+    String getCustomerName();
+    Long getRestaurantId();
+    String getRestaurantName();
+    Long getDeliveryPartnerId();
+    String getDeliveryPartnerName();
+    Order.OrderStatus getStatus();
+    BigDecimal getTotalAmount();
+    Order.PaymentStatus getPaymentStatus();
+    LocalDateTime getOrderDate();
+    LocalDateTime getDeliveredDate();
+
+    // Delivery address
+    Long getAddressId();
+    String getStreet();
+    String getCity();
+    String getPincode();
+    Double getAddressLat();
+    Double getAddressLongitude();
+    CustomerAddress.AddressType getAddressType();
+    Boolean getAddressIsDefault();
+}
@@ -0,0 +1,9 @@
+package com.fooddelivery.repository.projection;
+
+/**
+ * Number of active deliveries currently held by a delivery partner
+ */
+public interface PartnerLoad {
+    Long getPartnerId();
+    Long getActiveOrders();
+}
@@ -0,0 +1,12 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Order count and paid revenue of a restaurant
+ */
+public interface RestaurantOrderTotals {
+    Long getRestaurantId();
+    Long getOrderCount();
+    BigDecimal getPaidRevenue();
+}
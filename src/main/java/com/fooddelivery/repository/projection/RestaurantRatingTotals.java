@@ -0,0 +1,10 @@
+package com.fooddelivery.repository.projection;
+
+/**
+ * Sum and number of review ratings of a restaurant
+ */
+public interface RestaurantRatingTotals {
+    Long getRestaurantId();
+    Long getRatingSum();
+    Long getRatingCount();
+}
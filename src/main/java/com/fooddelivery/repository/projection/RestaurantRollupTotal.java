@@ -0,0 +1,14 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Paid orders and revenue of a restaurant summed over a range of daily rollups
+ */
+public interface RestaurantRollupTotal {
+    Long getRestaurantId();
+    String getRestaurantName();
+    BigDecimal getRating();
+    Long getOrderCount();
+    BigDecimal getRevenue();
+}
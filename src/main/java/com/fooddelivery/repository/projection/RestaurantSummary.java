@@ -0,0 +1,22 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only view of the restaurant columns needed by listing responses.
+ * Loaded without hydrating the Restaurant entity or its collections.
+ */
+public interface RestaurantSummary {
+    Long getId();
+    String getName();
+    String getCuisine();
+    String getAddress();
+    Double getLat();
+    Double getLongitude();
+    Boolean getIsOpen();
+    Integer getAvgPrepTime();
+    BigDecimal getRating();
+    Boolean getIsApproved();
+    String getEmail();
+    String getPhone();
+}
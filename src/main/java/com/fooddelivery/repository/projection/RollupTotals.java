@@ -0,0 +1,13 @@
+package com.fooddelivery.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Platform-wide totals summed over the daily order rollup
+ */
+public interface RollupTotals {
+    Long getPlacedOrders();
+    Long getPaidOrders();
+    Long getDeliveredOrders();
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,9 @@
+package com.fooddelivery.repository.projection;
+
+/**
+ * A user whose tokens below this version are no longer accepted
+ */
+public interface UserTokenVersion {
+    Long getId();
+    Integer getTokenVersion();
+}
@@ -1,7 +1,8 @@
 package com.fooddelivery.security;
 
-import com.fooddelivery.service.CustomUserDetailsService;
+import com.fooddelivery.service.UserCache;
 import com.fooddelivery.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,7 +23,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private UserCache userCache;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,24 +37,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser user = resolveUser(authorizationHeader.substring(7));
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("JWT token parsing error: " + e.getMessage());
-            }
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (user != null && !tokenRevocationList.isRevoked(user.getId(), user.getTokenVersion())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        user, null, user.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -56,5 +51,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    /**
+     * The user a token belongs to, built from its claims; a token seen before is served from
+     * the cache without re-verifying its signature
+     */
+    private AuthenticatedUser resolveUser(String jwt) {
+        AuthenticatedUser cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(jwt);
+        } catch (Exception e) {
+            logger.error("JWT token parsing error: " + e.getMessage());
+            return null;
+        }
+        if (claims.getSubject() == null) {
+            return null;
+        }
+
+        AuthenticatedUser user;
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        if (userId != null) {
+            Integer tokenVersion = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+            user = new AuthenticatedUser(userId, claims.getSubject(), claims.get(JwtUtil.ROLE_CLAIM, String.class),
+                    tokenVersion != null ? tokenVersion : 0);
+        } else {
+            user = loadLegacyUser(claims.getSubject());
+        }
+
+        if (user != null) {
+            verifiedTokenCache.put(jwt, user, claims.getExpiration());
+        }
+        return user;
+    }
+
+    /**
+     * Tokens issued before the id and version claims existed carry only the email; they are
+     * resolved once against the user cache and treated as version 0
+     */
+    private AuthenticatedUser loadLegacyUser(String email) {
+        UserCache.CachedUser user = userCache.get(email);
+        if (user == null || !user.active()) {
+            return null;
+        }
+        return new AuthenticatedUser(user.id(), user.email(), user.role().name(), 0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.fooddelivery.security;
+
+import com.fooddelivery.model.User;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.repository.projection.UserTokenVersion;
+import com.fooddelivery.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lowest token version still accepted per user, for the few users whose tokens were revoked by
+ * deactivation. Every other user is absent and all of their tokens pass, so the check on each
+ * request is one map lookup. Seeded from the users table at startup and refreshed on a schedule
+ * so revocations made on another instance are picked up too.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final ConcurrentMap<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer minimum = minimumVersions.get(userId);
+        return minimum != null && tokenVersion < minimum;
+    }
+
+    /**
+     * Bump the user's token version so every token issued so far is rejected once the
+     * current transaction commits; the caller saves the user
+     */
+    public void revokeTokens(User user) {
+        int version = user.getTokenVersion() + 1;
+        user.setTokenVersion(version);
+        Long userId = user.getId();
+        String email = user.getEmail();
+        TransactionUtil.afterCommit(() -> {
+            minimumVersions.merge(userId, version, Math::max);
+            verifiedTokenCache.evictUser(email);
+        });
+    }
+
+    @PostConstruct
+    public void reload() {
+        for (UserTokenVersion revoked : userRepository.findRevokedTokenVersions()) {
+            minimumVersions.merge(revoked.getId(), revoked.getTokenVersion(), Math::max);
+        }
+    }
+
+    @Scheduled(cron = "${jwt.revocation.refresh-cron:0 * * * * *}")
+    public void onRefreshTick() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Token revocation refresh failed", e);
+        }
+    }
+}
@@ -4,10 +4,15 @@ import com.fooddelivery.dto.AdminAnalyticsOverviewResponse;
 import com.fooddelivery.dto.OrderTrendResponse;
 import com.fooddelivery.dto.TopCustomerResponse;
 import com.fooddelivery.dto.TopRestaurantResponse;
+import com.fooddelivery.model.Customer;
 import com.fooddelivery.model.Order;
+import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.model.User;
 import com.fooddelivery.repository.*;
+import com.fooddelivery.repository.projection.RollupTotals;
+import com.fooddelivery.util.SpaceSaving;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
@@ -16,8 +21,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Admin dashboards. Order totals and trends read the daily rollup tables kept by
+ * AnalyticsRollupService, so their cost depends on the number of days in the window, not on
+ * the size of the order history. Top restaurants/customers come from the in-memory top-K
+ * sketch (HeavyHitterStore), with the rollup queries kept as the exact mode.
+ */
 @Service
 public class AdminAnalyticsService {
 
@@ -39,28 +52,40 @@ public class AdminAnalyticsService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private DailyOrderRollupRepository dailyOrderRollupRepository;
+
+    @Autowired
+    private DailyRestaurantRollupRepository dailyRestaurantRollupRepository;
+
+    @Autowired
+    private DailyCustomerRollupRepository dailyCustomerRollupRepository;
+
+    @Autowired
+    private HeavyHitterStore heavyHitterStore;
+
+    // Answer top lists from the exact rollup queries instead of the top-K sketch (verification)
+    @Value("${analytics.top-k.exact:false}")
+    private boolean exactTopK;
+
     public AdminAnalyticsOverviewResponse getOverview() {
         AdminAnalyticsOverviewResponse response = new AdminAnalyticsOverviewResponse();
 
+        // Order totals summed over the daily rollup
+        RollupTotals totals = dailyOrderRollupRepository.sumTotals();
+
         // Total orders
-        response.setTotalOrders(orderRepository.count());
+        response.setTotalOrders(totals.getPlacedOrders());
 
         // Total revenue (sum of all paid orders)
-        BigDecimal totalRevenue = orderRepository.calculateTotalRevenueByDateRange(
-                LocalDateTime.of(2000, 1, 1, 0, 0),
-                LocalDateTime.now()
-        );
-        response.setTotalRevenue(totalRevenue);
+        response.setTotalRevenue(totals.getRevenue());
 
         // Active users (users with isActive = true)
         Long activeUsers = userRepository.count();
         response.setActiveUsers(activeUsers);
 
         // Active restaurants (approved restaurants)
-        Long activeRestaurants = restaurantRepository.findAll().stream()
-                .filter(r -> r.getIsApproved() != null && r.getIsApproved())
-                .count();
-        response.setActiveRestaurants(activeRestaurants);
+        response.setActiveRestaurants(restaurantRepository.countByIsApprovedTrue());
 
         // Total customers
         Long totalCustomers = customerRepository.count();
@@ -75,8 +100,7 @@ public class AdminAnalyticsService {
         response.setPendingOrders(pendingOrders);
 
         // Completed orders (DELIVERED)
-        Long completedOrders = orderRepository.countByStatus(Order.OrderStatus.DELIVERED);
-        response.setCompletedOrders(completedOrders);
+        response.setCompletedOrders(totals.getDeliveredOrders());
 
         return response;
     }
@@ -99,15 +123,13 @@ public class AdminAnalyticsService {
                 startDate = endDate.minusDays(30);
         }
 
-        List<Object[]> results = orderRepository.countOrdersByDate(startDate, endDate);
-
-        return results.stream().map(row -> {
-            LocalDate date = ((java.sql.Date) row[0]).toLocalDate();
-            Long count = ((Number) row[1]).longValue();
-            BigDecimal revenue = ((BigDecimal) row[2]);
-            
-            return new OrderTrendResponse(date, count, revenue);
-        }).collect(Collectors.toList());
+        // Days with paid orders only, as before
+        return dailyOrderRollupRepository
+                .findByRollupDateBetweenOrderByRollupDateAsc(startDate.toLocalDate(), endDate.toLocalDate())
+                .stream()
+                .filter(day -> day.getPaidOrders() > 0)
+                .map(day -> new OrderTrendResponse(day.getRollupDate(), day.getPaidOrders(), day.getRevenue()))
+                .collect(Collectors.toList());
     }
 
     public BigDecimal getRevenue(LocalDateTime startDate, LocalDateTime endDate) {
@@ -126,50 +148,61 @@ public class AdminAnalyticsService {
     }
 
     public List<TopRestaurantResponse> getTopRestaurants(int limit) {
-        LocalDateTime startDate = LocalDateTime.now().minusMonths(1); // Last month
-        LocalDateTime endDate = LocalDateTime.now();
+        if (!exactTopK) {
+            List<SpaceSaving.Estimate<Long>> top = heavyHitterStore.topRestaurants(limit);
+            Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(keys(top)).stream()
+                    .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+            return top.stream()
+                    .filter(estimate -> restaurants.containsKey(estimate.getKey()))
+                    .map(estimate -> {
+                        Restaurant restaurant = restaurants.get(estimate.getKey());
+                        BigDecimal rating = restaurant.getRating() != null ? restaurant.getRating() : BigDecimal.ZERO;
+                        return new TopRestaurantResponse(
+                                restaurant.getId(),
+                                restaurant.getName(),
+                                estimate.getCount(),
+                                BigDecimal.valueOf(estimate.getWeight(), 2),
+                                rating.setScale(2, java.math.RoundingMode.HALF_UP)
+                        );
+                    })
+                    .collect(Collectors.toList());
+        }
 
-        List<Object[]> results = orderRepository.findTopRestaurantsByOrders(
-                startDate, 
-                endDate, 
-                PageRequest.of(0, limit)
-        );
-
-        return results.stream().map(row -> {
-            Long restaurantId = ((Number) row[0]).longValue();
-            String restaurantName = (String) row[1];
-            Long orderCount = ((Number) row[2]).longValue();
-            BigDecimal totalRevenue = ((BigDecimal) row[3]);
-            Double avgRating = row[4] != null ? ((Number) row[4]).doubleValue() : 0.0;
-            
-            return new TopRestaurantResponse(
-                    restaurantId,
-                    restaurantName,
-                    orderCount,
-                    totalRevenue,
-                    BigDecimal.valueOf(avgRating).setScale(2, java.math.RoundingMode.HALF_UP)
-            );
-        }).collect(Collectors.toList());
+        LocalDate startDate = LocalDate.now().minusMonths(1); // Last month
+
+        return dailyRestaurantRollupRepository.findTopRestaurants(startDate, PageRequest.of(0, limit))
+                .stream()
+                .map(row -> new TopRestaurantResponse(
+                        row.getRestaurantId(),
+                        row.getRestaurantName(),
+                        row.getOrderCount(),
+                        row.getRevenue(),
+                        (row.getRating() != null ? row.getRating() : BigDecimal.ZERO).setScale(2, java.math.RoundingMode.HALF_UP)
+                ))
+                .collect(Collectors.toList());
     }
 
     public List<TopCustomerResponse> getTopCustomers(int limit) {
-        LocalDateTime startDate = LocalDateTime.now().minusMonths(1); // Last month
-        LocalDateTime endDate = LocalDateTime.now();
+        if (!exactTopK) {
+            List<SpaceSaving.Estimate<Long>> top = heavyHitterStore.topCustomers(limit);
+            Map<Long, String> names = customerRepository.findAllById(keys(top)).stream()
+                    .collect(Collectors.toMap(Customer::getId, Customer::getName));
+            return top.stream()
+                    .filter(estimate -> names.containsKey(estimate.getKey()))
+                    .map(estimate -> new TopCustomerResponse(estimate.getKey(), names.get(estimate.getKey()),
+                            estimate.getCount(), BigDecimal.valueOf(estimate.getWeight(), 2)))
+                    .collect(Collectors.toList());
+        }
+
+        LocalDate startDate = LocalDate.now().minusMonths(1); // Last month
 
-        List<Object[]> results = orderRepository.findTopCustomersByOrders(
-                startDate,
-                endDate,
-                PageRequest.of(0, limit)
-        );
-
-        return results.stream().map(row -> {
-            Long customerId = ((Number) row[0]).longValue();
-            String customerName = (String) row[1];
-            Long orderCount = ((Number) row[2]).longValue();
-            BigDecimal totalSpent = ((BigDecimal) row[3]);
-            
-            return new TopCustomerResponse(customerId, customerName, orderCount, totalSpent);
-        }).collect(Collectors.toList());
+        return dailyCustomerRollupRepository.findTopCustomers(startDate, PageRequest.of(0, limit))
+                .stream()
+                .map(row -> new TopCustomerResponse(row.getCustomerId(), row.getCustomerName(), row.getOrderCount(), row.getRevenue()))
+                .collect(Collectors.toList());
     }
-}
 
+    private static List<Long> keys(List<SpaceSaving.Estimate<Long>> estimates) {
+        return estimates.stream().map(SpaceSaving.Estimate::getKey).collect(Collectors.toList());
+    }
+}
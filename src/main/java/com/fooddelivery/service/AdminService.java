@@ -13,6 +13,7 @@ import com.fooddelivery.model.User;
 import com.fooddelivery.repository.OrderRepository;
 import com.fooddelivery.repository.RestaurantRepository;
 import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.TokenRevocationList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -36,6 +37,18 @@ public class AdminService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     // User Management
 
     public Page<AdminUserResponse> getAllUsers(User.Role role, int page, int size) {
@@ -51,12 +64,25 @@ public class AdminService {
         return users.map(this::convertToAdminUserResponse);
     }
 
+    @Transactional
     public AdminUserResponse activateUser(Long userId, Boolean isActive) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         
+        // Deactivation also invalidates every token the user already holds
+        if (user.getIsActive() && Boolean.FALSE.equals(isActive)) {
+            tokenRevocationList.revokeTokens(user);
+        }
         user.setIsActive(isActive);
         user = userRepository.save(user);
+        userCache.evict(user.getEmail());
+        // a restaurant is listed only while its owner is active
+        if (user.getRole() == User.Role.RESTAURANT) {
+            catalogVersions.restaurantsChanged();
+            Boolean ownerActive = user.getIsActive();
+            restaurantRepository.findByUserId(userId).ifPresent(restaurant ->
+                    restaurantGeoIndex.update(convertToRestaurantResponse(restaurant), ownerActive));
+        }
         
         return convertToAdminUserResponse(user);
     }
@@ -76,8 +102,11 @@ public class AdminService {
         
         restaurant.setIsApproved(isApproved);
         restaurant = restaurantRepository.save(restaurant);
+        catalogVersions.restaurantsChanged();
         
-        return convertToRestaurantResponse(restaurant);
+        RestaurantResponse response = convertToRestaurantResponse(restaurant);
+        restaurantGeoIndex.update(response, restaurant.getUser().getIsActive());
+        return response;
     }
 
     // Order Management
@@ -0,0 +1,453 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.config.ExecutorConfig;
+import com.fooddelivery.dto.AnalyticsRollupStatsResponse;
+import com.fooddelivery.model.Order;
+import com.fooddelivery.repository.DailyOrderRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains the daily rollup tables read by admin analytics.
+ *
+ * Order changes (placed, paid, refunded, delivered) are turned into deltas once their
+ * transaction commits and summed in memory per day / restaurant / customer; the analytics pool
+ * applies them every flush interval as one batch of "column = column + ?" updates. A scheduled
+ * reconcile recomputes the most recent days straight from the order table, which repairs
+ * anything lost in memory (crash, failed flush).
+ *
+ * To keep the recount and the deltas from counting an order twice, order transactions hold the
+ * read side of a commit fence from beforeCommit until they complete, and a reconcile holds the
+ * write side while it recounts. Every commit therefore lands wholly before the recount (and its
+ * delta is stamped with the old generation, which the flush drops for the recounted days) or
+ * wholly after it (and its delta is applied on top). Order commits wait for the few aggregate
+ * statements of a reconcile.
+ */
+@Service
+public class AnalyticsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    private static final String UPDATE_ORDERS_SQL =
+            "UPDATE daily_order_rollup SET placed_orders = placed_orders + ?, paid_orders = paid_orders + ?, " +
+            "delivered_orders = delivered_orders + ?, revenue = revenue + ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE rollup_date = ?";
+
+    private static final String INSERT_ORDERS_SQL =
+            "INSERT INTO daily_order_rollup (placed_orders, paid_orders, delivered_orders, revenue, rollup_date, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String RECOMPUTE_ORDERS_SQL =
+            "INSERT INTO daily_order_rollup (rollup_date, placed_orders, paid_orders, delivered_orders, revenue, updated_at) " +
+            "SELECT CAST(o.order_date AS DATE), COUNT(*), " +
+            "SUM(CASE WHEN o.payment_status = 'PAID' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN o.payment_status = 'PAID' THEN o.total_amount ELSE 0 END), 0), CURRENT_TIMESTAMP " +
+            "FROM \"order\" o WHERE o.order_date >= ? AND o.order_date < ? " +
+            "GROUP BY CAST(o.order_date AS DATE)";
+
+    // Per-restaurant and per-customer rollups share a shape; only the table and key column differ
+    private static final String UPDATE_DIMENSION_SQL =
+            "UPDATE %s SET paid_orders = paid_orders + ?, revenue = revenue + ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE rollup_date = ? AND %s = ?";
+
+    private static final String INSERT_DIMENSION_SQL =
+            "INSERT INTO %s (paid_orders, revenue, rollup_date, %s, updated_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String RECOMPUTE_DIMENSION_SQL =
+            "INSERT INTO %1$s (rollup_date, %2$s, paid_orders, revenue, updated_at) " +
+            "SELECT CAST(o.order_date AS DATE), o.%2$s, COUNT(*), SUM(o.total_amount), CURRENT_TIMESTAMP " +
+            "FROM \"order\" o WHERE o.payment_status = 'PAID' AND o.order_date >= ? AND o.order_date < ? " +
+            "GROUP BY CAST(o.order_date AS DATE), o.%2$s";
+
+    private static final String DELETE_RANGE_SQL = "DELETE FROM %s WHERE rollup_date BETWEEN ? AND ?";
+
+    private enum Scope {
+        ORDERS("daily_order_rollup", null),
+        RESTAURANT("daily_restaurant_rollup", "restaurant_id"),
+        CUSTOMER("daily_customer_rollup", "customer_id");
+
+        private final String table;
+        private final String keyColumn;
+
+        Scope(String table, String keyColumn) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DailyOrderRollupRepository dailyOrderRollupRepository;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.ANALYTICS_EXECUTOR)
+    private Executor analyticsExecutor;
+
+    @Value("${analytics.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analytics.rollup.reconcile-days:2}")
+    private int reconcileDays;
+
+    // reconciles remembered for dropping recounted deltas; far more than a delta can stay buffered
+    private static final int RECONCILE_MARKS = 32;
+
+    // rollup row and commit generation -> change not yet written
+    private final ConcurrentHashMap<PendingKey, RollupDelta> pending = new ConcurrentHashMap<>();
+
+    // flushes and reconciles never interleave
+    private final Object writeLock = new Object();
+
+    private final ReentrantReadWriteLock commitFence = new ReentrantReadWriteLock();
+
+    // bumped by each reconcile while it holds the commit fence
+    private volatile long generation = 0;
+
+    // recent reconciles, oldest first; guarded by writeLock
+    private final Deque<ReconcileMark> reconciles = new ArrayDeque<>();
+
+    private final LongAdder totalChangesRecorded = new LongAdder();
+    private final LongAdder totalFlushes = new LongAdder();
+    private final LongAdder totalRowsWritten = new LongAdder();
+    private final LongAdder totalReconciles = new LongAdder();
+    private volatile long lastFlushDurationMs = 0;
+    private volatile LocalDateTime lastFlushAt;
+    private volatile long lastReconcileDurationMs = 0;
+    private volatile LocalDateTime lastReconcileAt;
+
+    public void recordPlaced(Order order) {
+        record(order, 1, 0, 0, BigDecimal.ZERO);
+    }
+
+    public void recordPaid(Order order) {
+        record(order, 0, 1, 0, order.getTotalAmount());
+    }
+
+    public void recordRefunded(Order order) {
+        record(order, 0, -1, 0, order.getTotalAmount().negate());
+    }
+
+    public void recordDelivered(Order order) {
+        record(order, 0, 0, 1, BigDecimal.ZERO);
+    }
+
+    /**
+     * Build the rollup first on an empty database, otherwise catch up on recent days
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        analyticsExecutor.execute(() -> {
+            try {
+                if (dailyOrderRollupRepository.count() == 0) {
+                    rebuild();
+                } else {
+                    reconcileRecent();
+                }
+            } catch (RuntimeException e) {
+                log.error("Initial analytics rollup reconcile failed", e);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval-ms:5000}")
+    public void onFlushTick() {
+        if (enabled && !pending.isEmpty()) {
+            analyticsExecutor.execute(this::flushSafely);
+        }
+    }
+
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 15 * * * *}")
+    public void onReconcileTick() {
+        if (enabled) {
+            analyticsExecutor.execute(() -> {
+                try {
+                    reconcileRecent();
+                } catch (RuntimeException e) {
+                    log.error("Analytics rollup reconcile failed", e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushSafely();
+    }
+
+    /**
+     * Apply buffered deltas to the rollup tables in one transaction
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            flushLocked();
+        }
+    }
+
+    /**
+     * Recompute the last analytics.rollup.reconcile-days days (including today) from the order table
+     */
+    public void reconcileRecent() {
+        LocalDate today = LocalDate.now();
+        reconcile(today.minusDays(Math.max(reconcileDays, 1) - 1L), today);
+    }
+
+    /**
+     * Recompute every day since the first order
+     */
+    public void rebuild() {
+        LocalDateTime firstOrder = jdbcTemplate.queryForObject("SELECT MIN(order_date) FROM \"order\"", LocalDateTime.class);
+        if (firstOrder != null) {
+            reconcile(firstOrder.toLocalDate(), LocalDate.now());
+        }
+    }
+
+    /**
+     * Replace the rollup rows of a day range (inclusive) with totals recomputed from the order table
+     */
+    public void reconcile(LocalDate startDate, LocalDate endDate) {
+        synchronized (writeLock) {
+            long started = System.nanoTime();
+            LocalDateTime from = startDate.atStartOfDay();
+            LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+            commitFence.writeLock().lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Scope scope : Scope.values()) {
+                        jdbcTemplate.update(String.format(DELETE_RANGE_SQL, scope.table), startDate, endDate);
+                    }
+                    jdbcTemplate.update(RECOMPUTE_ORDERS_SQL, from, to);
+                    jdbcTemplate.update(String.format(RECOMPUTE_DIMENSION_SQL, Scope.RESTAURANT.table, Scope.RESTAURANT.keyColumn), from, to);
+                    jdbcTemplate.update(String.format(RECOMPUTE_DIMENSION_SQL, Scope.CUSTOMER.table, Scope.CUSTOMER.keyColumn), from, to);
+                });
+                // Every delta buffered so far comes from a commit the recount saw
+                generation++;
+                reconciles.addLast(new ReconcileMark(generation, startDate, endDate));
+                if (reconciles.size() > RECONCILE_MARKS) {
+                    reconciles.removeFirst();
+                }
+            } finally {
+                commitFence.writeLock().unlock();
+            }
+
+            totalReconciles.increment();
+            lastReconcileDurationMs = (System.nanoTime() - started) / 1_000_000;
+            lastReconcileAt = LocalDateTime.now();
+        }
+    }
+
+    public AnalyticsRollupStatsResponse getStats() {
+        AnalyticsRollupStatsResponse stats = new AnalyticsRollupStatsResponse();
+        stats.setPendingRows((long) pending.size());
+        stats.setTotalChangesRecorded(totalChangesRecorded.sum());
+        stats.setTotalFlushes(totalFlushes.sum());
+        stats.setTotalRowsWritten(totalRowsWritten.sum());
+        stats.setLastFlushDurationMs(lastFlushDurationMs);
+        stats.setLastFlushAt(lastFlushAt);
+        stats.setTotalReconciles(totalReconciles.sum());
+        stats.setLastReconcileDurationMs(lastReconcileDurationMs);
+        stats.setLastReconcileAt(lastReconcileAt);
+        return stats;
+    }
+
+    private void record(Order order, int placed, int paid, int delivered, BigDecimal revenue) {
+        if (!enabled) {
+            return;
+        }
+        // Capture values now; the entity may be detached or changed by the time the transaction commits
+        LocalDate day = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        Long restaurantId = order.getRestaurant().getId();
+        Long customerId = order.getCustomer().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accumulate(day, restaurantId, customerId, placed, paid, delivered, revenue);
+            return;
+        }
+        // Not TransactionUtil.afterCommit: the commit itself has to sit inside the fence
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean fenced;
+            private long committedIn;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitFence.readLock().lock();
+                fenced = true;
+                committedIn = generation;
+            }
+
+            @Override
+            public void afterCommit() {
+                accumulate(day, restaurantId, customerId, placed, paid, delivered, revenue, committedIn);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (fenced) {
+                    commitFence.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    void accumulate(LocalDate day, Long restaurantId, Long customerId, int placed, int paid, int delivered, BigDecimal revenue) {
+        accumulate(day, restaurantId, customerId, placed, paid, delivered, revenue, generation);
+    }
+
+    void accumulate(LocalDate day, Long restaurantId, Long customerId, int placed, int paid, int delivered,
+                    BigDecimal revenue, long committedIn) {
+        pending.merge(new PendingKey(new RollupKey(Scope.ORDERS, day, 0L), committedIn),
+                new RollupDelta(placed, paid, delivered, revenue), RollupDelta::plus);
+        if (paid != 0) {
+            RollupDelta delta = new RollupDelta(0, paid, 0, revenue);
+            pending.merge(new PendingKey(new RollupKey(Scope.RESTAURANT, day, restaurantId), committedIn), delta, RollupDelta::plus);
+            pending.merge(new PendingKey(new RollupKey(Scope.CUSTOMER, day, customerId), committedIn), delta, RollupDelta::plus);
+        }
+        totalChangesRecorded.increment();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Deltas were put back; the next tick retries them
+            log.warn("Failed to flush analytics rollups: {}", e.getMessage());
+        }
+    }
+
+    private void flushLocked() {
+        Map<RollupKey, RollupDelta> batch = new HashMap<>();
+        drain().forEach((key, delta) -> {
+            if (!recounted(key)) {
+                batch.merge(key.key(), delta, RollupDelta::plus);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Scope scope : Scope.values()) {
+                    write(scope, batch);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Already checked against every reconcile so far; a later one will have counted them too
+            batch.forEach((key, delta) -> pending.merge(new PendingKey(key, generation), delta, RollupDelta::plus));
+            throw e;
+        }
+        totalRowsWritten.add(batch.size());
+        totalFlushes.increment();
+        lastFlushDurationMs = (System.nanoTime() - started) / 1_000_000;
+        lastFlushAt = LocalDateTime.now();
+    }
+
+    /**
+     * Add deltas to existing rows with one batched UPDATE, then INSERT the rows that matched nothing
+     */
+    private void write(Scope scope, Map<RollupKey, RollupDelta> batch) {
+        List<Object[]> rows = new ArrayList<>();
+        batch.forEach((key, delta) -> {
+            if (key.scope == scope) {
+                rows.add(scope == Scope.ORDERS
+                        ? new Object[]{delta.placed, delta.paid, delta.delivered, delta.revenue, key.day}
+                        : new Object[]{delta.paid, delta.revenue, key.day, key.id});
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        String updateSql = scope == Scope.ORDERS
+                ? UPDATE_ORDERS_SQL
+                : String.format(UPDATE_DIMENSION_SQL, scope.table, scope.keyColumn);
+        int[] counts = jdbcTemplate.batchUpdate(updateSql, rows);
+
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            String insertSql = scope == Scope.ORDERS
+                    ? INSERT_ORDERS_SQL
+                    : String.format(INSERT_DIMENSION_SQL, scope.table, scope.keyColumn);
+            jdbcTemplate.batchUpdate(insertSql, missing);
+        }
+    }
+
+    /**
+     * Whether a reconcile after the delta's commit already counted it in its day's rows
+     */
+    private boolean recounted(PendingKey key) {
+        for (ReconcileMark mark : reconciles) {
+            if (mark.generation > key.committedIn()
+                    && !key.key().day.isBefore(mark.startDate) && !key.key().day.isAfter(mark.endDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<PendingKey, RollupDelta> drain() {
+        Map<PendingKey, RollupDelta> batch = new HashMap<>();
+        for (PendingKey key : pending.keySet()) {
+            // remove(key) rather than iterator.remove() so a delta merged in meanwhile is not lost
+            RollupDelta delta = pending.remove(key);
+            if (delta != null) {
+                batch.put(key, delta);
+            }
+        }
+        return batch;
+    }
+
+    private record RollupKey(Scope scope, LocalDate day, Long id) {
+    }
+
+    private record PendingKey(RollupKey key, long committedIn) {
+    }
+
+    private record ReconcileMark(long generation, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record RollupDelta(long placed, long paid, long delivered, BigDecimal revenue) {
+        RollupDelta plus(RollupDelta other) {
+            return new RollupDelta(placed + other.placed, paid + other.paid, delivered + other.delivered,
+                    revenue.add(other.revenue));
+        }
+    }
+}
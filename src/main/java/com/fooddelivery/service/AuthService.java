@@ -42,6 +42,12 @@ public class AuthService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @Transactional
     public AuthResponse registerCustomer(RegisterCustomerRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -55,6 +61,7 @@ public class AuthService {
         user.setRole(User.Role.CUSTOMER);
         user.setIsActive(true);
         user = userRepository.save(user);
+        userCache.evict(user.getEmail());
 
         Customer customer = new Customer();
         customer.setUser(user);
@@ -62,7 +69,7 @@ public class AuthService {
         customer.setWalletBalance(java.math.BigDecimal.ZERO);
         customer = customerRepository.save(customer);
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String token = jwtUtil.generateToken(user);
 
         AuthResponse response = new AuthResponse();
         response.setToken(token);
@@ -90,6 +97,7 @@ public class AuthService {
         user.setRole(User.Role.RESTAURANT);
         user.setIsActive(true);
         user = userRepository.save(user);
+        userCache.evict(user.getEmail());
 
         Restaurant restaurant = new Restaurant();
         restaurant.setUser(user);
@@ -102,8 +110,9 @@ public class AuthService {
         restaurant.setIsApproved(false);
         restaurant.setRating(java.math.BigDecimal.ZERO);
         restaurant = restaurantRepository.save(restaurant);
+        catalogVersions.restaurantsChanged();
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String token = jwtUtil.generateToken(user);
 
         AuthResponse response = new AuthResponse();
         response.setToken(token);
@@ -131,6 +140,7 @@ public class AuthService {
         user.setRole(User.Role.DELIVERY);
         user.setIsActive(true);
         user = userRepository.save(user);
+        userCache.evict(user.getEmail());
 
         DeliveryPartner deliveryPartner = new DeliveryPartner();
         deliveryPartner.setUser(user);
@@ -139,7 +149,7 @@ public class AuthService {
         deliveryPartner.setIsAvailable(false);
         deliveryPartner = deliveryPartnerRepository.save(deliveryPartner);
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String token = jwtUtil.generateToken(user);
 
         AuthResponse response = new AuthResponse();
         response.setToken(token);
@@ -163,20 +173,23 @@ public class AuthService {
                     )
             );
 
-            User user = userRepository.findByEmail(request.getEmail())
-                    .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
+            // served from the snapshot the authentication above just loaded
+            UserCache.CachedUser user = userCache.get(request.getEmail());
+            if (user == null) {
+                throw new UnauthorizedException("Invalid credentials");
+            }
 
-            if (!user.getIsActive()) {
+            if (!user.active()) {
                 throw new UnauthorizedException("Account is deactivated");
             }
 
-            String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+            String token = jwtUtil.generateToken(user.id(), user.email(), user.role().name(), user.tokenVersion());
 
             AuthResponse response = new AuthResponse();
             response.setToken(token);
-            response.setUserId(user.getId());
-            response.setEmail(user.getEmail());
-            response.setRole(user.getRole().name());
+            response.setUserId(user.id());
+            response.setEmail(user.email());
+            response.setRole(user.role().name());
             response.setExpiresIn(jwtUtil.extractExpiration(token).getTime() - System.currentTimeMillis());
 
             return response;
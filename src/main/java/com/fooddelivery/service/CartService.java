@@ -143,10 +143,11 @@ public class CartService {
         Cart cart = cartRepository.findByCustomerId(customer.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
 
-        cartItemRepository.deleteByCartId(cart.getId());
+        cartItemRepository.deleteAllByCartId(cart.getId());
     }
 
-    private CartResponse convertToCartResponse(Cart cart) {
+    // package-private for the JMH benchmarks
+    CartResponse convertToCartResponse(Cart cart) {
         CartResponse response = new CartResponse();
         response.setId(cart.getId());
         response.setCreatedAt(cart.getCreatedAt());
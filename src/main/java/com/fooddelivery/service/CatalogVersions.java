@@ -0,0 +1,71 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.service.MenuSnapshotCache.MenuSnapshot;
+import com.fooddelivery.util.TransactionUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters behind the ETags of the public catalog endpoints, so a client revalidating
+ * an unchanged response gets its 304 before any query runs.
+ *
+ * Restaurant, category and menu item counters live in memory and are bumped by the services
+ * that change them, once right away and again when the transaction commits; a response built
+ * while a change was in flight therefore never keeps its tag. Those tags embed the start time
+ * of this process, so another node or a restart never confirms a tag it did not issue. A
+ * restaurant's menu is tagged with its menu_version instead, which all nodes share.
+ */
+@Component
+public class CatalogVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong restaurants = new AtomicLong();
+
+    private final AtomicLong categories = new AtomicLong();
+
+    private final AtomicLong menuItems = new AtomicLong();
+
+    /**
+     * A restaurant was added, changed or removed
+     */
+    public void restaurantsChanged() {
+        bump(restaurants);
+    }
+
+    /**
+     * A category was added, renamed or removed
+     */
+    public void categoriesChanged() {
+        bump(categories);
+    }
+
+    /**
+     * A menu item, or a name shown with menu items, changed
+     */
+    public void menuItemsChanged() {
+        bump(menuItems);
+    }
+
+    public String restaurantsETag() {
+        return "\"r-" + epoch + "-" + restaurants.get() + "\"";
+    }
+
+    public String categoriesETag() {
+        return "\"c-" + epoch + "-" + categories.get() + "\"";
+    }
+
+    public String menuItemsETag() {
+        return "\"i-" + epoch + "-" + menuItems.get() + "\"";
+    }
+
+    public static String menuETag(MenuSnapshot snapshot) {
+        return "\"m-" + snapshot.restaurantId() + "-" + snapshot.version() + "\"";
+    }
+
+    private static void bump(AtomicLong counter) {
+        counter.incrementAndGet();
+        TransactionUtil.afterCommit(counter::incrementAndGet);
+    }
+}
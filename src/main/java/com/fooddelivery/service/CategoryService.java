@@ -5,6 +5,7 @@ import com.fooddelivery.exception.ConflictException;
 import com.fooddelivery.exception.ResourceNotFoundException;
 import com.fooddelivery.model.Category;
 import com.fooddelivery.repository.CategoryRepository;
+import com.fooddelivery.repository.RestaurantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,15 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @Transactional
     public Category createCategory(CategoryRequest request) {
         if (categoryRepository.existsByNameIgnoreCase(request.getName())) {
@@ -26,7 +36,9 @@ public class CategoryService {
         Category category = new Category();
         category.setName(request.getName());
         category.setDescription(request.getDescription());
-        return categoryRepository.save(category);
+        category = categoryRepository.save(category);
+        catalogVersions.categoriesChanged();
+        return category;
     }
 
     public List<Category> getAllCategories() {
@@ -50,7 +62,14 @@ public class CategoryService {
 
         category.setName(request.getName());
         category.setDescription(request.getDescription());
-        return categoryRepository.save(category);
+        category = categoryRepository.save(category);
+
+        // menu items carry the category name; renames are rare, so every snapshot goes
+        restaurantRepository.incrementMenuVersionByCategoryId(id);
+        menuSnapshotCache.evictAll();
+        catalogVersions.categoriesChanged();
+        catalogVersions.menuItemsChanged();
+        return category;
     }
 
     @Transactional
@@ -58,6 +77,7 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
         categoryRepository.delete(category);
+        catalogVersions.categoriesChanged();
     }
 }
 
@@ -1,7 +1,6 @@
 package com.fooddelivery.service;
 
 import com.fooddelivery.model.User;
-import com.fooddelivery.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -17,21 +16,23 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        UserCache.CachedUser user = userCache.get(email);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
 
         return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(getAuthorities(user.getRole()))
+                .username(user.email())
+                .password(user.password())
+                .authorities(getAuthorities(user.role()))
                 .accountExpired(false)
-                .accountLocked(!user.getIsActive())
+                .accountLocked(!user.active())
                 .credentialsExpired(false)
-                .disabled(!user.getIsActive())
+                .disabled(!user.active())
                 .build();
     }
 
@@ -6,13 +6,13 @@ import com.fooddelivery.model.DeliveryPartner;
 import com.fooddelivery.model.Order;
 import com.fooddelivery.repository.DeliveryPartnerRepository;
 import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.projection.DeliveryTotals;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 public class DeliveryAnalyticsService {
@@ -23,6 +23,9 @@ public class DeliveryAnalyticsService {
     @Autowired
     private DeliveryPartnerRepository deliveryPartnerRepository;
 
+    @Autowired
+    private DeliveryEarningsLedgerService deliveryEarningsLedgerService;
+
     private static final BigDecimal DELIVERY_COMMISSION_RATE = new BigDecimal("0.10"); // 10%
 
     public DeliveryAnalyticsResponse getAnalytics(Long userId, String period) {
@@ -46,37 +49,33 @@ public class DeliveryAnalyticsService {
                 startDate = null;
         }
 
-        List<Order> deliveredOrders;
+        DeliveryTotals totals;
         if (startDate != null) {
-            deliveredOrders = orderRepository.findByDeliveryPartnerIdAndStatusAndOrderDateBetween(
+            totals = orderRepository.sumByDeliveryPartnerIdAndStatusAndOrderDateBetween(
                     deliveryPartner.getId(),
                     Order.OrderStatus.DELIVERED,
                     startDate,
                     endDate
             );
         } else {
-            deliveredOrders = orderRepository.findByDeliveryPartnerIdAndStatus(
-                    deliveryPartner.getId(),
-                    Order.OrderStatus.DELIVERED
-            );
+            totals = deliveryEarningsLedgerService.getTotals(deliveryPartner.getId());
         }
 
         DeliveryAnalyticsResponse response = new DeliveryAnalyticsResponse();
 
         // Completed deliveries
-        response.setCompletedDeliveries((long) deliveredOrders.size());
+        response.setCompletedDeliveries(totals.getDeliveries());
 
         // Total earnings
-        BigDecimal totalEarnings = deliveredOrders.stream()
-                .map(order -> order.getTotalAmount().multiply(DELIVERY_COMMISSION_RATE))
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
+        BigDecimal totalEarnings = totals.getDeliveredAmount()
+                .multiply(DELIVERY_COMMISSION_RATE)
                 .setScale(2, RoundingMode.HALF_UP);
         response.setTotalEarnings(totalEarnings);
 
         // Average earning per delivery
-        BigDecimal averageEarning = deliveredOrders.isEmpty()
+        BigDecimal averageEarning = totals.getDeliveries() == 0
                 ? BigDecimal.ZERO
-                : totalEarnings.divide(BigDecimal.valueOf(deliveredOrders.size()), 2, RoundingMode.HALF_UP);
+                : totalEarnings.divide(BigDecimal.valueOf(totals.getDeliveries()), 2, RoundingMode.HALF_UP);
         response.setAverageEarningPerDelivery(averageEarning);
 
         // Average delivery time (if data available)
@@ -96,12 +95,8 @@ public class DeliveryAnalyticsService {
             response.setAverageDeliveryTimeMinutes(avgDeliveryTime);
         }
 
-        // Total orders assigned
-        List<Order> allAssignedOrders = orderRepository.findByDeliveryPartnerIdAndStatus(
-                deliveryPartner.getId(),
-                null
-        );
-        response.setTotalOrdersAssigned((long) allAssignedOrders.size());
+        // Total orders assigned, whatever their status
+        response.setTotalOrdersAssigned(orderRepository.countByDeliveryPartnerId(deliveryPartner.getId()));
 
         return response;
     }
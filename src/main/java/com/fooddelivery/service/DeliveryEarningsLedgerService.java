@@ -0,0 +1,129 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.config.ExecutorConfig;
+import com.fooddelivery.repository.DeliveryEarningsLedgerRepository;
+import com.fooddelivery.repository.projection.DeliveryTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Executor;
+
+/**
+ * Running lifetime earnings per delivery partner.
+ *
+ * Each delivery adds to its partner's ledger row in the same transaction that marks the order
+ * delivered, so all-time earnings are a single-row read however many deliveries a partner has
+ * made. A nightly reconcile recomputes the ledger from the order table.
+ */
+@Service
+public class DeliveryEarningsLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryEarningsLedgerService.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE delivery_earnings_ledger SET completed_deliveries = completed_deliveries + 1, " +
+            "delivered_amount = delivered_amount + ?, updated_at = CURRENT_TIMESTAMP WHERE delivery_partner_id = ?";
+
+    // a concurrent first delivery may create the row first; the UPDATE is then retried
+    private static final String INSERT_SQL =
+            "INSERT INTO delivery_earnings_ledger (delivery_partner_id, completed_deliveries, delivered_amount, updated_at) " +
+            "VALUES (?, 1, ?, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING";
+
+    private static final String RECOMPUTE_SQL =
+            "INSERT INTO delivery_earnings_ledger (delivery_partner_id, completed_deliveries, delivered_amount, updated_at) " +
+            "SELECT o.delivery_partner_id, COUNT(*), COALESCE(SUM(o.total_amount), 0), CURRENT_TIMESTAMP " +
+            "FROM \"order\" o WHERE o.status = 'DELIVERED' AND o.delivery_partner_id IS NOT NULL " +
+            "GROUP BY o.delivery_partner_id";
+
+    private static final DeliveryTotals NO_DELIVERIES = new DeliveryTotals() {
+        @Override
+        public Long getDeliveries() {
+            return 0L;
+        }
+
+        @Override
+        public BigDecimal getDeliveredAmount() {
+            return BigDecimal.ZERO;
+        }
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DeliveryEarningsLedgerRepository deliveryEarningsLedgerRepository;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.ANALYTICS_EXECUTOR)
+    private Executor analyticsExecutor;
+
+    /**
+     * Add a delivered order to its partner's ledger; joins the caller's transaction
+     */
+    public void recordDelivered(Long deliveryPartnerId, BigDecimal orderAmount) {
+        BigDecimal amount = orderAmount != null ? orderAmount : BigDecimal.ZERO;
+        if (jdbcTemplate.update(UPDATE_SQL, amount, deliveryPartnerId) == 0
+                && jdbcTemplate.update(INSERT_SQL, deliveryPartnerId, amount) == 0) {
+            jdbcTemplate.update(UPDATE_SQL, amount, deliveryPartnerId);
+        }
+    }
+
+    /**
+     * All-time deliveries and delivered order total of a partner
+     */
+    public DeliveryTotals getTotals(Long deliveryPartnerId) {
+        return deliveryEarningsLedgerRepository.findTotalsByDeliveryPartnerId(deliveryPartnerId)
+                .orElse(NO_DELIVERIES);
+    }
+
+    /**
+     * Replace every ledger row with totals recomputed from the order table
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM delivery_earnings_ledger");
+            jdbcTemplate.update(RECOMPUTE_SQL);
+        });
+        log.info("Rebuilt delivery earnings ledger in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Build the ledger on first start; afterwards the nightly reconcile keeps it exact
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        analyticsExecutor.execute(() -> {
+            try {
+                if (deliveryEarningsLedgerRepository.count() == 0) {
+                    rebuild();
+                }
+            } catch (RuntimeException e) {
+                log.error("Delivery earnings ledger build failed", e);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${delivery.earnings.reconcile-cron:0 0 4 * * *}")
+    public void onReconcileTick() {
+        analyticsExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Delivery earnings ledger reconcile failed", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,283 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.DeliveryPartnerResponse;
+import com.fooddelivery.dto.LocationIngestionStatsResponse;
+import com.fooddelivery.model.DeliveryPartner;
+import com.fooddelivery.util.GeoGrid;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latest known position of every active delivery partner.
+ *
+ * GPS pings only touch memory: the position table is a ConcurrentHashMap (per-bin locking,
+ * so writers for different partners do not contend), available partners are mirrored into a
+ * GeoGrid for nearest-partner lookups, and changed rows are written back to
+ * delivery_partner.current_lat/current_long in one JDBC batch per flush interval.
+ */
+@Component
+public class DeliveryLocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryLocationStore.class);
+
+    private static final String WRITE_BACK_SQL =
+            "UPDATE delivery_partner SET current_lat = ?, current_long = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // partner id -> latest position and profile snapshot
+    private final ConcurrentHashMap<Long, PartnerLocation> locations = new ConcurrentHashMap<>();
+
+    // user id -> partner id, so pings resolve without a lookup query
+    private final ConcurrentHashMap<Long, Long> partnerIdsByUserId = new ConcurrentHashMap<>();
+
+    // partners whose position changed since the last flush
+    private final Set<Long> pendingWrites = ConcurrentHashMap.newKeySet();
+
+    private final GeoGrid<PartnerLocation> availablePartners;
+
+    // Ingestion metrics
+    private final LongAdder totalPings = new LongAdder();
+    private final LongAdder totalRowsWritten = new LongAdder();
+    private final LongAdder totalFlushes = new LongAdder();
+    private volatile long pingsAtLastFlush = 0;
+    private volatile long lastFlushNanos = System.nanoTime();
+    private volatile double pingsPerSecond = 0;
+    private volatile int lastFlushRows = 0;
+    private volatile long lastFlushDurationMs = 0;
+    private volatile LocalDateTime lastFlushAt;
+
+    public DeliveryLocationStore(@Value("${delivery.location.cell-size-degrees:0.02}") double cellSizeDegrees) {
+        this.availablePartners = new GeoGrid<>(cellSizeDegrees);
+    }
+
+    public PartnerLocation getByUserId(Long userId) {
+        Long partnerId = partnerIdsByUserId.get(userId);
+        return partnerId != null ? locations.get(partnerId) : null;
+    }
+
+    public PartnerLocation getByPartnerId(Long partnerId) {
+        return locations.get(partnerId);
+    }
+
+    /**
+     * Track a partner (or refresh its profile/availability), keeping any newer in-memory position
+     */
+    public PartnerLocation register(DeliveryPartner partner) {
+        partnerIdsByUserId.put(partner.getUser().getId(), partner.getId());
+        return locations.compute(partner.getId(), (id, previous) -> {
+            PartnerLocation location = PartnerLocation.from(partner);
+            if (previous != null && previous.hasPosition()) {
+                location = location.withPosition(previous.lat, previous.longitude, previous.updatedAt);
+            }
+            index(location);
+            return location;
+        });
+    }
+
+    /**
+     * Stop tracking a partner; its last position stays as written back to the database
+     */
+    public void remove(Long partnerId) {
+        PartnerLocation removed = locations.remove(partnerId);
+        if (removed != null) {
+            partnerIdsByUserId.remove(removed.userId);
+            pendingWrites.remove(partnerId);
+            availablePartners.remove(partnerId);
+        }
+    }
+
+    /**
+     * Record a GPS ping for a tracked partner
+     */
+    public PartnerLocation recordPing(Long partnerId, double lat, double longitude) {
+        PartnerLocation updated = locations.computeIfPresent(partnerId, (id, previous) -> {
+            PartnerLocation location = previous.withPosition(lat, longitude, LocalDateTime.now());
+            index(location);
+            return location;
+        });
+        if (updated != null) {
+            pendingWrites.add(partnerId);
+            totalPings.increment();
+        }
+        return updated;
+    }
+
+    /**
+     * Available partners nearest to a point, closest first
+     */
+    public List<GeoGrid.Neighbor<PartnerLocation>> findNearestAvailable(double lat, double longitude, int limit, double maxRadiusKm) {
+        return availablePartners.nearest(lat, longitude, limit, maxRadiusKm);
+    }
+
+    /**
+     * Write changed positions back to the database in a single JDBC batch
+     */
+    @Scheduled(fixedDelayString = "${delivery.location.flush-interval-ms:5000}")
+    public void flush() {
+        long started = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>();
+        List<Long> flushedIds = new ArrayList<>();
+        Iterator<Long> iterator = pendingWrites.iterator();
+        while (iterator.hasNext()) {
+            Long partnerId = iterator.next();
+            iterator.remove();
+            PartnerLocation location = locations.get(partnerId);
+            if (location != null && location.hasPosition()) {
+                batch.add(new Object[]{location.lat, location.longitude, partnerId});
+                flushedIds.add(partnerId);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(WRITE_BACK_SQL, batch);
+                totalRowsWritten.add(batch.size());
+            } catch (RuntimeException e) {
+                // Keep the positions pending; the next flush retries them
+                pendingWrites.addAll(flushedIds);
+                log.warn("Failed to write back {} delivery partner locations: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+
+        long now = System.nanoTime();
+        long pings = totalPings.sum();
+        double elapsedSeconds = (now - lastFlushNanos) / 1_000_000_000.0;
+        pingsPerSecond = elapsedSeconds > 0 ? (pings - pingsAtLastFlush) / elapsedSeconds : 0;
+        pingsAtLastFlush = pings;
+        lastFlushNanos = now;
+        lastFlushRows = batch.size();
+        lastFlushDurationMs = (now - started) / 1_000_000;
+        lastFlushAt = LocalDateTime.now();
+        totalFlushes.increment();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public LocationIngestionStatsResponse getStats() {
+        LocationIngestionStatsResponse stats = new LocationIngestionStatsResponse();
+        stats.setTrackedPartners((long) locations.size());
+        stats.setAvailablePartners((long) availablePartners.size());
+        stats.setPendingWrites((long) pendingWrites.size());
+        stats.setTotalPings(totalPings.sum());
+        stats.setPingsPerSecond(pingsPerSecond);
+        stats.setTotalFlushes(totalFlushes.sum());
+        stats.setTotalRowsWritten(totalRowsWritten.sum());
+        stats.setLastFlushRows((long) lastFlushRows);
+        stats.setLastFlushDurationMs(lastFlushDurationMs);
+        stats.setLastFlushAt(lastFlushAt);
+        return stats;
+    }
+
+    private void index(PartnerLocation location) {
+        if (location.available && location.hasPosition()) {
+            availablePartners.put(location.partnerId, location.lat, location.longitude, location);
+        } else {
+            availablePartners.remove(location.partnerId);
+        }
+    }
+
+    /**
+     * Immutable snapshot of a partner's profile and latest position
+     */
+    public static final class PartnerLocation {
+        private final Long partnerId;
+        private final Long userId;
+        private final String name;
+        private final String email;
+        private final String phone;
+        private final DeliveryPartner.VehicleType vehicleType;
+        private final boolean available;
+        private final Double lat;
+        private final Double longitude;
+        private final LocalDateTime updatedAt;
+
+        private PartnerLocation(Long partnerId, Long userId, String name, String email, String phone,
+                                DeliveryPartner.VehicleType vehicleType, boolean available,
+                                Double lat, Double longitude, LocalDateTime updatedAt) {
+            this.partnerId = partnerId;
+            this.userId = userId;
+            this.name = name;
+            this.email = email;
+            this.phone = phone;
+            this.vehicleType = vehicleType;
+            this.available = available;
+            this.lat = lat;
+            this.longitude = longitude;
+            this.updatedAt = updatedAt;
+        }
+
+        static PartnerLocation from(DeliveryPartner partner) {
+            return new PartnerLocation(partner.getId(), partner.getUser().getId(), partner.getName(),
+                    partner.getUser().getEmail(), partner.getUser().getPhone(), partner.getVehicleType(),
+                    Boolean.TRUE.equals(partner.getIsAvailable()),
+                    partner.getCurrentLat(), partner.getCurrentLong(), null);
+        }
+
+        PartnerLocation withPosition(Double lat, Double longitude, LocalDateTime updatedAt) {
+            return new PartnerLocation(partnerId, userId, name, email, phone, vehicleType, available,
+                    lat, longitude, updatedAt);
+        }
+
+        boolean hasPosition() {
+            return lat != null && longitude != null;
+        }
+
+        public Long getPartnerId() {
+            return partnerId;
+        }
+
+        public DeliveryPartner.VehicleType getVehicleType() {
+            return vehicleType;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public Double getLat() {
+            return lat;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public DeliveryPartnerResponse toResponse() {
+            DeliveryPartnerResponse response = new DeliveryPartnerResponse();
+            response.setId(partnerId);
+            response.setUserId(userId);
+            response.setName(name);
+            response.setVehicleType(vehicleType);
+            response.setIsAvailable(available);
+            response.setCurrentLat(lat);
+            response.setCurrentLong(longitude);
+            response.setEmail(email);
+            response.setPhone(phone);
+            return response;
+        }
+    }
+}
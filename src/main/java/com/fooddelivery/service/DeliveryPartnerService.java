@@ -8,14 +8,16 @@ import com.fooddelivery.model.DeliveryPartner;
 import com.fooddelivery.model.Order;
 import com.fooddelivery.repository.DeliveryPartnerRepository;
 import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.projection.DeliveryTotals;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 public class DeliveryPartnerService {
@@ -26,14 +28,35 @@ public class DeliveryPartnerService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private DeliveryLocationStore deliveryLocationStore;
+
+    @Autowired
+    private DeliveryEarningsLedgerService deliveryEarningsLedgerService;
+
     // Delivery partner earns 10% of order total as commission
     private static final BigDecimal DELIVERY_COMMISSION_RATE = new BigDecimal("0.10");
 
+    /**
+     * Start tracking partners that are already on shift
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLocationStore() {
+        deliveryPartnerRepository.findByIsAvailableTrue().forEach(deliveryLocationStore::register);
+    }
+
     public DeliveryPartnerResponse getProfile(Long userId) {
         DeliveryPartner deliveryPartner = deliveryPartnerRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Delivery partner not found"));
 
-        return convertToResponse(deliveryPartner);
+        // Prefer the live position over the last value written back to the database
+        DeliveryLocationStore.PartnerLocation location = deliveryLocationStore.getByPartnerId(deliveryPartner.getId());
+        DeliveryPartnerResponse response = convertToResponse(deliveryPartner);
+        if (location != null && location.getUpdatedAt() != null) {
+            response.setCurrentLat(location.getLat());
+            response.setCurrentLong(location.getLongitude());
+        }
+        return response;
     }
 
     @Transactional
@@ -44,53 +67,54 @@ public class DeliveryPartnerService {
         deliveryPartner.setIsAvailable(!deliveryPartner.getIsAvailable());
         deliveryPartner = deliveryPartnerRepository.save(deliveryPartner);
 
-        return convertToResponse(deliveryPartner);
+        return deliveryLocationStore.register(deliveryPartner).toResponse();
     }
 
-    @Transactional
+    /**
+     * Record a GPS ping in the location store; the position is written back to the
+     * database by the store's periodic batch flush rather than on every ping
+     */
     public DeliveryPartnerResponse updateLocation(Long userId, UpdateLocationRequest request) {
-        DeliveryPartner deliveryPartner = deliveryPartnerRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Delivery partner not found"));
-
-        deliveryPartner.setCurrentLat(request.getLat());
-        deliveryPartner.setCurrentLong(request.getLongitude());
-        deliveryPartner = deliveryPartnerRepository.save(deliveryPartner);
+        DeliveryLocationStore.PartnerLocation location = deliveryLocationStore.getByUserId(userId);
+        if (location == null) {
+            DeliveryPartner deliveryPartner = deliveryPartnerRepository.findByUserId(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Delivery partner not found"));
+            location = deliveryLocationStore.register(deliveryPartner);
+        }
 
-        return convertToResponse(deliveryPartner);
+        location = deliveryLocationStore.recordPing(location.getPartnerId(), request.getLat(), request.getLongitude());
+        return location.toResponse();
     }
 
     public EarningsResponse getEarnings(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
         DeliveryPartner deliveryPartner = deliveryPartnerRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Delivery partner not found"));
 
-        List<Order> deliveredOrders;
+        DeliveryTotals totals;
 
         if (startDate != null && endDate != null) {
-            deliveredOrders = orderRepository.findByDeliveryPartnerIdAndStatusAndOrderDateBetween(
+            totals = orderRepository.sumByDeliveryPartnerIdAndStatusAndOrderDateBetween(
                     deliveryPartner.getId(),
                     Order.OrderStatus.DELIVERED,
                     startDate,
                     endDate
             );
         } else if (startDate != null) {
-            deliveredOrders = orderRepository.findByDeliveryPartnerIdAndStatusAndOrderDateAfter(
+            totals = orderRepository.sumByDeliveryPartnerIdAndStatusAndOrderDateAfter(
                     deliveryPartner.getId(),
                     Order.OrderStatus.DELIVERED,
                     startDate
             );
         } else {
-            deliveredOrders = orderRepository.findByDeliveryPartnerIdAndStatus(
-                    deliveryPartner.getId(),
-                    Order.OrderStatus.DELIVERED
-            );
+            // All-time totals come from the running ledger
+            totals = deliveryEarningsLedgerService.getTotals(deliveryPartner.getId());
         }
 
-        BigDecimal totalEarnings = deliveredOrders.stream()
-                .map(order -> order.getTotalAmount().multiply(DELIVERY_COMMISSION_RATE))
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
+        BigDecimal totalEarnings = totals.getDeliveredAmount()
+                .multiply(DELIVERY_COMMISSION_RATE)
                 .setScale(2, RoundingMode.HALF_UP);
 
-        Long totalDeliveries = (long) deliveredOrders.size();
+        Long totalDeliveries = totals.getDeliveries();
 
         BigDecimal averageEarningPerDelivery = totalDeliveries > 0
                 ? totalEarnings.divide(BigDecimal.valueOf(totalDeliveries), 2, RoundingMode.HALF_UP)
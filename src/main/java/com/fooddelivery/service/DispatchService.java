@@ -0,0 +1,313 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.config.ExecutorConfig;
+import com.fooddelivery.dto.DispatchStatsResponse;
+import com.fooddelivery.exception.ResourceNotFoundException;
+import com.fooddelivery.model.DeliveryPartner;
+import com.fooddelivery.model.Order;
+import com.fooddelivery.repository.DeliveryPartnerRepository;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.projection.DispatchCandidate;
+import com.fooddelivery.repository.projection.PartnerLoad;
+import com.fooddelivery.util.GeoGrid;
+import com.fooddelivery.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes ready orders to the best nearby delivery partner.
+ *
+ * Orders are queued when the restaurant marks them ready and matched in batches on the
+ * dedicated single-threaded dispatch pool, one batch per batching window. Each batch loads pickup points and partner loads
+ * with one query each, then assigns oldest orders first, scoring partners by estimated
+ * pickup time for their vehicle plus a penalty per delivery already in hand. Assignment is
+ * a conditional UPDATE, so a rider accepting manually and the dispatcher can never both win.
+ * Orders that find no partner are retried in later windows and stay in the available list.
+ */
+@Service
+public class DispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryPartnerRepository deliveryPartnerRepository;
+
+    @Autowired
+    private DeliveryLocationStore deliveryLocationStore;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.DISPATCH_EXECUTOR)
+    private Executor dispatchExecutor;
+
+    @Value("${dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dispatch.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${dispatch.max-attempts:30}")
+    private int maxAttempts;
+
+    @Value("${dispatch.candidates-per-order:10}")
+    private int candidatesPerOrder;
+
+    @Value("${dispatch.max-radius-km:10}")
+    private double maxRadiusKm;
+
+    @Value("${dispatch.max-active-orders:2}")
+    private int maxActiveOrders;
+
+    @Value("${dispatch.load-penalty-minutes:10}")
+    private double loadPenaltyMinutes;
+
+    // Average speed (km/h) and longest sensible pickup leg (km) per vehicle
+    private static final Map<DeliveryPartner.VehicleType, double[]> VEHICLE_PROFILES = new EnumMap<>(DeliveryPartner.VehicleType.class);
+
+    static {
+        VEHICLE_PROFILES.put(DeliveryPartner.VehicleType.BICYCLE, new double[]{12, 3});
+        VEHICLE_PROFILES.put(DeliveryPartner.VehicleType.SCOOTER, new double[]{25, 6});
+        VEHICLE_PROFILES.put(DeliveryPartner.VehicleType.BIKE, new double[]{30, 8});
+        VEHICLE_PROFILES.put(DeliveryPartner.VehicleType.CAR, new double[]{25, 10});
+    }
+
+    // order id -> dispatch attempts so far
+    private final ConcurrentHashMap<Long, Integer> queue = new ConcurrentHashMap<>();
+
+    private final LongAdder totalAssigned = new LongAdder();
+    private final LongAdder totalLostRaces = new LongAdder();
+    private final LongAdder totalRequeued = new LongAdder();
+    private final LongAdder totalGivenUp = new LongAdder();
+    private volatile int lastBatchSize = 0;
+    private volatile int lastBatchAssigned = 0;
+    private volatile long lastBatchDurationMs = 0;
+    private volatile LocalDateTime lastBatchAt;
+
+    /**
+     * Pick up ready orders left unassigned by a previous run
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverQueue() {
+        if (!enabled) {
+            return;
+        }
+        orderRepository.findUnassignedOrderIds(Order.OrderStatus.PREPARING)
+                .forEach(this::queueNow);
+    }
+
+    /**
+     * Close a batching window: hand the batch to the dispatch pool, which runs one batch at a
+     * time and drops ticks that arrive while one is already waiting
+     */
+    @Scheduled(fixedDelayString = "${dispatch.batch-window-ms:2000}", initialDelayString = "${dispatch.batch-window-ms:2000}")
+    public void onBatchWindow() {
+        if (enabled && !queue.isEmpty()) {
+            dispatchExecutor.execute(this::runBatchSafely);
+        }
+    }
+
+    /**
+     * Queue an order for dispatch once the surrounding transaction commits
+     */
+    public void enqueue(Long orderId) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> queueNow(orderId));
+    }
+
+    void queueNow(Long orderId) {
+        queue.putIfAbsent(orderId, 0);
+    }
+
+    /**
+     * Atomically hand an unassigned ready order to a delivery partner and send the customer
+     * their delivery OTP. Returns false if the order was already taken or is no longer ready.
+     */
+    @Transactional
+    public boolean tryAssign(Long orderId, Long deliveryPartnerId) {
+        int updated = orderRepository.assignDeliveryPartner(
+                orderId,
+                deliveryPartnerRepository.getReferenceById(deliveryPartnerId),
+                Order.OrderStatus.PREPARING,
+                Order.OrderStatus.OUT_FOR_DELIVERY);
+        if (updated == 0) {
+            return false;
+        }
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+
+        // Generate delivery OTP (6-digit)
+        String otp = String.format("%06d", (int) (Math.random() * 1000000));
+
+        // Send delivery OTP email
+        emailService.sendDeliveryOTP(
+                order.getCustomer().getUser().getEmail(),
+                order.getCustomer().getName(),
+                otp,
+                order.getId()
+        );
+
+        // Note: In a real system, you would store this OTP in the database with expiration time
+        // For now, we're just sending it via email
+
+        return true;
+    }
+
+    public DispatchStatsResponse getStats() {
+        DispatchStatsResponse stats = new DispatchStatsResponse();
+        stats.setQueuedOrders((long) queue.size());
+        stats.setTotalAssigned(totalAssigned.sum());
+        stats.setTotalLostRaces(totalLostRaces.sum());
+        stats.setTotalRequeued(totalRequeued.sum());
+        stats.setTotalGivenUp(totalGivenUp.sum());
+        stats.setLastBatchSize((long) lastBatchSize);
+        stats.setLastBatchAssigned((long) lastBatchAssigned);
+        stats.setLastBatchDurationMs(lastBatchDurationMs);
+        stats.setLastBatchAt(lastBatchAt);
+        return stats;
+    }
+
+    private void runBatchSafely() {
+        try {
+            runBatch();
+        } catch (RuntimeException e) {
+            // Keep the pool thread alive and the queue intact for the next window
+            log.error("Dispatch batch failed", e);
+        }
+    }
+
+    /**
+     * Match one batching window's worth of queued orders
+     */
+    void runBatch() {
+        Map<Long, Integer> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+
+        // Orders cancelled or accepted manually since queuing simply drop out here
+        List<DispatchCandidate> candidates = transactionTemplate.execute(status ->
+                orderRepository.findDispatchCandidates(batch.keySet(), Order.OrderStatus.PREPARING));
+
+        Map<Long, List<GeoGrid.Neighbor<DeliveryLocationStore.PartnerLocation>>> nearbyByOrder = new HashMap<>();
+        Set<Long> partnerIds = new HashSet<>();
+        for (DispatchCandidate candidate : candidates) {
+            if (candidate.getRestaurantLat() == null || candidate.getRestaurantLongitude() == null) {
+                continue;
+            }
+            List<GeoGrid.Neighbor<DeliveryLocationStore.PartnerLocation>> nearby = deliveryLocationStore.findNearestAvailable(
+                    candidate.getRestaurantLat(), candidate.getRestaurantLongitude(), candidatesPerOrder, maxRadiusKm);
+            nearbyByOrder.put(candidate.getOrderId(), nearby);
+            nearby.forEach(neighbor -> partnerIds.add(neighbor.getId()));
+        }
+
+        Map<Long, Long> loads = new HashMap<>();
+        if (!partnerIds.isEmpty()) {
+            List<PartnerLoad> partnerLoads = transactionTemplate.execute(status ->
+                    orderRepository.countActiveOrdersByPartner(partnerIds, Order.OrderStatus.OUT_FOR_DELIVERY));
+            partnerLoads.forEach(load -> loads.put(load.getPartnerId(), load.getActiveOrders()));
+        }
+
+        int assigned = 0;
+        for (DispatchCandidate candidate : candidates) {
+            Long orderId = candidate.getOrderId();
+            List<GeoGrid.Neighbor<DeliveryLocationStore.PartnerLocation>> nearby = nearbyByOrder.get(orderId);
+            if (nearby == null) {
+                // No pickup coordinates; leave it for riders to accept manually
+                totalGivenUp.increment();
+                continue;
+            }
+
+            Long partnerId = choosePartner(nearby, loads);
+            if (partnerId == null) {
+                requeue(orderId, batch.get(orderId));
+                continue;
+            }
+
+            Boolean won = transactionTemplate.execute(status -> tryAssign(orderId, partnerId));
+            if (Boolean.TRUE.equals(won)) {
+                loads.merge(partnerId, 1L, Long::sum);
+                totalAssigned.increment();
+                assigned++;
+            } else {
+                totalLostRaces.increment();
+            }
+        }
+
+        lastBatchSize = batch.size();
+        lastBatchAssigned = assigned;
+        lastBatchDurationMs = (System.nanoTime() - started) / 1_000_000;
+        lastBatchAt = LocalDateTime.now();
+    }
+
+    private Long choosePartner(List<GeoGrid.Neighbor<DeliveryLocationStore.PartnerLocation>> nearby, Map<Long, Long> loads) {
+        Long bestPartnerId = null;
+        double bestScore = Double.MAX_VALUE;
+        for (GeoGrid.Neighbor<DeliveryLocationStore.PartnerLocation> neighbor : nearby) {
+            long load = loads.getOrDefault(neighbor.getId(), 0L);
+            double[] profile = VEHICLE_PROFILES.get(neighbor.getValue().getVehicleType());
+            if (load >= maxActiveOrders || profile == null || neighbor.getDistanceKm() > profile[1]) {
+                continue;
+            }
+            double pickupMinutes = neighbor.getDistanceKm() / profile[0] * 60;
+            double score = pickupMinutes + load * loadPenaltyMinutes;
+            if (score < bestScore) {
+                bestScore = score;
+                bestPartnerId = neighbor.getId();
+            }
+        }
+        return bestPartnerId;
+    }
+
+    private Map<Long, Integer> drain() {
+        Map<Long, Integer> batch = new HashMap<>();
+        Iterator<Map.Entry<Long, Integer>> iterator = queue.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < maxBatchSize) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private void requeue(Long orderId, int attempts) {
+        if (attempts + 1 >= maxAttempts) {
+            totalGivenUp.increment();
+            return;
+        }
+        queue.putIfAbsent(orderId, attempts + 1);
+        totalRequeued.increment();
+    }
+}
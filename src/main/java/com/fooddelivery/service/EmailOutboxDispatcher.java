@@ -0,0 +1,255 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.config.ExecutorConfig;
+import com.fooddelivery.dto.EmailOutboxStatsResponse;
+import com.fooddelivery.model.EmailOutbox;
+import com.fooddelivery.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the email outbox in batches on the email executor pool.
+ *
+ * Each batch is claimed by pushing its rows' next attempt past a lease (so a crash mid-send
+ * only delays them), sent with a single JavaMailSender.send call (one SMTP connection for the
+ * whole batch), and then marked sent or rescheduled with exponential backoff. Delivery is
+ * at-least-once.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.EMAIL_EXECUTOR)
+    private Executor emailExecutor;
+
+    @Value("${mail.from:noreply@fooddelivery.com}")
+    private String fromEmail;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.base-backoff-ms:5000}")
+    private long baseBackoffMs;
+
+    @Value("${mail.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${mail.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final LongAdder totalSent = new LongAdder();
+    private final LongAdder totalRetried = new LongAdder();
+    private final LongAdder totalGivenUp = new LongAdder();
+    private final LongAdder totalAttempted = new LongAdder();
+    private final LongAdder totalSendNanos = new LongAdder();
+    private volatile int lastBatchSize = 0;
+    private volatile long lastBatchDurationMs = 0;
+    private volatile LocalDateTime lastBatchAt;
+
+    // set while a pool thread is draining the outbox
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    /**
+     * Hand the outbox to the email pool; SMTP I/O never runs on the shared scheduler thread.
+     * Ticks that arrive while a run is in flight are skipped rather than queued behind it.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!dispatching.get()) {
+            emailExecutor.execute(this::dispatchIfIdle);
+        }
+    }
+
+    // the running task owns the flag, so a tick the pool drops can never leave it set
+    private void dispatchIfIdle() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatch();
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    /**
+     * Send everything that is due, one batch at a time
+     */
+    public void dispatch() {
+        try {
+            int sent;
+            do {
+                sent = dispatchBatch();
+            } while (sent == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Email outbox dispatch failed", e);
+        }
+    }
+
+    /**
+     * Delete sent emails past the retention window
+     */
+    @Scheduled(cron = "${mail.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays)));
+    }
+
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> {
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            due.forEach(email -> email.setNextAttemptAt(now.plusNanos(leaseMs * 1_000_000)));
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        long started = System.nanoTime();
+        Map<Long, String> failures = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(toMessage(email), email);
+            } catch (MessagingException e) {
+                failures.put(email.getId(), e.getMessage());
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email.getId(), e.getMessage()));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> {
+                        EmailOutbox email = messages.get(message);
+                        if (email != null) {
+                            failures.put(email.getId(), cause.getMessage());
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email.getId(), e.getMessage()));
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        List<Long> sentIds = new ArrayList<>();
+        batch.forEach(email -> {
+            if (!failures.containsKey(email.getId())) {
+                sentIds.add(email.getId());
+            }
+        });
+
+        LocalDateTime finished = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailOutboxRepository.markSent(sentIds, finished);
+            }
+            for (EmailOutbox email : batch) {
+                String error = failures.get(email.getId());
+                if (error != null) {
+                    recordFailure(email, error, finished);
+                }
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            log.warn("Failed to send {} of {} outbox emails", failures.size(), batch.size());
+        }
+
+        totalSent.add(sentIds.size());
+        totalAttempted.add(batch.size());
+        totalSendNanos.add(elapsed);
+        lastBatchSize = batch.size();
+        lastBatchDurationMs = elapsed / 1_000_000;
+        lastBatchAt = finished;
+        return batch.size();
+    }
+
+    public EmailOutboxStatsResponse getStats() {
+        EmailOutboxStatsResponse stats = new EmailOutboxStatsResponse();
+        stats.setPending(emailOutboxRepository.countByStatus(EmailOutbox.OutboxStatus.PENDING));
+        stats.setFailed(emailOutboxRepository.countByStatus(EmailOutbox.OutboxStatus.FAILED));
+        stats.setOldestPendingAt(emailOutboxRepository.findOldestPendingCreatedAt());
+        stats.setTotalSent(totalSent.sum());
+        stats.setTotalRetried(totalRetried.sum());
+        stats.setTotalGivenUp(totalGivenUp.sum());
+        long attempted = totalAttempted.sum();
+        stats.setAverageSendLatencyMs(attempted > 0 ? totalSendNanos.sum() / 1_000_000.0 / attempted : 0.0);
+        stats.setLastBatchSize((long) lastBatchSize);
+        stats.setLastBatchDurationMs(lastBatchDurationMs);
+        stats.setLastBatchAt(lastBatchAt);
+        return stats;
+    }
+
+    private void recordFailure(EmailOutbox email, String error, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (attempts >= maxAttempts) {
+            emailOutboxRepository.markFailedAttempt(email.getId(), EmailOutbox.OutboxStatus.FAILED, attempts, now, lastError);
+            totalGivenUp.increment();
+            return;
+        }
+        // Exponential backoff: base, 2x base, 4x base ... capped at max
+        long backoffMs = Math.min(baseBackoffMs << Math.min(attempts - 1, 30), maxBackoffMs);
+        emailOutboxRepository.markFailedAttempt(email.getId(), EmailOutbox.OutboxStatus.PENDING, attempts,
+                now.plusNanos(backoffMs * 1_000_000), lastError);
+        totalRetried.increment();
+    }
+
+    private MimeMessage toMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
+        return message;
+    }
+}
@@ -1,35 +1,47 @@
 package com.fooddelivery.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.fooddelivery.model.EmailOutbox;
+import com.fooddelivery.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * Renders notification emails and queues them in the outbox. The outbox row joins the
+ * caller's transaction, so an email only goes out if the change it reports on commits;
+ * EmailOutboxDispatcher does the actual sending. Failure notices are the exception: they
+ * report on a transaction that rolls back, so they are queued in one of their own.
+ */
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
 
-    @Value("${mail.from:noreply@fooddelivery.com}")
-    private String fromEmail;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
-    @Async
     public void sendRegistrationConfirmation(String toEmail, String name, String role) {
         String subject = "Welcome to Food Delivery System!";
         String htmlContent = getRegistrationEmailTemplate(name, role);
         sendEmail(toEmail, subject, htmlContent);
     }
 
-    @Async
     public void sendOrderConfirmation(String toEmail, String customerName, Long orderId, 
                                      BigDecimal totalAmount, String deliveryAddress) {
         String subject = "Order Confirmation - Order #" + orderId;
@@ -37,7 +49,6 @@ public class EmailService {
         sendEmail(toEmail, subject, htmlContent);
     }
 
-    @Async
     public void sendOrderStatusUpdate(String toEmail, String customerName, Long orderId, 
                                      String status, String message) {
         String subject = "Order Update - Order #" + orderId;
@@ -45,14 +56,12 @@ public class EmailService {
         sendEmail(toEmail, subject, htmlContent);
     }
 
-    @Async
     public void sendDeliveryOTP(String toEmail, String customerName, String otp, Long orderId) {
         String subject = "Delivery OTP - Order #" + orderId;
         String htmlContent = getDeliveryOTPTemplate(customerName, otp, orderId);
         sendEmail(toEmail, subject, htmlContent);
     }
 
-    @Async
     public void sendPaymentSuccess(String toEmail, String customerName, Long orderId, 
                                   BigDecimal amount, String transactionId) {
         String subject = "Payment Successful - Order #" + orderId;
@@ -60,29 +69,21 @@ public class EmailService {
         sendEmail(toEmail, subject, htmlContent);
     }
 
-    @Async
     public void sendPaymentFailure(String toEmail, String customerName, Long orderId, 
                                   BigDecimal amount, String reason) {
         String subject = "Payment Failed - Order #" + orderId;
         String htmlContent = getPaymentFailureTemplate(customerName, orderId, amount, reason);
-        sendEmail(toEmail, subject, htmlContent);
+        // The caller reports the failure by throwing, which rolls back its own transaction
+        ownTransaction.executeWithoutResult(status -> sendEmail(toEmail, subject, htmlContent));
     }
 
     private void sendEmail(String to, String subject, String htmlContent) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            // Log error but don't throw - email sending should not break the main flow
-            System.err.println("Failed to send email to " + to + ": " + e.getMessage());
-        }
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(htmlContent);
+        email.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxRepository.save(email);
     }
 
     private String getRegistrationEmailTemplate(String name, String role) {
@@ -0,0 +1,126 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.config.ExecutorConfig;
+import com.fooddelivery.model.Order;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.projection.DailyPaidTotal;
+import com.fooddelivery.util.SlidingTopK;
+import com.fooddelivery.util.SpaceSaving;
+import com.fooddelivery.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Top restaurants and top customers by paid orders over a sliding window of days.
+ *
+ * Each is a {@link SlidingTopK}: one Space-Saving summary of analytics.top-k.capacity keys per
+ * day, so memory stays bounded whatever the number of restaurants or customers. Weights carry
+ * paid revenue in paise. Fed after commit by payment events; rebuilt from the order table at
+ * startup and nightly. Set analytics.top-k.exact=true to answer from the exact queries instead.
+ */
+@Component
+public class HeavyHitterStore {
+
+    private static final Logger log = LoggerFactory.getLogger(HeavyHitterStore.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.ANALYTICS_EXECUTOR)
+    private Executor analyticsExecutor;
+
+    private final int windowDays;
+
+    private final int capacity;
+
+    private volatile SlidingTopK<Long> restaurants;
+
+    private volatile SlidingTopK<Long> customers;
+
+    public HeavyHitterStore(@Value("${analytics.top-k.window-days:30}") int windowDays,
+                            @Value("${analytics.top-k.capacity:200}") int capacity) {
+        this.windowDays = windowDays;
+        this.capacity = capacity;
+        this.restaurants = new SlidingTopK<>(windowDays, capacity);
+        this.customers = new SlidingTopK<>(windowDays, capacity);
+    }
+
+    public void recordPaid(Order order) {
+        record(order, 1);
+    }
+
+    public void recordRefunded(Order order) {
+        record(order, -1);
+    }
+
+    /**
+     * Restaurants with the most paid orders in the window; weight is paid revenue in paise
+     */
+    public List<SpaceSaving.Estimate<Long>> topRestaurants(int limit) {
+        return restaurants.top(LocalDate.now(), limit);
+    }
+
+    /**
+     * Customers with the most paid orders in the window; weight is amount spent in paise
+     */
+    public List<SpaceSaving.Estimate<Long>> topCustomers(int limit) {
+        return customers.top(LocalDate.now(), limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        LocalDate since = LocalDate.now().minusDays(windowDays - 1L);
+        SlidingTopK<Long> freshRestaurants = new SlidingTopK<>(windowDays, capacity);
+        SlidingTopK<Long> freshCustomers = new SlidingTopK<>(windowDays, capacity);
+        for (DailyPaidTotal total : orderRepository.sumPaidByRestaurantAndDaySince(since.atStartOfDay())) {
+            freshRestaurants.offer(total.getOrderDay(), total.getKeyId(), total.getOrderCount(), toPaise(total.getRevenue()));
+        }
+        for (DailyPaidTotal total : orderRepository.sumPaidByCustomerAndDaySince(since.atStartOfDay())) {
+            freshCustomers.offer(total.getOrderDay(), total.getKeyId(), total.getOrderCount(), toPaise(total.getRevenue()));
+        }
+        restaurants = freshRestaurants;
+        customers = freshCustomers;
+        log.info("Rebuilt top-K sketches in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(cron = "${analytics.top-k.resync-cron:0 45 3 * * *}")
+    public void onResyncTick() {
+        analyticsExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Top-K sketch resync failed", e);
+            }
+        });
+    }
+
+    private void record(Order order, int sign) {
+        LocalDate day = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        Long restaurantId = order.getRestaurant().getId();
+        Long customerId = order.getCustomer().getId();
+        long paise = toPaise(order.getTotalAmount());
+        TransactionUtil.afterCommit(() -> {
+            restaurants.offer(day, restaurantId, sign, sign * paise);
+            customers.offer(day, customerId, sign, sign * paise);
+        });
+    }
+
+    static long toPaise(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
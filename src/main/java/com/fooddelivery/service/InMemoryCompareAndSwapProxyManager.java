@@ -0,0 +1,47 @@
+package com.fooddelivery.service;
+
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serialized bucket state in a map, swapped with the same compare-and-swap protocol the JDBC
+ * backend uses. Several RateLimitService instances sharing one of these behave like nodes
+ * sharing a database, without one.
+ */
+public class InMemoryCompareAndSwapProxyManager extends SyncCompareAndSwapProxyManager {
+
+    private final ConcurrentMap<String, byte[]> states = new ConcurrentHashMap<>();
+
+    public InMemoryCompareAndSwapProxyManager() {
+        super(ClientSideConfig.getDefault());
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                return Optional.ofNullable(states.get(key));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                          Optional<Long> timeoutNanos) {
+                // the original array is the instance read above, so identity comparison is exact
+                return originalData == null
+                        ? states.putIfAbsent(key, newData) == null
+                        : states.replace(key, originalData, newData);
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        states.remove(key);
+    }
+}
@@ -0,0 +1,83 @@
+package com.fooddelivery.service;
+
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bucket state shared by every node through the rate_limit_bucket table.
+ *
+ * Each consume reads the serialized state and writes the new one back only if the row still
+ * holds what was read; a lost race retries. Plain SELECT / conditional UPDATE / INSERT ... ON
+ * CONFLICT DO NOTHING keeps it portable between PostgreSQL and the H2 test database. Every
+ * write stamps expires_at with the time the bucket will have refilled completely, after which
+ * its row carries no information and deleteExpired() removes it.
+ */
+public class JdbcCompareAndSwapProxyManager extends SyncCompareAndSwapProxyManager {
+
+    private static final String SELECT_SQL = "SELECT state FROM rate_limit_bucket WHERE id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO rate_limit_bucket (id, state, expires_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String UPDATE_SQL =
+            "UPDATE rate_limit_bucket SET state = ?, expires_at = ? WHERE id = ? AND state = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ExpirationAfterWriteStrategy expiration;
+
+    public JdbcCompareAndSwapProxyManager(JdbcTemplate jdbcTemplate, Duration keepAfterRefill) {
+        this(jdbcTemplate, ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(keepAfterRefill));
+    }
+
+    private JdbcCompareAndSwapProxyManager(JdbcTemplate jdbcTemplate, ExpirationAfterWriteStrategy expiration) {
+        super(ClientSideConfig.getDefault().withExpirationAfterWriteStrategy(expiration));
+        this.jdbcTemplate = jdbcTemplate;
+        this.expiration = expiration;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                return Optional.ofNullable(jdbcTemplate.query(SELECT_SQL,
+                        rs -> rs.next() ? rs.getBytes(1) : null, key));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                          Optional<Long> timeoutNanos) {
+                long nowMillis = System.currentTimeMillis();
+                long expiresAt = nowMillis + expiration.calculateTimeToLiveMillis(newState, nowMillis * 1_000_000);
+                if (originalData == null) {
+                    return jdbcTemplate.update(INSERT_SQL, key, newData, expiresAt) == 1;
+                }
+                return jdbcTemplate.update(UPDATE_SQL, newData, expiresAt, key, originalData) == 1;
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        jdbcTemplate.update("DELETE FROM rate_limit_bucket WHERE id = ?", key);
+    }
+
+    @Override
+    public boolean isExpireAfterWriteSupported() {
+        return true;
+    }
+
+    /**
+     * Remove rows of buckets that have refilled completely
+     */
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM rate_limit_bucket WHERE expires_at < ?", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,21 @@
+package com.fooddelivery.service;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+
+/**
+ * Buckets in this JVM's memory; limits are enforced per node
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    @Override
+    public Bucket newBucket(String bucketId, BucketConfiguration configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+}
@@ -9,14 +9,17 @@ import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.repository.CategoryRepository;
 import com.fooddelivery.repository.MenuItemRepository;
 import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.service.MenuSnapshotCache.MenuSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.function.Function;
+
 @Service
 public class MenuService {
 
@@ -29,8 +32,16 @@ public class MenuService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // built once so a snapshot lookup does not allocate a method reference per request
+    private final Function<Long, MenuSnapshot> snapshotLoader = this::loadMenuSnapshot;
+
     @Transactional
-    @CacheEvict(value = "menuItems", allEntries = true)
     public MenuItemResponse addMenuItem(Long restaurantUserId, MenuItemRequest request) {
         Restaurant restaurant = restaurantRepository.findByUserId(restaurantUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
@@ -48,11 +59,11 @@ public class MenuService {
         menuItem.setDescription(request.getDescription());
 
         menuItem = menuItemRepository.save(menuItem);
+        menuChanged(restaurant.getId());
         return convertToResponse(menuItem);
     }
 
     @Transactional
-    @CacheEvict(value = "menuItems", allEntries = true)
     public MenuItemResponse updateMenuItem(Long restaurantUserId, Long menuItemId, MenuItemRequest request) {
         Restaurant restaurant = restaurantRepository.findByUserId(restaurantUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
@@ -75,11 +86,11 @@ public class MenuService {
         menuItem.setDescription(request.getDescription());
 
         menuItem = menuItemRepository.save(menuItem);
+        menuChanged(restaurant.getId());
         return convertToResponse(menuItem);
     }
 
     @Transactional
-    @CacheEvict(value = "menuItems", allEntries = true)
     public void deleteMenuItem(Long restaurantUserId, Long menuItemId) {
         Restaurant restaurant = restaurantRepository.findByUserId(restaurantUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
@@ -92,12 +103,58 @@ public class MenuService {
         }
 
         menuItemRepository.delete(menuItem);
+        menuChanged(restaurant.getId());
     }
 
-    @Cacheable(value = "menuItems", key = "#restaurantId + '_' + #categoryId + '_' + #isVeg + '_' + #isAvailable + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
     public Page<MenuItemResponse> getMenuItems(Long restaurantId, Long categoryId, Boolean isVeg, Boolean isAvailable, Pageable pageable) {
-        Page<MenuItem> menuItems = menuItemRepository.findMenuItemsWithFilters(restaurantId, categoryId, isVeg, isAvailable, pageable);
-        return menuItems.map(this::convertToResponse);
+        MenuSnapshot snapshot = getMenuSnapshot(restaurantId);
+        if (snapshot == null) {
+            return Page.empty(pageable);
+        }
+        return getMenuItems(snapshot, categoryId, isVeg, isAvailable, pageable);
+    }
+
+    /**
+     * One filtered page of a menu snapshot the caller already holds
+     */
+    public Page<MenuItemResponse> getMenuItems(MenuSnapshot snapshot, Long categoryId, Boolean isVeg, Boolean isAvailable, Pageable pageable) {
+        List<MenuItemResponse> matching = snapshot.filter(categoryId, isVeg, isAvailable);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matching, pageable, matching.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = Math.min(from + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(from, to), pageable, matching.size());
+    }
+
+    /**
+     * The current menu of a restaurant, or null if there is no such restaurant
+     */
+    public MenuSnapshot getMenuSnapshot(Long restaurantId) {
+        return menuSnapshotCache.get(restaurantId, snapshotLoader);
+    }
+
+    /**
+     * Bump a restaurant's menu version and drop its snapshot once the transaction commits;
+     * for changes to menu items made outside this service
+     */
+    @Transactional
+    public void menuChanged(Long restaurantId) {
+        restaurantRepository.incrementMenuVersion(restaurantId);
+        menuSnapshotCache.evict(restaurantId);
+        catalogVersions.menuItemsChanged();
+    }
+
+    // the version is read first, so a snapshot is never stamped newer than its items
+    private MenuSnapshot loadMenuSnapshot(Long restaurantId) {
+        Long version = restaurantRepository.findMenuVersionById(restaurantId).orElse(null);
+        if (version == null) {
+            return null;
+        }
+        List<MenuItemResponse> items = menuItemRepository.findMenuByRestaurantId(restaurantId).stream()
+                .map(this::convertToResponse)
+                .toList();
+        return new MenuSnapshot(restaurantId, version, items);
     }
 
     public MenuItemResponse getMenuItemById(Long menuItemId) {
@@ -106,7 +163,8 @@ public class MenuService {
         return convertToResponse(menuItem);
     }
 
-    private MenuItemResponse convertToResponse(MenuItem menuItem) {
+    // package-private for the JMH benchmarks
+    MenuItemResponse convertToResponse(MenuItem menuItem) {
         MenuItemResponse response = new MenuItemResponse();
         response.setId(menuItem.getId());
         response.setName(menuItem.getName());
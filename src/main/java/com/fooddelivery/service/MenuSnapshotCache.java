@@ -0,0 +1,102 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.MenuItemResponse;
+import com.fooddelivery.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Whole menus by restaurant id. Every filter and page of a menu is computed from its snapshot,
+ * so one restaurant's edit drops one entry instead of every cached page of every menu.
+ *
+ * A snapshot carries the restaurant's menu version it was loaded at. An eviction that arrives
+ * while the same restaurant is loading waits for the load and then discards it, so a snapshot
+ * read across a concurrent edit does not outlive the edit's commit.
+ */
+@Component
+public class MenuSnapshotCache {
+
+    public static final String NAME = "menuSnapshots";
+
+    private final Cache<Long, MenuSnapshot> cache;
+
+    public MenuSnapshotCache(@Value("${menu.snapshot.max-size:1000}") long maxSize,
+                             @Value("${menu.snapshot.expire-after-write-seconds:1800}") long expireAfterWriteSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The snapshot of a restaurant's menu, loading it on a miss
+     * @param loader Builds the snapshot, or returns null for an unknown restaurant (not cached)
+     */
+    public MenuSnapshot get(Long restaurantId, Function<Long, MenuSnapshot> loader) {
+        return cache.get(restaurantId, loader);
+    }
+
+    /**
+     * Drop a restaurant's menu once the current transaction commits
+     */
+    public void evict(Long restaurantId) {
+        TransactionUtil.afterCommit(() -> cache.invalidate(restaurantId));
+    }
+
+    /**
+     * Drop every menu once the current transaction commits
+     */
+    public void evictAll() {
+        TransactionUtil.afterCommit(cache::invalidateAll);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * A restaurant's menu items in id order, as of one menu version. Shared by every reader and
+     * never modified once loaded.
+     */
+    public record MenuSnapshot(Long restaurantId, long version, List<MenuItemResponse> items) {
+
+        public MenuSnapshot {
+            items = List.copyOf(items);
+        }
+
+        /**
+         * Items matching every filter that is not null
+         */
+        public List<MenuItemResponse> filter(Long categoryId, Boolean isVeg, Boolean isAvailable) {
+            if (categoryId == null && isVeg == null && isAvailable == null) {
+                return items;
+            }
+            List<MenuItemResponse> matching = new ArrayList<>();
+            for (MenuItemResponse item : items) {
+                if ((categoryId == null || categoryId.equals(item.getCategoryId()))
+                        && (isVeg == null || isVeg.equals(item.getIsVeg()))
+                        && (isAvailable == null || isAvailable.equals(item.getIsAvailable()))) {
+                    matching.add(item);
+                }
+            }
+            return matching;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.fooddelivery.dto.OrderItemResponse;
 import com.fooddelivery.dto.OrderResponse;
 import com.fooddelivery.dto.PlaceOrderRequest;
 import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.ConflictException;
 import com.fooddelivery.exception.ResourceNotFoundException;
 import com.fooddelivery.model.*;
 import com.fooddelivery.repository.CartItemRepository;
@@ -15,6 +16,8 @@ import com.fooddelivery.repository.DeliveryPartnerRepository;
 import com.fooddelivery.repository.OrderItemRepository;
 import com.fooddelivery.repository.OrderRepository;
 import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.projection.OrderItemSummary;
+import com.fooddelivery.repository.projection.OrderSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,7 +26,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -56,6 +62,18 @@ public class OrderService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private DeliveryEarningsLedgerService deliveryEarningsLedgerService;
+
+    @Autowired
+    private RestaurantDashboardStore restaurantDashboardStore;
+
     @Transactional
     public OrderResponse placeOrder(Long userId, PlaceOrderRequest request) {
         Customer customer = customerRepository.findByUserId(userId)
@@ -76,10 +94,7 @@ public class OrderService {
             throw new BadRequestException("Cart does not have a restaurant");
         }
 
-        // Calculate total
-        BigDecimal totalAmount = cart.getCartItems().stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalAmount = calculateTotal(cart.getCartItems());
 
         // Create order
         Order order = new Order();
@@ -89,20 +104,22 @@ public class OrderService {
         order.setStatus(Order.OrderStatus.PENDING);
         order.setPaymentStatus(Order.PaymentStatus.PENDING);
         order.setTotalAmount(totalAmount);
-        order = orderRepository.save(order);
 
-        // Create order items from cart items
+        // Create order items from cart items; cascaded from the order and batch-inserted on flush
         for (CartItem cartItem : cart.getCartItems()) {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setMenuItem(cartItem.getMenuItem());
             orderItem.setQuantity(cartItem.getQuantity());
             orderItem.setPrice(cartItem.getPrice());
-            orderItemRepository.save(orderItem);
+            order.getOrderItems().add(orderItem);
         }
+        order = orderRepository.save(order);
+        analyticsRollupService.recordPlaced(order);
+        restaurantDashboardStore.recordPlaced(order);
 
-        // Clear cart
-        cartItemRepository.deleteByCartId(cart.getId());
+        // Clear cart with one bulk delete (flushes the item batch first)
+        cartItemRepository.deleteAllByCartId(cart.getId());
 
         // Send order confirmation email
         String deliveryAddress = address.getStreet() + ", " + address.getCity() + " - " + address.getPincode();
@@ -123,45 +140,41 @@ public class OrderService {
         return convertToOrderResponse(order);
     }
 
-    public Page<OrderResponse> getCustomerOrders(Long userId, Order.OrderStatus status, Pageable pageable) {
-        Customer customer = customerRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
-
-        Page<Order> orders;
-        if (status != null) {
-            orders = orderRepository.findByCustomerIdAndStatus(customer.getId(), status, pageable);
-        } else {
-            orders = orderRepository.findByCustomerId(customer.getId(), pageable);
+    /**
+     * Check an order is assigned to the delivery partner without loading it; the extra lookup
+     * that tells a missing order from someone else's only runs when the check fails
+     */
+    public void assertAssignedToDeliveryPartner(Long deliveryUserId, Long orderId) {
+        if (orderRepository.existsByIdAndDeliveryPartnerUserId(orderId, deliveryUserId)) {
+            return;
+        }
+        if (!orderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
         }
+        throw new BadRequestException("Order is not assigned to this delivery partner");
+    }
 
-        return orders.map(this::convertToOrderResponse);
+    public Page<OrderResponse> getCustomerOrders(Long userId, Order.OrderStatus status, Pageable pageable) {
+        // the page is selected by user id, so the customer is only looked up to tell an empty page from a missing one
+        Page<OrderSummary> orders = orderRepository.findOrderSummariesByCustomerUserId(userId, status, pageable);
+        if (orders.isEmpty() && !customerRepository.existsByUserId(userId)) {
+            throw new ResourceNotFoundException("Customer not found");
+        }
+        return convertToOrderResponses(orders);
     }
 
     public Page<OrderResponse> getRestaurantOrders(Long userId, Order.OrderStatus status, Pageable pageable) {
-        Restaurant restaurant = restaurantRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
-
-        Page<Order> orders;
-        if (status != null) {
-            orders = orderRepository.findByRestaurantIdAndStatus(restaurant.getId(), status, pageable);
-        } else {
-            orders = orderRepository.findByRestaurantId(restaurant.getId(), pageable);
+        Page<OrderSummary> orders = orderRepository.findOrderSummariesByRestaurantUserId(userId, status, pageable);
+        if (orders.isEmpty() && !restaurantRepository.existsByUserId(userId)) {
+            throw new ResourceNotFoundException("Restaurant not found");
         }
-
-        return orders.map(this::convertToOrderResponse);
+        return convertToOrderResponses(orders);
     }
 
     public Page<OrderResponse> getAvailableOrdersForDelivery(Pageable pageable) {
-        Page<Order> orders = orderRepository.findByStatus(Order.OrderStatus.PREPARING, pageable);
-        // Filter out orders that already have a delivery partner
-        List<Order> availableOrders = orders.getContent().stream()
-                .filter(order -> order.getDeliveryPartner() == null)
-                .collect(Collectors.toList());
-        
-        // Convert to Page
-        Page<Order> availableOrdersPage = new org.springframework.data.domain.PageImpl<>(
-                availableOrders, pageable, availableOrders.size());
-        return availableOrdersPage.map(this::convertToOrderResponse);
+        // Filter unassigned orders in the query so page sizes and totals are correct
+        return orderRepository.findByStatusAndDeliveryPartnerIsNull(Order.OrderStatus.PREPARING, pageable)
+                .map(this::convertToOrderResponse);
     }
 
     @Transactional
@@ -169,19 +182,16 @@ public class OrderService {
         Customer customer = customerRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        if (!order.getCustomer().getId().equals(customer.getId())) {
-            throw new BadRequestException("You can only cancel your own orders");
-        }
-
-        if (order.getStatus() != Order.OrderStatus.PENDING) {
-            throw new BadRequestException("Only pending orders can be cancelled");
+        int updated = orderRepository.transitionForCustomer(
+                orderId, customer.getId(), Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED);
+        if (updated == 0) {
+            throw transitionRejected(orderId,
+                    order -> order.getCustomer().getId().equals(customer.getId()),
+                    "You can only cancel your own orders",
+                    "Only pending orders can be cancelled");
         }
 
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        order = orderRepository.save(order);
+        Order order = loadOrder(orderId);
 
         // Send order status update email
         emailService.sendOrderStatusUpdate(
@@ -200,19 +210,16 @@ public class OrderService {
         Restaurant restaurant = restaurantRepository.findByUserId(restaurantUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        if (!order.getRestaurant().getId().equals(restaurant.getId())) {
-            throw new BadRequestException("Order does not belong to this restaurant");
+        int updated = orderRepository.transitionForRestaurant(
+                orderId, restaurant.getId(), Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+        if (updated == 0) {
+            throw transitionRejected(orderId,
+                    order -> order.getRestaurant().getId().equals(restaurant.getId()),
+                    "Order does not belong to this restaurant",
+                    "Only pending orders can be confirmed");
         }
 
-        if (order.getStatus() != Order.OrderStatus.PENDING) {
-            throw new BadRequestException("Only pending orders can be confirmed");
-        }
-
-        order.setStatus(Order.OrderStatus.CONFIRMED);
-        order = orderRepository.save(order);
+        Order order = loadOrder(orderId);
 
         // Send order status update email
         emailService.sendOrderStatusUpdate(
@@ -231,19 +238,16 @@ public class OrderService {
         Restaurant restaurant = restaurantRepository.findByUserId(restaurantUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        if (!order.getRestaurant().getId().equals(restaurant.getId())) {
-            throw new BadRequestException("Order does not belong to this restaurant");
+        int updated = orderRepository.transitionForRestaurant(
+                orderId, restaurant.getId(), Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING);
+        if (updated == 0) {
+            throw transitionRejected(orderId,
+                    order -> order.getRestaurant().getId().equals(restaurant.getId()),
+                    "Order does not belong to this restaurant",
+                    "Order must be confirmed before marking as ready");
         }
 
-        if (order.getStatus() != Order.OrderStatus.CONFIRMED) {
-            throw new BadRequestException("Order must be confirmed before marking as ready");
-        }
-
-        order.setStatus(Order.OrderStatus.PREPARING);
-        order = orderRepository.save(order);
+        Order order = loadOrder(orderId);
 
         // Send order status update email
         emailService.sendOrderStatusUpdate(
@@ -254,6 +258,9 @@ public class OrderService {
             "Your order is being prepared and will be ready soon."
         );
 
+        // Hand the order to the dispatcher to find a nearby delivery partner
+        dispatchService.enqueue(order.getId());
+
         return convertToOrderResponse(order);
     }
 
@@ -262,36 +269,17 @@ public class OrderService {
         DeliveryPartner deliveryPartner = deliveryPartnerRepository.findByUserId(deliveryUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Delivery partner not found"));
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        if (order.getStatus() != Order.OrderStatus.PREPARING) {
-            throw new BadRequestException("Order must be in PREPARING status to accept delivery");
+        // Conditional update: only one rider (or the dispatcher) can win the order
+        if (!dispatchService.tryAssign(orderId, deliveryPartner.getId())) {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+            if (order.getDeliveryPartner() != null) {
+                throw new ConflictException("Order is already assigned to a delivery partner");
+            }
+            throw new ConflictException("Order must be in PREPARING status to accept delivery");
         }
 
-        if (order.getDeliveryPartner() != null) {
-            throw new BadRequestException("Order is already assigned to a delivery partner");
-        }
-
-        order.setDeliveryPartner(deliveryPartner);
-        order.setStatus(Order.OrderStatus.OUT_FOR_DELIVERY);
-        order = orderRepository.save(order);
-
-        // Generate delivery OTP (6-digit)
-        String otp = String.format("%06d", (int)(Math.random() * 1000000));
-        
-        // Send delivery OTP email
-        emailService.sendDeliveryOTP(
-            order.getCustomer().getUser().getEmail(),
-            order.getCustomer().getName(),
-            otp,
-            order.getId()
-        );
-
-        // Note: In a real system, you would store this OTP in the database with expiration time
-        // For now, we're just sending it via email
-
-        return convertToOrderResponse(order);
+        return convertToOrderResponse(loadOrder(orderId));
     }
 
     @Transactional
@@ -299,20 +287,19 @@ public class OrderService {
         DeliveryPartner deliveryPartner = deliveryPartnerRepository.findByUserId(deliveryUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Delivery partner not found"));
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        if (order.getDeliveryPartner() == null || !order.getDeliveryPartner().getId().equals(deliveryPartner.getId())) {
-            throw new BadRequestException("Order is not assigned to this delivery partner");
+        int updated = orderRepository.markDelivered(orderId, deliveryPartner.getId(),
+                Order.OrderStatus.OUT_FOR_DELIVERY, Order.OrderStatus.DELIVERED, LocalDateTime.now());
+        if (updated == 0) {
+            throw transitionRejected(orderId,
+                    order -> order.getDeliveryPartner() != null
+                            && order.getDeliveryPartner().getId().equals(deliveryPartner.getId()),
+                    "Order is not assigned to this delivery partner",
+                    "Order must be out for delivery to mark as delivered");
         }
 
-        if (order.getStatus() != Order.OrderStatus.OUT_FOR_DELIVERY) {
-            throw new BadRequestException("Order must be out for delivery to mark as delivered");
-        }
-
-        order.setStatus(Order.OrderStatus.DELIVERED);
-        order.setDeliveredDate(LocalDateTime.now());
-        order = orderRepository.save(order);
+        Order order = loadOrder(orderId);
+        deliveryEarningsLedgerService.recordDelivered(deliveryPartner.getId(), order.getTotalAmount());
+        analyticsRollupService.recordDelivered(order);
 
         // Send order status update email
         emailService.sendOrderStatusUpdate(
@@ -326,7 +313,38 @@ public class OrderService {
         return convertToOrderResponse(order);
     }
 
-    private OrderResponse convertToOrderResponse(Order order) {
+    private Order loadOrder(Long orderId) {
+        return orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+    }
+
+    /**
+     * Explain why a conditional transition matched no row: the order is missing, belongs to
+     * someone else, or its status moved on before this request got there (409)
+     */
+    private RuntimeException transitionRejected(Long orderId, Predicate<Order> ownedByCaller,
+                                                String notOwnerMessage, String wrongStatusMessage) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            return new ResourceNotFoundException("Order not found");
+        }
+        if (!ownedByCaller.test(order)) {
+            return new BadRequestException(notOwnerMessage);
+        }
+        return new ConflictException(wrongStatusMessage);
+    }
+
+    /**
+     * Sum of price * quantity over the cart lines
+     */
+    static BigDecimal calculateTotal(List<CartItem> items) {
+        return items.stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // package-private for the JMH benchmarks
+    OrderResponse convertToOrderResponse(Order order) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
         response.setCustomerId(order.getCustomer().getId());
@@ -368,6 +386,67 @@ public class OrderService {
         return response;
     }
 
+    /**
+     * Build listing responses from projections: one query for the page, one for all of its items
+     */
+    private Page<OrderResponse> convertToOrderResponses(Page<OrderSummary> orders) {
+        List<Long> orderIds = orders.getContent().stream()
+                .map(OrderSummary::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<OrderItemResponse>> itemsByOrder = orderIds.isEmpty()
+                ? Collections.emptyMap()
+                : orderItemRepository.findSummariesByOrderIdIn(orderIds).stream()
+                        .collect(Collectors.groupingBy(OrderItemSummary::getOrderId,
+                                Collectors.mapping(this::convertToOrderItemResponse, Collectors.toList())));
+
+        return orders.map(summary -> convertToOrderResponse(summary,
+                itemsByOrder.getOrDefault(summary.getId(), Collections.emptyList())));
+    }
+
+    private OrderResponse convertToOrderResponse(OrderSummary summary, List<OrderItemResponse> items) {
+        OrderResponse response = new OrderResponse();
+        response.setId(summary.getId());
+        response.setCustomerId(summary.getCustomerId());
+        response.setCustomerName(summary.getCustomerName());
+        response.setRestaurantId(summary.getRestaurantId());
+        response.setRestaurantName(summary.getRestaurantName());
+        response.setDeliveryPartnerId(summary.getDeliveryPartnerId());
+        response.setDeliveryPartnerName(summary.getDeliveryPartnerName());
+        response.setStatus(summary.getStatus());
+        response.setTotalAmount(summary.getTotalAmount());
+        response.setPaymentStatus(summary.getPaymentStatus());
+        response.setOrderDate(summary.getOrderDate());
+        response.setDeliveredDate(summary.getDeliveredDate());
+
+        if (summary.getAddressId() != null) {
+            AddressResponse addressResponse = new AddressResponse();
+            addressResponse.setId(summary.getAddressId());
+            addressResponse.setStreet(summary.getStreet());
+            addressResponse.setCity(summary.getCity());
+            addressResponse.setPincode(summary.getPincode());
+            addressResponse.setLat(summary.getAddressLat());
+            addressResponse.setLongitude(summary.getAddressLongitude());
+            addressResponse.setAddressType(summary.getAddressType());
+            addressResponse.setIsDefault(summary.getAddressIsDefault());
+            response.setAddress(addressResponse);
+        }
+
+        response.setItems(items);
+        return response;
+    }
+
+    private OrderItemResponse convertToOrderItemResponse(OrderItemSummary item) {
+        OrderItemResponse response = new OrderItemResponse();
+        response.setId(item.getId());
+        response.setMenuItemId(item.getMenuItemId());
+        response.setMenuItemName(item.getMenuItemName());
+        response.setQuantity(item.getQuantity());
+        response.setPrice(item.getPrice());
+        response.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        return response;
+    }
+
     private OrderItemResponse convertToOrderItemResponse(OrderItem orderItem) {
         OrderItemResponse response = new OrderItemResponse();
         response.setId(orderItem.getId());
@@ -37,6 +37,15 @@ public class PaymentService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private RestaurantDashboardStore restaurantDashboardStore;
+
+    @Autowired
+    private HeavyHitterStore heavyHitterStore;
+
     @Value("${razorpay.key.id}")
     private String razorpayKeyId;
 
@@ -157,6 +166,9 @@ public class PaymentService {
             Order order = payment.getOrder();
             order.setPaymentStatus(Order.PaymentStatus.PAID);
             orderRepository.save(order);
+            analyticsRollupService.recordPaid(order);
+            restaurantDashboardStore.recordPaid(order);
+            heavyHitterStore.recordPaid(order);
 
             // Send payment success email
             emailService.sendPaymentSuccess(
@@ -244,8 +256,14 @@ public class PaymentService {
 
             // Update order payment status
             Order order = payment.getOrder();
+            boolean wasPaid = order.getPaymentStatus() == Order.PaymentStatus.PAID;
             order.setPaymentStatus(Order.PaymentStatus.REFUNDED);
             orderRepository.save(order);
+            if (wasPaid) {
+                analyticsRollupService.recordRefunded(order);
+                restaurantDashboardStore.recordRefunded(order);
+                heavyHitterStore.recordRefunded(order);
+            }
 
             return convertToPaymentResponse(payment);
 
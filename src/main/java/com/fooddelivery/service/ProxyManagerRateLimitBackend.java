@@ -0,0 +1,49 @@
+package com.fooddelivery.service;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+
+import java.time.Duration;
+
+/**
+ * Buckets whose state is shared through a Bucket4j proxy manager.
+ *
+ * With prefetch enabled each node spends up to prefetchTokens tokens of a bucket locally and
+ * only then, or after prefetchMaxDelay, synchronizes with the shared state, so one round trip
+ * is amortized over many requests. The cost is that a limit can be overshot by up to
+ * prefetchTokens per node.
+ */
+public class ProxyManagerRateLimitBackend implements RateLimitBackend {
+
+    private final ProxyManager<String> proxyManager;
+
+    private final Optimization optimization;
+
+    public ProxyManagerRateLimitBackend(ProxyManager<String> proxyManager, long prefetchTokens, Duration prefetchMaxDelay) {
+        this.proxyManager = proxyManager;
+        this.optimization = prefetchTokens > 0
+                ? Optimizations.delaying(new DelayParameters(prefetchTokens, prefetchMaxDelay))
+                : null;
+    }
+
+    @Override
+    public Bucket newBucket(String bucketId, BucketConfiguration configuration) {
+        RemoteBucketBuilder<String> builder = proxyManager.builder();
+        if (optimization != null) {
+            builder = builder.withOptimization(optimization);
+        }
+        return builder.build(bucketId, () -> configuration);
+    }
+
+    @Override
+    public void purgeExpired() {
+        if (proxyManager instanceof JdbcCompareAndSwapProxyManager jdbcProxyManager) {
+            jdbcProxyManager.deleteExpired();
+        }
+    }
+}
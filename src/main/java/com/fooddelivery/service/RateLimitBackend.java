@@ -0,0 +1,23 @@
+package com.fooddelivery.service;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+/**
+ * Where rate-limit bucket state lives. RateLimitService caches the bucket handles a backend
+ * returns per client; a backend that keeps the state outside the JVM makes a limit hold across
+ * every node instead of per node, and survives the local handle being evicted.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * A bucket for the given id, created with the configuration if it does not exist yet
+     */
+    Bucket newBucket(String bucketId, BucketConfiguration configuration);
+
+    /**
+     * Drop state for buckets that have refilled completely and are no longer needed
+     */
+    default void purgeExpired() {
+    }
+}
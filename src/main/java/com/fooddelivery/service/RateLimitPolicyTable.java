@@ -0,0 +1,198 @@
+package com.fooddelivery.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Path patterns compiled into a trie of path segments, so a lookup walks the request path once
+ * instead of testing every pattern in turn. A pattern segment is a literal, "*" (exactly one
+ * segment) or "**" (the rest of the path, possibly empty; last segment only).
+ *
+ * Literal children are tried before "*" and "*" before "**", so the most specific pattern
+ * wins. Several rules may share a pattern; the first one added whose method and role match
+ * the request is used.
+ */
+public final class RateLimitPolicyTable<T> {
+
+    /** Role of requests without an authenticated user */
+    public static final String ANONYMOUS = "ANONYMOUS";
+
+    private static final String ANY = "*";
+
+    private final Node<T> root;
+
+    private RateLimitPolicyTable(Node<T> root) {
+        this.root = root;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * The value of the most specific rule matching a request, or null if none does
+     * @param method HTTP method, upper case
+     * @param path Request path without query string
+     * @param role Role of the caller, or null when anonymous
+     */
+    public T find(String method, String path, String role) {
+        return find(root, path, skipSlashes(path, 0), method, role != null ? role : ANONYMOUS);
+    }
+
+    private static <T> T find(Node<T> node, String path, int start, String method, String role) {
+        if (start == path.length()) {
+            T value = node.match(method, role);
+            if (value != null) {
+                return value;
+            }
+            // "**" also matches nothing
+            return node.rest != null ? node.rest.match(method, role) : null;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        int next = skipSlashes(path, end);
+
+        Node<T> literal = node.literal(path, start, end - start);
+        if (literal != null) {
+            T value = find(literal, path, next, method, role);
+            if (value != null) {
+                return value;
+            }
+        }
+        if (node.segment != null) {
+            T value = find(node.segment, path, next, method, role);
+            if (value != null) {
+                return value;
+            }
+        }
+        return node.rest != null ? node.rest.match(method, role) : null;
+    }
+
+    // empty segments, from doubled or trailing slashes, are ignored
+    private static int skipSlashes(String path, int index) {
+        while (index < path.length() && path.charAt(index) == '/') {
+            index++;
+        }
+        return index;
+    }
+
+    public static final class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a rule
+         * @param pattern Path pattern such as /api/orders/* or /api/payments/**
+         * @param method HTTP method, or null or "*" for any
+         * @param role Role, {@link #ANONYMOUS}, or null or "*" for any caller
+         * @param value What a matching request resolves to
+         */
+        public Builder<T> add(String pattern, String method, String role, T value) {
+            if (pattern == null || !pattern.startsWith("/")) {
+                throw new IllegalArgumentException("Path pattern must start with '/': " + pattern);
+            }
+
+            Node<T> node = root;
+            String[] segments = pattern.substring(1).split("/+");
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.equals("**")) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' must be the last segment: " + pattern);
+                    }
+                    if (node.rest == null) {
+                        node.rest = new Node<>();
+                    }
+                    node = node.rest;
+                } else if (segment.equals("*")) {
+                    if (node.segment == null) {
+                        node.segment = new Node<>();
+                    }
+                    node = node.segment;
+                } else if (segment.contains("*")) {
+                    throw new IllegalArgumentException("Wildcards must be a whole segment: " + pattern);
+                } else {
+                    node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+                }
+            }
+
+            node.rules.add(new Rule<>(normalize(method, true), normalize(role, false), value));
+            return this;
+        }
+
+        public RateLimitPolicyTable<T> build() {
+            root.compile();
+            return new RateLimitPolicyTable<>(root);
+        }
+
+        private static String normalize(String value, boolean upperCase) {
+            if (value == null || value.isBlank() || value.equals(ANY)) {
+                return null;
+            }
+            return upperCase ? value.trim().toUpperCase(Locale.ROOT) : value.trim();
+        }
+    }
+
+    private static final class Node<T> {
+        // filled while building, then copied into the arrays below
+        private Map<String, Node<T>> literals = new LinkedHashMap<>();
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private String[] literalSegments;
+        private List<Node<T>> literalChildren;
+        private Node<T> segment;
+        private Node<T> rest;
+
+        private void compile() {
+            literalSegments = literals.keySet().toArray(new String[0]);
+            literalChildren = List.copyOf(literals.values());
+            literals = null;
+            for (Node<T> child : literalChildren) {
+                child.compile();
+            }
+            if (segment != null) {
+                segment.compile();
+            }
+            if (rest != null) {
+                rest.compile();
+            }
+        }
+
+        // compares in place, so matching a segment never copies it out of the path
+        private Node<T> literal(String path, int start, int length) {
+            for (int i = 0; i < literalSegments.length; i++) {
+                String candidate = literalSegments[i];
+                if (candidate.length() == length && path.regionMatches(start, candidate, 0, length)) {
+                    return literalChildren.get(i);
+                }
+            }
+            return null;
+        }
+
+        private T match(String method, String role) {
+            for (int i = 0; i < rules.size(); i++) {
+                Rule<T> rule = rules.get(i);
+                if ((rule.method == null || rule.method.equals(method))
+                        && (rule.role == null || rule.role.equals(role))) {
+                    return rule.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Rule<T>(String method, String role, T value) {
+    }
+}
@@ -1,114 +1,355 @@
 package com.fooddelivery.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.dto.RateLimitPolicyConfig;
+import com.fooddelivery.dto.RateLimitPolicyConfig.BucketSpec;
+import com.fooddelivery.dto.RateLimitPolicyConfig.PolicySpec;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+/**
+ * Token bucket rate limiting driven by a policy table. Each policy maps a path pattern, method
+ * and role to a named bucket and the tokens a request costs. Policies come from the file named
+ * by rate.limit.policy-file, followed by built-in ones reproducing the public, authenticated
+ * and payment limits of rate.limit.*; the file is re-read when it changes.
+ */
 @Service
 public class RateLimitService {
 
-    private final Cache<String, Bucket> cache;
-    
-    @Value("${rate.limit.public:20}")
-    private int publicLimit;
-    
-    @Value("${rate.limit.authenticated:100}")
-    private int authenticatedLimit;
-    
-    @Value("${rate.limit.payment:10}")
-    private int paymentLimit;
-    
-    @Value("${rate.limit.window:60}")
-    private int windowSeconds;
-
-    public RateLimitService() {
-        this.cache = Caffeine.newBuilder()
-                .expireAfterAccess(2, TimeUnit.HOURS)
-                .maximumSize(10_000)
-                .build();
+    private static final Logger log = LoggerFactory.getLogger(RateLimitService.class);
+
+    public static final String PUBLIC = "public";
+    public static final String AUTHENTICATED = "authenticated";
+    public static final String PAYMENT = "payment";
+
+    // applied after the policies of the file, so the file can override them
+    private static final List<PolicySpec> DEFAULT_POLICIES = List.of(
+            new PolicySpec("/api/payments/**", null, null, PAYMENT, 1),
+            new PolicySpec("/api/customer/**", null, null, AUTHENTICATED, 1),
+            new PolicySpec("/api/cart/**", null, null, AUTHENTICATED, 1),
+            new PolicySpec("/api/orders/**", null, null, AUTHENTICATED, 1),
+            new PolicySpec("/api/restaurant/**", null, null, AUTHENTICATED, 1),
+            new PolicySpec("/api/delivery/**", null, null, AUTHENTICATED, 1),
+            new PolicySpec("/api/admin/**", null, null, AUTHENTICATED, 1),
+            new PolicySpec("/**", null, null, PUBLIC, 1));
+
+    private final RateLimitBackend backend;
+
+    private final ObjectMapper objectMapper;
+
+    private final String policyFile;
+
+    private final Map<String, BucketSpec> defaultBuckets = new LinkedHashMap<>();
+
+    // swapped as a whole on reload, so a request sees either the old or the new policies
+    private volatile Policies policies;
+
+    private long policyFileModified;
+
+    @Autowired
+    public RateLimitService(RateLimitBackend backend,
+                            ObjectMapper objectMapper,
+                            @Value("${rate.limit.policy-file:}") String policyFile,
+                            @Value("${rate.limit.public:20}") int publicLimit,
+                            @Value("${rate.limit.authenticated:100}") int authenticatedLimit,
+                            @Value("${rate.limit.payment:10}") int paymentLimit,
+                            @Value("${rate.limit.window:60}") int windowSeconds) {
+        this.backend = backend;
+        this.objectMapper = objectMapper;
+        this.policyFile = policyFile;
+        defaultBuckets.put(PUBLIC, new BucketSpec((long) publicLimit, null, windowSeconds));
+        defaultBuckets.put(AUTHENTICATED, new BucketSpec((long) authenticatedLimit, null, windowSeconds));
+        defaultBuckets.put(PAYMENT, new BucketSpec((long) paymentLimit, null, windowSeconds));
+        reloadPolicies();
     }
 
     /**
-     * Get or create a rate limit bucket for a given key
-     * @param key Unique identifier (IP address or user ID)
-     * @param limitType Type of limit (PUBLIC, AUTHENTICATED, PAYMENT)
-     * @return Bucket instance
+     * Built-in policies only, without a policy file
      */
-    public Bucket resolveBucket(String key, LimitType limitType) {
-        String cacheKey = key + ":" + limitType.name();
-        
-        return cache.get(cacheKey, k -> {
-            int limit = getLimitForType(limitType);
-            // Use Bandwidth.simple for non-deprecated API in Bucket4j 8.x
-            Bandwidth bandwidth = Bandwidth.simple(limit, Duration.ofSeconds(windowSeconds));
-            return Bucket.builder()
-                    .addLimit(bandwidth)
-                    .build();
-        });
+    public RateLimitService(RateLimitBackend backend, int publicLimit, int authenticatedLimit,
+                            int paymentLimit, int windowSeconds) {
+        this(backend, null, "", publicLimit, authenticatedLimit, paymentLimit, windowSeconds);
     }
 
     /**
-     * Check if a request is allowed
-     * @param key Unique identifier
-     * @param limitType Type of limit
-     * @return true if allowed, false if rate limit exceeded
+     * Find the policy for a request
+     * @param method HTTP method
+     * @param path Request path without query string
+     * @param role Role of the caller, or null when anonymous
+     * @return The most specific matching policy; the built-in /** policy matches every request
      */
-    public boolean tryConsume(String key, LimitType limitType) {
-        Bucket bucket = resolveBucket(key, limitType);
-        return bucket.tryConsume(1);
+    public Policy resolvePolicy(String method, String path, String role) {
+        return policies.table.find(method, path, role);
     }
 
     /**
-     * Get remaining tokens
-     * @param key Unique identifier
-     * @param limitType Type of limit
-     * @return Number of remaining tokens
+     * Take a request's cost from the bucket of a client, resolving the bucket once
+     * @param key Unique identifier (IP address or username)
+     * @param policy Policy of the request
+     * @return Whether the tokens were taken, and the tokens left afterwards
      */
-    public long getAvailableTokens(String key, LimitType limitType) {
-        Bucket bucket = resolveBucket(key, limitType);
-        return bucket.getAvailableTokens();
+    public ConsumptionProbe tryConsume(String key, Policy policy) {
+        Tier tier = policy.tier;
+        return tier.buckets.get(key, tier.newBucket).tryConsumeAndReturnRemaining(policy.cost);
     }
 
     /**
-     * Get the limit for a given type
-     * @param limitType Type of limit
-     * @return Limit value
+     * Policies in force, in the order they were declared
      */
-    private int getLimitForType(LimitType limitType) {
-        return switch (limitType) {
-            case PUBLIC -> publicLimit;
-            case AUTHENTICATED -> authenticatedLimit;
-            case PAYMENT -> paymentLimit;
-        };
+    public List<Policy> getPolicies() {
+        return policies.list;
     }
 
     /**
-     * Get the window size in seconds
-     * @return Window size
+     * Re-read the policy file and swap in the new policies. Buckets whose settings did not
+     * change are kept, so clients do not get their tokens back on a reload.
+     * @return The new policies
+     * @throws IllegalArgumentException if the file is invalid; the current policies stay in force
      */
-    public int getWindowSeconds() {
-        return windowSeconds;
+    public synchronized List<Policy> reloadPolicies() {
+        Policies current = policies;
+        Policies reloaded = compile(readPolicyFile(), current != null ? current.tiers : Map.of());
+        policies = reloaded;
+        return reloaded.list;
+    }
+
+    @Scheduled(cron = "${rate.limit.policy-reload-cron:*/10 * * * * *}")
+    public void onPolicyReloadTick() {
+        if (policyFile.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                if (resource().lastModified() == policyFileModified) {
+                    return;
+                }
+                List<Policy> reloaded = reloadPolicies();
+                log.info("Reloaded {} rate limit policies from {}", reloaded.size(), policyFile);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Rate limit policy reload failed; keeping current policies", e);
+        }
+    }
+
+    @Scheduled(cron = "${rate.limit.purge-cron:0 */10 * * * *}")
+    public void onPurgeTick() {
+        try {
+            backend.purgeExpired();
+        } catch (RuntimeException e) {
+            log.error("Rate limit bucket purge failed", e);
+        }
+    }
+
+    private RateLimitPolicyConfig readPolicyFile() {
+        if (policyFile.isEmpty()) {
+            return new RateLimitPolicyConfig();
+        }
+        Resource resource = resource();
+        try {
+            // recorded before parsing, so a broken file is reported once rather than on every tick
+            policyFileModified = resource.lastModified();
+            try (InputStream in = resource.getInputStream()) {
+                return objectMapper.readValue(in, RateLimitPolicyConfig.class);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read rate limit policy file " + policyFile, e);
+        }
+    }
+
+    private Resource resource() {
+        return new DefaultResourceLoader().getResource(policyFile);
+    }
+
+    private Policies compile(RateLimitPolicyConfig config, Map<String, Tier> currentTiers) {
+        Map<String, BucketSpec> bucketSpecs = new LinkedHashMap<>(defaultBuckets);
+        if (config.getBuckets() != null) {
+            bucketSpecs.putAll(config.getBuckets());
+        }
+
+        Map<String, Tier> tiers = new HashMap<>();
+        bucketSpecs.forEach((name, spec) -> {
+            if (spec == null || spec.getCapacity() == null || spec.getCapacity() < 1) {
+                throw new IllegalArgumentException("Rate limit bucket '" + name + "' needs a positive capacity");
+            }
+            long refillTokens = spec.getRefillTokens() != null ? spec.getRefillTokens() : spec.getCapacity();
+            if (refillTokens < 1 || spec.getRefillSeconds() == null || spec.getRefillSeconds() < 1) {
+                throw new IllegalArgumentException("Rate limit bucket '" + name + "' needs a positive refill");
+            }
+            Tier tier = currentTiers.get(name);
+            if (tier == null || !tier.hasSettings(spec.getCapacity(), refillTokens, spec.getRefillSeconds())) {
+                tier = new Tier(backend, name, spec.getCapacity(), refillTokens, spec.getRefillSeconds());
+            }
+            tiers.put(name, tier);
+        });
+
+        List<PolicySpec> policySpecs = new ArrayList<>();
+        if (config.getPolicies() != null) {
+            policySpecs.addAll(config.getPolicies());
+        }
+        policySpecs.addAll(DEFAULT_POLICIES);
+
+        RateLimitPolicyTable.Builder<Policy> table = RateLimitPolicyTable.builder();
+        List<Policy> list = new ArrayList<>();
+        for (PolicySpec spec : policySpecs) {
+            Tier tier = tiers.get(spec.getBucket());
+            if (tier == null) {
+                throw new IllegalArgumentException("Rate limit policy " + spec.getPath()
+                        + " refers to unknown bucket '" + spec.getBucket() + "'");
+            }
+            int cost = spec.getCost() != null ? spec.getCost() : 1;
+            if (cost < 1 || cost > tier.capacity) {
+                throw new IllegalArgumentException("Rate limit policy " + spec.getPath()
+                        + " costs " + cost + " tokens; must be between 1 and the bucket capacity " + tier.capacity);
+            }
+            Policy policy = new Policy(spec.getPath(), spec.getMethod(), spec.getRole(), tier, cost);
+            table.add(spec.getPath(), spec.getMethod(), spec.getRole(), policy);
+            list.add(policy);
+        }
+
+        return new Policies(table.build(), Collections.unmodifiableList(list), tiers);
+    }
+
+    private record Policies(RateLimitPolicyTable<Policy> table, List<Policy> list, Map<String, Tier> tiers) {
     }
 
     /**
-     * Get the limit for a given type
-     * @param limitType Type of limit
-     * @return Limit value
+     * A compiled policy: the bucket a matching request draws from and how many tokens it takes
      */
-    public int getLimitForTypePublic(LimitType limitType) {
-        return getLimitForType(limitType);
+    public static final class Policy {
+        private final String path;
+        private final String method;
+        private final String role;
+        private final Tier tier;
+        private final int cost;
+
+        private Policy(String path, String method, String role, Tier tier, int cost) {
+            this.path = path;
+            this.method = method;
+            this.role = role;
+            this.tier = tier;
+            this.cost = cost;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getBucket() {
+            return tier.name;
+        }
+
+        public int getCost() {
+            return cost;
+        }
+
+        public long getCapacity() {
+            return tier.capacity;
+        }
+
+        public long getRefillTokens() {
+            return tier.refillTokens;
+        }
+
+        public int getRefillSeconds() {
+            return tier.refillSeconds;
+        }
+
+        /**
+         * The bucket capacity, preformatted for the X-RateLimit-Limit header
+         */
+        public String getLimitHeader() {
+            return tier.limitHeader;
+        }
+
+        /**
+         * Epoch second at which the bucket has refilled, for the X-RateLimit-Reset header
+         */
+        public String getResetHeader(long nowSecond) {
+            return tier.resetHeader(nowSecond);
+        }
     }
 
-    public enum LimitType {
-        PUBLIC,
-        AUTHENTICATED,
-        PAYMENT
+    private static final class Tier {
+        private final String name;
+        private final long capacity;
+        private final long refillTokens;
+        private final int refillSeconds;
+        private final String limitHeader;
+        // bucket handles per client; with a shared backend an evicted handle loses no state
+        private final Cache<String, Bucket> buckets;
+        // built once so resolving a bucket does not allocate a capturing lambda per request
+        private final Function<String, Bucket> newBucket;
+        // X-RateLimit-Reset only changes once a second, so its value is formatted once a second
+        private volatile ResetHeader resetHeader = new ResetHeader(Long.MIN_VALUE, null);
+
+        private Tier(RateLimitBackend backend, String name, long capacity, long refillTokens, int refillSeconds) {
+            this.name = name;
+            this.capacity = capacity;
+            this.refillTokens = refillTokens;
+            this.refillSeconds = refillSeconds;
+            this.limitHeader = String.valueOf(capacity);
+            this.buckets = Caffeine.newBuilder()
+                    .expireAfterAccess(2, TimeUnit.HOURS)
+                    .maximumSize(10_000)
+                    .build();
+            BucketConfiguration configuration = BucketConfiguration.builder()
+                    .addLimit(Bandwidth.builder()
+                            .capacity(capacity)
+                            .refillGreedy(refillTokens, Duration.ofSeconds(refillSeconds))
+                            .build())
+                    .build();
+            // a shared backend keeps a bucket's first configuration, so changed settings get new ids
+            String idPrefix = name + ":" + capacity + ":" + refillTokens + ":" + refillSeconds + ":";
+            this.newBucket = key -> backend.newBucket(idPrefix + key, configuration);
+        }
+
+        private boolean hasSettings(long capacity, long refillTokens, int refillSeconds) {
+            return this.capacity == capacity && this.refillTokens == refillTokens && this.refillSeconds == refillSeconds;
+        }
+
+        private String resetHeader(long nowSecond) {
+            ResetHeader cached = resetHeader;
+            if (cached.second != nowSecond) {
+                cached = new ResetHeader(nowSecond, String.valueOf(nowSecond + refillSeconds));
+                resetHeader = cached;
+            }
+            return cached.value;
+        }
     }
-}
 
+    private record ResetHeader(long second, String value) {
+    }
+}
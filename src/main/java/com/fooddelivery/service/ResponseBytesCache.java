@@ -0,0 +1,171 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON bodies of hot public GETs, encoded once and written to the servlet output stream as is,
+ * so a hit costs neither serialization nor compression. Only endpoints listed in
+ * response.cache.endpoints use it.
+ *
+ * Keys start with the response's ETag, which the same service hooks that evict the DTO caches
+ * move on every change; a changed resource is therefore never served from old bytes, and
+ * superseded entries age out under the byte budget.
+ */
+@Component
+public class ResponseBytesCache {
+
+    public static final String NAME = "responseBytes";
+
+    public static final String RESTAURANT = "restaurant";
+    public static final String MENU = "menu";
+
+    private final ObjectMapper objectMapper;
+
+    private final Set<String> endpoints;
+
+    private final int gzipMinBytes;
+
+    private final Cache<String, EncodedResponse> cache;
+
+    public ResponseBytesCache(ObjectMapper objectMapper,
+                              @Value("${response.cache.endpoints:}") List<String> endpoints,
+                              @Value("${response.cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${response.cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.objectMapper = objectMapper;
+        this.endpoints = endpoints.stream()
+                .map(String::trim)
+                .filter(endpoint -> !endpoint.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, EncodedResponse value) -> key.length() + value.size())
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled(String endpoint) {
+        return endpoints.contains(endpoint);
+    }
+
+    /**
+     * Write a 200 response from the cached encoding of a body, encoding it on a miss
+     * @param key ETag of the response followed by its normalized parameters
+     * @param body Builds the body on a miss
+     */
+    public void write(String key, Supplier<?> body, String etag, CacheControl cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        EncodedResponse encoded = cache.get(key, k -> encode(body.get()));
+        boolean gzip = encoded.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? encoded.gzip() : encoded.json();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        // added, not set, so Vary values from the CORS filter survive
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private EncodedResponse encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new EncodedResponse(json, json.length >= gzipMinBytes ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip, explicitly or through "*", without q=0.
+     * A q value that is not a number counts as q=0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2) && !(qValue(parameter.substring(2)) > 0)) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parsed q value, or NaN when the client sent something else
+     */
+    private static double qValue(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private record EncodedResponse(byte[] json, byte[] gzip) {
+
+        int size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.dto.OrderHeatmapResponse;
 import com.fooddelivery.dto.PeakHourResponse;
 import com.fooddelivery.dto.PopularItemResponse;
 import com.fooddelivery.dto.RestaurantDashboardResponse;
@@ -7,15 +8,13 @@ import com.fooddelivery.exception.ResourceNotFoundException;
 import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.repository.OrderRepository;
 import com.fooddelivery.repository.RestaurantRepository;
-import com.fooddelivery.repository.ReviewRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,62 +28,21 @@ public class RestaurantAnalyticsService {
     private RestaurantRepository restaurantRepository;
 
     @Autowired
-    private ReviewRepository reviewRepository;
+    private RestaurantDashboardStore restaurantDashboardStore;
+
+    // Answer popular items from the exact query instead of the top-K sketch (verification)
+    @Value("${analytics.top-k.exact:false}")
+    private boolean exactTopK;
 
     public RestaurantDashboardResponse getDashboard(Long userId) {
         Restaurant restaurant = restaurantRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
-        RestaurantDashboardResponse response = new RestaurantDashboardResponse();
-
-        // Orders today
-        Long ordersToday = orderRepository.countOrdersTodayByRestaurant(restaurant.getId());
-        response.setOrdersToday(ordersToday);
-
-        // Revenue today
-        BigDecimal revenueToday = orderRepository.calculateRevenueTodayByRestaurant(restaurant.getId());
-        response.setRevenueToday(revenueToday);
-
-        // Average rating
-        BigDecimal averageRating = reviewRepository.calculateAverageRatingByRestaurantId(restaurant.getId())
-                .orElse(BigDecimal.ZERO)
-                .setScale(2, RoundingMode.HALF_UP);
-        response.setAverageRating(averageRating);
-
-        // Total orders (all time)
-        Long totalOrders = orderRepository.countByRestaurantIdAndStatus(restaurant.getId(), null) 
-                + orderRepository.countByRestaurantIdAndStatus(restaurant.getId(), com.fooddelivery.model.Order.OrderStatus.DELIVERED);
-        response.setTotalOrders(totalOrders);
-
-        // Total revenue (all time)
-        BigDecimal totalRevenue = orderRepository.calculateRevenueByRestaurantAndDateRange(
-                restaurant.getId(),
-                LocalDateTime.of(2000, 1, 1, 0, 0),
-                LocalDateTime.now()
-        );
-        response.setTotalRevenue(totalRevenue);
-
-        // Popular items (last 30 days)
-        LocalDateTime startDate = LocalDateTime.now().minusDays(30);
-        LocalDateTime endDate = LocalDateTime.now();
-        List<Object[]> popularItemsData = orderRepository.findPopularItemsByRestaurant(
-                restaurant.getId(),
-                startDate,
-                endDate,
-                PageRequest.of(0, 10)
-        );
-
-        List<PopularItemResponse> popularItems = popularItemsData.stream().map(row -> {
-            Long menuItemId = ((Number) row[0]).longValue();
-            String menuItemName = (String) row[1];
-            Long orderCount = ((Number) row[2]).longValue();
-            Long totalQuantity = ((Number) row[3]).longValue();
-            
-            return new PopularItemResponse(menuItemId, menuItemName, orderCount, totalQuantity);
-        }).collect(Collectors.toList());
-
-        response.setPopularItems(popularItems);
-
+        // Counters are kept in memory and updated as orders are placed and paid
+        RestaurantDashboardResponse response = restaurantDashboardStore.getDashboard(restaurant.getId(), 10);
+        if (exactTopK) {
+            response.setPopularItems(getPopularItems(userId, 10));
+        }
         return response;
     }
 
@@ -92,6 +50,10 @@ public class RestaurantAnalyticsService {
         Restaurant restaurant = restaurantRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
+        if (!exactTopK) {
+            return restaurantDashboardStore.getPopularItems(restaurant.getId(), limit);
+        }
+
         LocalDateTime startDate = LocalDateTime.now().minusDays(30);
         LocalDateTime endDate = LocalDateTime.now();
 
@@ -139,21 +101,14 @@ public class RestaurantAnalyticsService {
         Restaurant restaurant = restaurantRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
-        LocalDateTime startDate = LocalDateTime.now().minusDays(30);
-        LocalDateTime endDate = LocalDateTime.now();
+        // Hour-of-day histogram kept in memory as orders are placed
+        return restaurantDashboardStore.getPeakHours(restaurant.getId());
+    }
 
-        List<Object[]> results = orderRepository.findPeakHoursByRestaurant(
-                restaurant.getId(),
-                startDate,
-                endDate
-        );
+    public OrderHeatmapResponse getHeatmap(Long userId) {
+        Restaurant restaurant = restaurantRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
-        return results.stream().map(row -> {
-            Integer hour = ((Number) row[0]).intValue();
-            Long orderCount = ((Number) row[1]).longValue();
-            
-            return new PeakHourResponse(hour, orderCount);
-        }).collect(Collectors.toList());
+        return restaurantDashboardStore.getHeatmap(restaurant.getId());
     }
 }
-
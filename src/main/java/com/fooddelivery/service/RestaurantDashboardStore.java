@@ -0,0 +1,344 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.config.ExecutorConfig;
+import com.fooddelivery.dto.OrderHeatmapResponse;
+import com.fooddelivery.dto.PeakHourResponse;
+import com.fooddelivery.dto.PopularItemResponse;
+import com.fooddelivery.dto.RestaurantDashboardResponse;
+import com.fooddelivery.model.Order;
+import com.fooddelivery.model.OrderItem;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.ReviewRepository;
+import com.fooddelivery.repository.projection.DailyItemCount;
+import com.fooddelivery.repository.projection.HourlyOrderCount;
+import com.fooddelivery.repository.projection.RestaurantOrderTotals;
+import com.fooddelivery.repository.projection.RestaurantRatingTotals;
+import com.fooddelivery.util.HourlyHistogram;
+import com.fooddelivery.util.SlidingTopK;
+import com.fooddelivery.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory counters behind the restaurant dashboard.
+ *
+ * Each restaurant keeps today's orders and paid revenue, lifetime orders and paid revenue,
+ * its rating sum and count, a sliding-window heavy-hitters sketch of its menu items and an
+ * hour-of-day histogram of orders per day for peak hours.
+ * Money is held as whole paise in LongAdders so updates are lock-free. Counters are updated
+ * after commit by order and payment events, rebuilt from the database at startup and
+ * re-synced nightly, which also repairs events that raced a rebuild and picks up anything
+ * written outside the services. Ratings only come from the rebuild: no service in this
+ * application creates reviews, so the average rating moves with the nightly re-sync.
+ */
+@Component
+public class RestaurantDashboardStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantDashboardStore.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.ANALYTICS_EXECUTOR)
+    private Executor analyticsExecutor;
+
+    private final int popularWindowDays;
+
+    private final int peakHoursWindowDays;
+
+    // menu items tracked per restaurant and day; 0 tracks every item exactly
+    private final int itemCapacity;
+
+    // restaurant id -> counters; swapped wholesale by a rebuild
+    private volatile ConcurrentHashMap<Long, RestaurantCounters> counters = new ConcurrentHashMap<>();
+
+    public RestaurantDashboardStore(@Value("${analytics.dashboard.popular-window-days:30}") int popularWindowDays,
+                                    @Value("${analytics.dashboard.peak-hours-window-days:30}") int peakHoursWindowDays,
+                                    @Value("${analytics.top-k.item-capacity:50}") int itemCapacity) {
+        this.popularWindowDays = popularWindowDays;
+        this.peakHoursWindowDays = peakHoursWindowDays;
+        this.itemCapacity = itemCapacity;
+    }
+
+    public void recordPlaced(Order order) {
+        Long restaurantId = order.getRestaurant().getId();
+        LocalDateTime placedAt = order.getOrderDate() != null ? order.getOrderDate() : LocalDateTime.now();
+        List<ItemLine> lines = order.getOrderItems().stream()
+                .map(ItemLine::from)
+                .collect(Collectors.toList());
+        TransactionUtil.afterCommit(() -> countersFor(restaurantId).placed(placedAt, lines));
+    }
+
+    public void recordPaid(Order order) {
+        Long restaurantId = order.getRestaurant().getId();
+        LocalDate day = orderDay(order);
+        long paise = toPaise(order.getTotalAmount());
+        TransactionUtil.afterCommit(() -> countersFor(restaurantId).paid(day, paise));
+    }
+
+    public void recordRefunded(Order order) {
+        Long restaurantId = order.getRestaurant().getId();
+        LocalDate day = orderDay(order);
+        long paise = toPaise(order.getTotalAmount());
+        TransactionUtil.afterCommit(() -> countersFor(restaurantId).paid(day, -paise));
+    }
+
+    /**
+     * Dashboard figures for a restaurant, read from memory
+     */
+    public RestaurantDashboardResponse getDashboard(Long restaurantId, int popularLimit) {
+        RestaurantCounters restaurant = counters.get(restaurantId);
+        if (restaurant == null) {
+            restaurant = newCounters();
+        }
+        LocalDate today = LocalDate.now();
+
+        RestaurantDashboardResponse response = new RestaurantDashboardResponse();
+        DayCounter day = restaurant.today.get();
+        boolean current = day.epochDay == today.toEpochDay();
+        response.setOrdersToday(current ? day.orders.sum() : 0L);
+        response.setRevenueToday(BigDecimal.valueOf(current ? day.revenuePaise.sum() : 0L, 2));
+        response.setAverageRating(restaurant.averageRating());
+        response.setTotalOrders(restaurant.totalOrders.sum());
+        response.setTotalRevenue(BigDecimal.valueOf(restaurant.totalRevenuePaise.sum(), 2));
+        response.setPopularItems(restaurant.popularItems(today, popularLimit));
+        return response;
+    }
+
+    /**
+     * Most ordered menu items of a restaurant over the popular-items window
+     */
+    public List<PopularItemResponse> getPopularItems(Long restaurantId, int limit) {
+        RestaurantCounters restaurant = counters.get(restaurantId);
+        return restaurant != null ? restaurant.popularItems(LocalDate.now(), limit) : new ArrayList<>();
+    }
+
+    /**
+     * Orders per hour of day over the peak-hours window, busiest hour first; hours without orders are left out
+     */
+    public List<PeakHourResponse> getPeakHours(Long restaurantId) {
+        RestaurantCounters restaurant = counters.get(restaurantId);
+        List<PeakHourResponse> peakHours = new ArrayList<>();
+        if (restaurant == null) {
+            return peakHours;
+        }
+        long[] byHour = restaurant.hours.byHour(LocalDate.now());
+        for (int hour = 0; hour < byHour.length; hour++) {
+            if (byHour[hour] > 0) {
+                peakHours.add(new PeakHourResponse(hour, byHour[hour]));
+            }
+        }
+        peakHours.sort(Comparator.comparing(PeakHourResponse::getOrderCount).reversed());
+        return peakHours;
+    }
+
+    /**
+     * Orders per day of week and hour of day over the peak-hours window
+     */
+    public OrderHeatmapResponse getHeatmap(Long restaurantId) {
+        RestaurantCounters restaurant = counters.get(restaurantId);
+        long[][] counts = restaurant != null
+                ? restaurant.hours.byDayOfWeekAndHour(LocalDate.now())
+                : new long[DayOfWeek.values().length][HourlyHistogram.HOURS];
+        Map<DayOfWeek, long[]> byDay = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            byDay.put(dayOfWeek, counts[dayOfWeek.ordinal()]);
+        }
+        return new OrderHeatmapResponse(peakHoursWindowDays, byDay);
+    }
+
+    /**
+     * Reload every counter from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        ConcurrentHashMap<Long, RestaurantCounters> fresh = new ConcurrentHashMap<>();
+        Function<Long, RestaurantCounters> create = id -> newCounters();
+
+        for (RestaurantOrderTotals totals : orderRepository.sumOrdersByRestaurantSince(LocalDateTime.of(2000, 1, 1, 0, 0))) {
+            RestaurantCounters restaurant = fresh.computeIfAbsent(totals.getRestaurantId(), create);
+            restaurant.totalOrders.add(totals.getOrderCount());
+            restaurant.totalRevenuePaise.add(toPaise(totals.getPaidRevenue()));
+        }
+        for (RestaurantOrderTotals totals : orderRepository.sumOrdersByRestaurantSince(today.atStartOfDay())) {
+            DayCounter day = fresh.computeIfAbsent(totals.getRestaurantId(), create).dayCounter(today);
+            day.orders.add(totals.getOrderCount());
+            day.revenuePaise.add(toPaise(totals.getPaidRevenue()));
+        }
+        LocalDate windowStart = today.minusDays(popularWindowDays - 1L);
+        for (DailyItemCount count : orderRepository.countItemsByRestaurantAndDaySince(windowStart.atStartOfDay())) {
+            fresh.computeIfAbsent(count.getRestaurantId(), create)
+                    .item(count.getOrderDay(), count.getMenuItemId(), count.getMenuItemName(),
+                            count.getOrderCount(), count.getTotalQuantity());
+        }
+        LocalDate peakHoursStart = today.minusDays(peakHoursWindowDays - 1L);
+        for (HourlyOrderCount count : orderRepository.countOrdersByRestaurantAndHourSince(peakHoursStart.atStartOfDay())) {
+            fresh.computeIfAbsent(count.getRestaurantId(), create).hours
+                    .add(count.getOrderDay(), count.getOrderHour(), count.getOrderCount());
+        }
+        for (RestaurantRatingTotals ratings : reviewRepository.sumRatingsByRestaurant()) {
+            RestaurantCounters restaurant = fresh.computeIfAbsent(ratings.getRestaurantId(), create);
+            restaurant.ratingSum.add(ratings.getRatingSum());
+            restaurant.ratingCount.add(ratings.getRatingCount());
+        }
+
+        counters = fresh;
+        log.info("Rebuilt dashboard counters for {} restaurants in {} ms",
+                fresh.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(cron = "${analytics.dashboard.resync-cron:0 30 3 * * *}")
+    public void onResyncTick() {
+        analyticsExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Dashboard counter resync failed", e);
+            }
+        });
+    }
+
+    private RestaurantCounters countersFor(Long restaurantId) {
+        return counters.computeIfAbsent(restaurantId, id -> newCounters());
+    }
+
+    private RestaurantCounters newCounters() {
+        return new RestaurantCounters(popularWindowDays, peakHoursWindowDays, itemCapacity);
+    }
+
+    private static LocalDate orderDay(Order order) {
+        return order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static final class RestaurantCounters {
+        private final AtomicReference<DayCounter> today = new AtomicReference<>(new DayCounter(LocalDate.now().toEpochDay()));
+        private final LongAdder totalOrders = new LongAdder();
+        private final LongAdder totalRevenuePaise = new LongAdder();
+        private final LongAdder ratingSum = new LongAdder();
+        private final LongAdder ratingCount = new LongAdder();
+        // menu item id -> orders (count) and units (weight) per day
+        private final SlidingTopK<Long> items;
+        private final ConcurrentHashMap<Long, String> itemNames = new ConcurrentHashMap<>();
+        // orders per hour of day, per day in the peak-hours window
+        private final HourlyHistogram hours;
+
+        private RestaurantCounters(int itemWindowDays, int hourWindowDays, int itemCapacity) {
+            this.items = new SlidingTopK<>(itemWindowDays, itemCapacity);
+            this.hours = new HourlyHistogram(hourWindowDays);
+        }
+
+        void placed(LocalDateTime placedAt, List<ItemLine> lines) {
+            LocalDate day = placedAt.toLocalDate();
+            totalOrders.increment();
+            hours.add(placedAt, 1);
+            if (day.equals(LocalDate.now())) {
+                dayCounter(day).orders.increment();
+            }
+            for (ItemLine line : lines) {
+                item(day, line.menuItemId, line.name, 1, line.quantity);
+            }
+        }
+
+        void paid(LocalDate day, long paise) {
+            totalRevenuePaise.add(paise);
+            // "revenue today" is paid revenue of orders placed today
+            if (day.equals(LocalDate.now())) {
+                dayCounter(day).revenuePaise.add(paise);
+            }
+        }
+
+        /**
+         * Today's counter, starting a fresh one the first time a new day is seen
+         */
+        DayCounter dayCounter(LocalDate day) {
+            long epochDay = day.toEpochDay();
+            while (true) {
+                DayCounter current = today.get();
+                if (current.epochDay >= epochDay) {
+                    return current;
+                }
+                today.compareAndSet(current, new DayCounter(epochDay));
+            }
+        }
+
+        BigDecimal averageRating() {
+            long count = ratingCount.sum();
+            if (count == 0) {
+                return BigDecimal.ZERO.setScale(2);
+            }
+            return BigDecimal.valueOf(ratingSum.sum()).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        }
+
+        void item(LocalDate day, Long menuItemId, String name, long orders, long quantity) {
+            itemNames.put(menuItemId, name);
+            items.offer(day, menuItemId, orders, quantity);
+        }
+
+        List<PopularItemResponse> popularItems(LocalDate today, int limit) {
+            return items.top(today, limit).stream()
+                    .map(estimate -> new PopularItemResponse(estimate.getKey(), itemNames.get(estimate.getKey()),
+                            estimate.getCount(), estimate.getWeight()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static final class DayCounter {
+        private final long epochDay;
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder revenuePaise = new LongAdder();
+
+        private DayCounter(long epochDay) {
+            this.epochDay = epochDay;
+        }
+    }
+
+    private static final class ItemLine {
+        private final Long menuItemId;
+        private final String name;
+        private final long quantity;
+
+        private ItemLine(Long menuItemId, String name, long quantity) {
+            this.menuItemId = menuItemId;
+            this.name = name;
+            this.quantity = quantity;
+        }
+
+        static ItemLine from(OrderItem item) {
+            return new ItemLine(item.getMenuItem().getId(), item.getMenuItem().getName(), item.getQuantity());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.RestaurantResponse;
+import com.fooddelivery.util.GeoGrid;
+import com.fooddelivery.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-memory geo index of open, approved restaurants with an active owner, used by the nearby
+ * search; the same filter as the SQL fallback.
+ * Loaded once at startup and kept current by the restaurant/admin services;
+ * until it is loaded, callers fall back to SQL.
+ */
+@Component
+public class RestaurantGeoIndex {
+
+    private final GeoGrid<RestaurantResponse> grid;
+
+    private volatile boolean ready = false;
+
+    public RestaurantGeoIndex(@Value("${geo.restaurant.cell-size-degrees:0.05}") double cellSizeDegrees) {
+        this.grid = new GeoGrid<>(cellSizeDegrees);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    /**
+     * Replace the index contents with the given open, approved restaurants of active owners
+     */
+    public synchronized void load(List<RestaurantResponse> restaurants) {
+        grid.clear();
+        restaurants.forEach(restaurant -> apply(restaurant, true));
+        ready = true;
+    }
+
+    /**
+     * Reflect the latest state of a restaurant and its owner once the surrounding transaction commits
+     */
+    public void update(RestaurantResponse restaurant, Boolean ownerActive) {
+        boolean active = Boolean.TRUE.equals(ownerActive);
+        TransactionUtil.afterCommit(() -> apply(restaurant, active));
+    }
+
+    public void remove(Long restaurantId) {
+        TransactionUtil.afterCommit(() -> grid.remove(restaurantId));
+    }
+
+    public List<GeoGrid.Neighbor<RestaurantResponse>> findWithinRadius(double lat, double longitude, double radiusKm) {
+        return grid.withinRadius(lat, longitude, radiusKm);
+    }
+
+    public List<GeoGrid.Neighbor<RestaurantResponse>> findNearest(double lat, double longitude, int limit, double maxRadiusKm) {
+        return grid.nearest(lat, longitude, limit, maxRadiusKm);
+    }
+
+    private void apply(RestaurantResponse restaurant, boolean ownerActive) {
+        boolean listed = ownerActive
+                && Boolean.TRUE.equals(restaurant.getIsOpen())
+                && Boolean.TRUE.equals(restaurant.getIsApproved())
+                && restaurant.getLat() != null
+                && restaurant.getLongitude() != null;
+        if (listed) {
+            grid.put(restaurant.getId(), restaurant.getLat(), restaurant.getLongitude(), restaurant);
+        } else {
+            grid.remove(restaurant.getId());
+        }
+    }
+}
@@ -7,10 +7,15 @@ import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.model.User;
 import com.fooddelivery.repository.RestaurantRepository;
 import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.repository.projection.RestaurantSummary;
+import com.fooddelivery.security.TokenRevocationList;
+import com.fooddelivery.util.GeoGrid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,8 +36,23 @@ public class RestaurantService {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     public Page<RestaurantResponse> getAllRestaurants(String cuisine, String city, BigDecimal minRating, Pageable pageable) {
-        Page<Restaurant> restaurants = restaurantRepository.findRestaurantsWithFilters(cuisine, city, minRating, pageable);
+        Page<RestaurantSummary> restaurants = restaurantRepository.findRestaurantSummariesWithFilters(cuisine, city, minRating, pageable);
         return restaurants.map(this::convertToResponse);
     }
 
@@ -54,8 +74,40 @@ public class RestaurantService {
     }
 
     public List<RestaurantResponse> getNearbyRestaurants(Double lat, Double longitude, Double radius) {
-        List<Restaurant> restaurants = restaurantRepository.findNearbyRestaurants(lat, longitude, radius);
-        return restaurants.stream().map(this::convertToResponse).toList();
+        return getNearbyRestaurants(lat, longitude, radius, null);
+    }
+
+    /**
+     * Open, approved restaurants within radius km, nearest first; limit keeps only the k nearest.
+     * Served from the in-memory geo index once it is loaded, from SQL before that.
+     */
+    public List<RestaurantResponse> getNearbyRestaurants(Double lat, Double longitude, Double radius, Integer limit) {
+        if (restaurantGeoIndex.isReady()) {
+            List<GeoGrid.Neighbor<RestaurantResponse>> neighbors = limit != null
+                    ? restaurantGeoIndex.findNearest(lat, longitude, limit, radius)
+                    : restaurantGeoIndex.findWithinRadius(lat, longitude, radius);
+            return neighbors.stream().map(GeoGrid.Neighbor::getValue).toList();
+        }
+
+        // Cold start: bounding box prefilter, exact distance in SQL
+        double latDelta = radius / GeoGrid.KM_PER_DEGREE_LAT;
+        double longDelta = radius / (GeoGrid.KM_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        List<RestaurantSummary> restaurants = restaurantRepository.findNearbyRestaurants(
+                lat, longitude, radius,
+                lat - latDelta, lat + latDelta,
+                longitude - longDelta, longitude + longDelta);
+        return restaurants.stream()
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGeoIndex() {
+        List<RestaurantResponse> restaurants = restaurantRepository.findOpenApprovedSummaries().stream()
+                .map(this::convertToResponse)
+                .toList();
+        restaurantGeoIndex.load(restaurants);
     }
 
     @Transactional
@@ -78,8 +130,15 @@ public class RestaurantService {
         if (cacheManager.getCache("restaurants") != null) {
             cacheManager.getCache("restaurants").evictIfPresent(restaurant.getId());
         }
+        // menu items carry the restaurant name
+        restaurantRepository.incrementMenuVersion(restaurant.getId());
+        menuSnapshotCache.evict(restaurant.getId());
+        catalogVersions.restaurantsChanged();
+        catalogVersions.menuItemsChanged();
         
-        return convertToResponse(restaurant);
+        RestaurantResponse response = convertToResponse(restaurant);
+        restaurantGeoIndex.update(response, restaurant.getUser().getIsActive());
+        return response;
     }
 
     @Transactional
@@ -89,13 +148,16 @@ public class RestaurantService {
 
         restaurant.setIsOpen(!restaurant.getIsOpen());
         restaurant = restaurantRepository.save(restaurant);
+        catalogVersions.restaurantsChanged();
         
         // Evict cache after update
         if (cacheManager.getCache("restaurants") != null) {
             cacheManager.getCache("restaurants").evictIfPresent(restaurant.getId());
         }
         
-        return convertToResponse(restaurant);
+        RestaurantResponse response = convertToResponse(restaurant);
+        restaurantGeoIndex.update(response, restaurant.getUser().getIsActive());
+        return response;
     }
 
     @Transactional
@@ -106,16 +168,18 @@ public class RestaurantService {
         // Soft delete by deactivating user
         User user = restaurant.getUser();
         user.setIsActive(false);
+        tokenRevocationList.revokeTokens(user);
         userRepository.save(user);
+        userCache.evict(user.getEmail());
         
         // Evict cache for this restaurant
         if (cacheManager.getCache("restaurants") != null) {
             cacheManager.getCache("restaurants").evictIfPresent(restaurant.getId());
         }
-        // Also evict menu items cache for this restaurant
-        if (cacheManager.getCache("menuItems") != null) {
-            cacheManager.getCache("menuItems").clear();
-        }
+        restaurantGeoIndex.remove(restaurant.getId());
+        catalogVersions.restaurantsChanged();
+        // Also evict the menu snapshot for this restaurant
+        menuSnapshotCache.evict(restaurant.getId());
     }
 
     public RestaurantResponse getRestaurantByUserId(Long userId) {
@@ -124,6 +188,23 @@ public class RestaurantService {
         return convertToResponse(restaurant);
     }
 
+    private RestaurantResponse convertToResponse(RestaurantSummary summary) {
+        RestaurantResponse response = new RestaurantResponse();
+        response.setId(summary.getId());
+        response.setName(summary.getName());
+        response.setCuisine(summary.getCuisine());
+        response.setAddress(summary.getAddress());
+        response.setLat(summary.getLat());
+        response.setLongitude(summary.getLongitude());
+        response.setIsOpen(summary.getIsOpen());
+        response.setAvgPrepTime(summary.getAvgPrepTime());
+        response.setRating(summary.getRating());
+        response.setIsApproved(summary.getIsApproved());
+        response.setEmail(summary.getEmail());
+        response.setPhone(summary.getPhone());
+        return response;
+    }
+
     private RestaurantResponse convertToResponse(Restaurant restaurant) {
         RestaurantResponse response = new RestaurantResponse();
         response.setId(restaurant.getId());
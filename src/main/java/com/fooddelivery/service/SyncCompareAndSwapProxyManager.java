@@ -0,0 +1,39 @@
+package com.fooddelivery.service;
+
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compare-and-swap proxy manager over a store with a blocking client only.
+ *
+ * isAsyncModeSupported() is false, so Bucket4j refuses asAsync() before it could reach the
+ * async operations; they are guarded here once rather than implemented.
+ */
+public abstract class SyncCompareAndSwapProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    protected SyncCompareAndSwapProxyManager(ClientSideConfig clientSideConfig) {
+        super(clientSideConfig);
+    }
+
+    @Override
+    public final boolean isAsyncModeSupported() {
+        return false;
+    }
+
+    @Override
+    protected final AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        throw asyncNotSupported();
+    }
+
+    @Override
+    protected final CompletableFuture<Void> removeAsync(String key) {
+        return CompletableFuture.failedFuture(asyncNotSupported());
+    }
+
+    private UnsupportedOperationException asyncNotSupported() {
+        return new UnsupportedOperationException(getClass().getSimpleName() + " supports synchronous access only");
+    }
+}
@@ -0,0 +1,76 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.model.User;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users by email, for login and the remaining token lookups that still need the account.
+ *
+ * Entries are immutable snapshots rather than entities. After refresh-after-write-seconds a read
+ * still returns the cached snapshot but reloads it in the background, so a hot account is never
+ * more than one refresh behind the users table; account changes made here evict the entry
+ * outright once their transaction commits.
+ */
+@Component
+public class UserCache {
+
+    public static final String NAME = "users";
+
+    private final LoadingCache<String, CachedUser> cache;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${user.cache.max-size:10000}") long maxSize,
+                     @Value("${user.cache.refresh-after-write-seconds:60}") long refreshAfterWriteSeconds,
+                     @Value("${user.cache.expire-after-write-seconds:600}") long expireAfterWriteSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfterWriteSeconds, TimeUnit.SECONDS)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                // unknown emails load as null and are not cached
+                .build(email -> userRepository.findByEmail(email).map(CachedUser::of).orElse(null));
+    }
+
+    /**
+     * The user with this email, or null if there is none
+     */
+    public CachedUser get(String email) {
+        return cache.get(email);
+    }
+
+    /**
+     * Drop a user once the current transaction commits, so the next lookup reads the change
+     */
+    public void evict(String email) {
+        TransactionUtil.afterCommit(() -> cache.invalidate(email));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public record CachedUser(Long id, String email, String password, User.Role role,
+                             boolean active, int tokenVersion) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRole(),
+                    Boolean.TRUE.equals(user.getIsActive()), user.getTokenVersion());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.fooddelivery.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe uniform lat/long grid for radius and k-nearest lookups.
+ * Points are bucketed into square cells; a query only scans the cells
+ * overlapping its bounding box and computes exact Haversine distances there.
+ *
+ * @param <T> value stored with each point
+ */
+public class GeoGrid<T> {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    public static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final double cellSizeDegrees;
+
+    // id -> latest point; compute() on this map serialises writers per id
+    private final ConcurrentHashMap<Long, Point<T>> points = new ConcurrentHashMap<>();
+
+    // cell key -> ids currently in that cell
+    private final ConcurrentHashMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public GeoGrid(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * Insert or move a point
+     */
+    public void put(Long id, double lat, double longitude, T value) {
+        long cell = cellKey(lat, longitude);
+        points.compute(id, (key, previous) -> {
+            if (previous != null && previous.cell != cell) {
+                removeFromCell(previous.cell, key);
+            }
+            if (previous == null || previous.cell != cell) {
+                cells.compute(cell, (c, ids) -> {
+                    Set<Long> members = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    members.add(key);
+                    return members;
+                });
+            }
+            return new Point<>(lat, longitude, cell, value);
+        });
+    }
+
+    public void remove(Long id) {
+        points.computeIfPresent(id, (key, previous) -> {
+            removeFromCell(previous.cell, key);
+            return null;
+        });
+    }
+
+    public T get(Long id) {
+        Point<T> point = points.get(id);
+        return point != null ? point.value : null;
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public void clear() {
+        points.clear();
+        cells.clear();
+    }
+
+    /**
+     * All points within radiusKm of the given location, nearest first
+     */
+    public List<Neighbor<T>> withinRadius(double lat, double longitude, double radiusKm) {
+        checkQuery(lat, longitude, radiusKm);
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double lonDelta = radiusKm / (KM_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+
+        // clamped to the globe, so the box never spans more cells than the world has
+        long minLatCell = cellIndex(Math.max(lat - latDelta, -90));
+        long maxLatCell = cellIndex(Math.min(lat + latDelta, 90));
+        long minLonCell = cellIndex(Math.max(longitude - lonDelta, -180));
+        long maxLonCell = cellIndex(Math.min(longitude + lonDelta, 180));
+
+        List<Neighbor<T>> result = new ArrayList<>();
+        long boxCells = (maxLatCell - minLatCell + 1) * (maxLonCell - minLonCell + 1);
+        if (boxCells > cells.size()) {
+            // a wide box is mostly empty cells; walk the occupied ones instead
+            for (Map.Entry<Long, Set<Long>> entry : cells.entrySet()) {
+                long cell = entry.getKey();
+                long latCell = cell >> 32;
+                long lonCell = (int) cell;
+                if (latCell >= minLatCell && latCell <= maxLatCell && lonCell >= minLonCell && lonCell <= maxLonCell) {
+                    collect(cell, entry.getValue(), lat, longitude, radiusKm, result);
+                }
+            }
+        } else {
+            for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                for (long lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                    long cell = pack(latCell, lonCell);
+                    Set<Long> ids = cells.get(cell);
+                    if (ids != null) {
+                        collect(cell, ids, lat, longitude, radiusKm, result);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(Neighbor::getDistanceKm));
+        return result;
+    }
+
+    /**
+     * Up to k nearest points within maxRadiusKm, nearest first.
+     * Widens the search radius until k points are found or maxRadiusKm is reached.
+     */
+    public List<Neighbor<T>> nearest(double lat, double longitude, int k, double maxRadiusKm) {
+        checkQuery(lat, longitude, maxRadiusKm);
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        double radius = Math.min(cellSizeDegrees * KM_PER_DEGREE_LAT, maxRadiusKm);
+        while (true) {
+            List<Neighbor<T>> found = withinRadius(lat, longitude, radius);
+            if (found.size() >= k || radius >= maxRadiusKm) {
+                return found.size() > k ? new ArrayList<>(found.subList(0, k)) : found;
+            }
+            radius = Math.min(radius * 2, maxRadiusKm);
+        }
+    }
+
+    /**
+     * Great-circle distance in kilometres
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void collect(long cell, Set<Long> ids, double lat, double longitude, double radiusKm,
+                         List<Neighbor<T>> result) {
+        for (Long id : ids) {
+            Point<T> point = points.get(id);
+            // Skip ids caught mid-move; they are reported from their current cell
+            if (point == null || point.cell != cell) {
+                continue;
+            }
+            double distance = distanceKm(lat, longitude, point.lat, point.longitude);
+            if (distance <= radiusKm) {
+                result.add(new Neighbor<>(id, point.value, point.lat, point.longitude, distance));
+            }
+        }
+    }
+
+    // NaN would never end the widening loop in nearest(), and infinite bounds have no cells
+    private static void checkQuery(double lat, double longitude, double radiusKm) {
+        if (!Double.isFinite(lat) || !Double.isFinite(longitude) || !Double.isFinite(radiusKm) || radiusKm < 0) {
+            throw new IllegalArgumentException("Query coordinates and radius must be finite, radius non-negative");
+        }
+    }
+
+    private void removeFromCell(long cell, Long id) {
+        cells.computeIfPresent(cell, (c, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private long cellKey(double lat, double longitude) {
+        return pack(cellIndex(lat), cellIndex(longitude));
+    }
+
+    private long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDegrees);
+    }
+
+    private static long pack(long latCell, long lonCell) {
+        return (latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+
+    private static final class Point<T> {
+        private final double lat;
+        private final double longitude;
+        private final long cell;
+        private final T value;
+
+        private Point(double lat, double longitude, long cell, T value) {
+            this.lat = lat;
+            this.longitude = longitude;
+            this.cell = cell;
+            this.value = value;
+        }
+    }
+
+    public static final class Neighbor<T> {
+        private final Long id;
+        private final T value;
+        private final double lat;
+        private final double longitude;
+        private final double distanceKm;
+
+        public Neighbor(Long id, T value, double lat, double longitude, double distanceKm) {
+            this.id = id;
+            this.value = value;
+            this.lat = lat;
+            this.longitude = longitude;
+            this.distanceKm = distanceKm;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public double getLat() {
+            return lat;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
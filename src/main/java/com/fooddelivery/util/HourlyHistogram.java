@@ -0,0 +1,112 @@
+package com.fooddelivery.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Event counts by hour of day over a sliding window of days: one 24-slot counter array per
+ * day in a ring, reused once its day leaves the window. Memory is fixed at windowDays * 24
+ * longs however many events arrive, and increments are lock-free.
+ */
+public class HourlyHistogram {
+
+    public static final int HOURS = 24;
+
+    private final AtomicReferenceArray<DayHours> days;
+
+    public HourlyHistogram(int windowDays) {
+        if (windowDays <= 0) {
+            throw new IllegalArgumentException("Window must be at least one day");
+        }
+        this.days = new AtomicReferenceArray<>(windowDays);
+    }
+
+    public int getWindowDays() {
+        return days.length();
+    }
+
+    /**
+     * Count an event at a point in time; days older than the window are ignored
+     */
+    public void add(LocalDateTime at, long count) {
+        add(at.toLocalDate(), at.getHour(), count);
+    }
+
+    public void add(LocalDate day, int hour, long count) {
+        DayHours bucket = bucket(day.toEpochDay());
+        if (bucket != null) {
+            bucket.counts.addAndGet(hour, count);
+        }
+    }
+
+    /**
+     * Counts per hour of day (index 0-23) summed over the window ending today
+     */
+    public long[] byHour(LocalDate today) {
+        long[] totals = new long[HOURS];
+        long newestDay = today.toEpochDay();
+        long oldestDay = newestDay - days.length() + 1;
+        for (int i = 0; i < days.length(); i++) {
+            DayHours bucket = days.get(i);
+            if (bucket == null || bucket.epochDay < oldestDay || bucket.epochDay > newestDay) {
+                continue;
+            }
+            for (int hour = 0; hour < HOURS; hour++) {
+                totals[hour] += bucket.counts.get(hour);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Counts per day of week (index 0 = Monday) and hour of day over the window ending today
+     */
+    public long[][] byDayOfWeekAndHour(LocalDate today) {
+        long[][] totals = new long[DayOfWeek.values().length][HOURS];
+        long newestDay = today.toEpochDay();
+        long oldestDay = newestDay - days.length() + 1;
+        for (int i = 0; i < days.length(); i++) {
+            DayHours bucket = days.get(i);
+            if (bucket == null || bucket.epochDay < oldestDay || bucket.epochDay > newestDay) {
+                continue;
+            }
+            long[] row = totals[LocalDate.ofEpochDay(bucket.epochDay).getDayOfWeek().ordinal()];
+            for (int hour = 0; hour < HOURS; hour++) {
+                row[hour] += bucket.counts.get(hour);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Counters for a day, or null if the day is older than the one its slot now holds
+     */
+    private DayHours bucket(long epochDay) {
+        int index = (int) Math.floorMod(epochDay, (long) days.length());
+        while (true) {
+            DayHours current = days.get(index);
+            if (current != null && current.epochDay == epochDay) {
+                return current;
+            }
+            if (current != null && current.epochDay > epochDay) {
+                return null;
+            }
+            DayHours fresh = new DayHours(epochDay);
+            if (days.compareAndSet(index, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class DayHours {
+        private final long epochDay;
+        private final AtomicLongArray counts = new AtomicLongArray(HOURS);
+
+        private DayHours(long epochDay) {
+            this.epochDay = epochDay;
+        }
+    }
+}
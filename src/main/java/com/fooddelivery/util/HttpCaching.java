@@ -0,0 +1,54 @@
+package com.fooddelivery.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conditional GET helpers for controllers that can tell a response's ETag before building it
+ */
+public final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    /**
+     * Whether an If-None-Match header lists the tag or is "*". Weak and strong forms of a tag
+     * both match, as If-None-Match uses weak comparison.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+
+        int length = ifNoneMatch.length();
+        int index = 0;
+        while (index < length) {
+            char c = ifNoneMatch.charAt(index);
+            if (c == ' ' || c == ',' || c == '\t') {
+                index++;
+            } else if (c == '*') {
+                return true;
+            } else {
+                if (ifNoneMatch.startsWith("W/", index)) {
+                    index += 2;
+                }
+                if (ifNoneMatch.startsWith(etag, index)) {
+                    return true;
+                }
+                // skip to the end of this tag, which may itself contain commas inside its quotes
+                int closingQuote = ifNoneMatch.indexOf('"', index + 1);
+                index = closingQuote < 0 ? length : closingQuote + 1;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    public static <T> ResponseEntity<T> ok(T body, String etag, CacheControl cacheControl) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body);
+    }
+}
@@ -0,0 +1,156 @@
+package com.fooddelivery.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named, bounded thread pool that records queue wait, run time and rejections per task.
+ */
+public class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+    public enum RejectionPolicy {
+        // Run the task on the submitting thread (back-pressure)
+        CALLER_RUNS,
+        // Silently discard the new task
+        DROP,
+        // Throw RejectedExecutionException to the submitter
+        ABORT
+    }
+
+    private final String name;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final boolean virtualThreads;
+
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder failedTasks = new LongAdder();
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+    // start time of the task running on each worker, set in beforeExecute
+    private final ThreadLocal<Long> runStartedAt = new ThreadLocal<>();
+
+    public InstrumentedThreadPoolExecutor(String name, int coreSize, int maxSize, int queueCapacity,
+                                          RejectionPolicy rejectionPolicy, ThreadFactory threadFactory,
+                                          boolean virtualThreads) {
+        super(coreSize, maxSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.virtualThreads = virtualThreads;
+        setRejectedExecutionHandler(new CountingRejectionHandler());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+        long now = System.nanoTime();
+        if (task instanceof TimedTask timed) {
+            totalQueueWaitNanos.add(now - timed.submittedAt);
+        }
+        runStartedAt.set(now);
+        super.beforeExecute(thread, task);
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable failure) {
+        super.afterExecute(task, failure);
+        Long started = runStartedAt.get();
+        runStartedAt.remove();
+        if (started != null) {
+            long elapsed = System.nanoTime() - started;
+            totalRunNanos.add(elapsed);
+            maxRunNanos.accumulate(elapsed);
+        }
+        completedTasks.increment();
+        if (failure != null) {
+            failedTasks.increment();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public long getCompletedTaskTotal() {
+        return completedTasks.sum();
+    }
+
+    public long getFailedTaskTotal() {
+        return failedTasks.sum();
+    }
+
+    public long getRejectedTaskTotal() {
+        return rejectedTasks.sum();
+    }
+
+    public double getAverageRunMillis() {
+        long completed = completedTasks.sum();
+        return completed > 0 ? totalRunNanos.sum() / 1_000_000.0 / completed : 0.0;
+    }
+
+    public double getMaxRunMillis() {
+        return maxRunNanos.get() / 1_000_000.0;
+    }
+
+    public double getAverageQueueWaitMillis() {
+        long completed = completedTasks.sum();
+        return completed > 0 ? totalQueueWaitNanos.sum() / 1_000_000.0 / completed : 0.0;
+    }
+
+    private static final class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long submittedAt = System.nanoTime();
+
+        private TimedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    private final class CountingRejectionHandler implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            rejectedTasks.increment();
+            switch (rejectionPolicy) {
+                case CALLER_RUNS -> {
+                    if (!executor.isShutdown()) {
+                        task.run();
+                    }
+                }
+                case DROP -> {
+                    // counted above; nothing else to do
+                }
+                case ABORT -> throw new RejectedExecutionException("Executor '" + name + "' is saturated");
+            }
+        }
+    }
+}
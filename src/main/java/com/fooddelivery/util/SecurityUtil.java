@@ -1,7 +1,7 @@
 package com.fooddelivery.util;
 
-import com.fooddelivery.model.User;
-import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.AuthenticatedUser;
+import com.fooddelivery.service.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,20 +11,26 @@ import org.springframework.stereotype.Component;
 public class SecurityUtil {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     public Long getUserIdFromAuthentication(Authentication authentication) {
         if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails)) {
             return null;
         }
-        
+
+        // JWT-authenticated requests carry the id in the principal
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.getId();
+        }
+
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String email = userDetails.getUsername();
-        
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return user.getId();
+
+        UserCache.CachedUser user = userCache.get(email);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+
+        return user.id();
     }
 }
-
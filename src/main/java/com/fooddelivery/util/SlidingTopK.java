@@ -0,0 +1,127 @@
+package com.fooddelivery.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Heavy hitters over a sliding window of days: one {@link SpaceSaving} summary per day in a
+ * ring, reused once its day leaves the window. Queries sum the summaries of the days in the
+ * window, so memory is bounded by windowDays * capacity keys however many events arrive.
+ *
+ * A key missing from a full day's summary may still have had up to that day's smallest
+ * monitored count, so the merged count and error both include that bound for each such day;
+ * the true count stays within [count - error, count] as for a single summary.
+ *
+ * @param <K> key type
+ */
+public class SlidingTopK<K> {
+
+    private final int capacity;
+
+    private final AtomicReferenceArray<DayBucket<K>> buckets;
+
+    public SlidingTopK(int windowDays, int capacity) {
+        if (windowDays <= 0) {
+            throw new IllegalArgumentException("Window must be at least one day");
+        }
+        this.capacity = capacity;
+        this.buckets = new AtomicReferenceArray<>(windowDays);
+    }
+
+    /**
+     * Count an event on a day; days older than the window are ignored
+     */
+    public void offer(LocalDate day, K key, long count, long weight) {
+        DayBucket<K> bucket = bucket(day.toEpochDay());
+        if (bucket != null) {
+            bucket.summary.offer(key, count, weight);
+        }
+    }
+
+    /**
+     * Top keys over the window ending today, highest count first (ties by weight)
+     */
+    public List<SpaceSaving.Estimate<K>> top(LocalDate today, int limit) {
+        long newestDay = today.toEpochDay();
+        long oldestDay = newestDay - buckets.length() + 1;
+        // count, error, weight, and the unmonitored bounds of the days the key was monitored on
+        Map<K, long[]> merged = new HashMap<>();
+        long boundTotal = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            DayBucket<K> bucket = buckets.get(i);
+            if (bucket == null || bucket.epochDay < oldestDay || bucket.epochDay > newestDay) {
+                continue;
+            }
+            // Read under one lock each so the bound matches the estimates
+            long bound;
+            List<SpaceSaving.Estimate<K>> dayEstimates;
+            synchronized (bucket.summary) {
+                bound = bucket.summary.unmonitoredBound();
+                dayEstimates = bucket.summary.estimates();
+            }
+            boundTotal += bound;
+            for (SpaceSaving.Estimate<K> estimate : dayEstimates) {
+                long[] sums = merged.computeIfAbsent(estimate.getKey(), key -> new long[4]);
+                sums[0] += estimate.getCount();
+                sums[1] += estimate.getError();
+                sums[2] += estimate.getWeight();
+                sums[3] += bound;
+            }
+        }
+
+        long unmonitoredTotal = boundTotal;
+        List<SpaceSaving.Estimate<K>> estimates = new ArrayList<>(merged.size());
+        merged.forEach((key, sums) -> {
+            long missedDays = unmonitoredTotal - sums[3];
+            long count = sums[0] + missedDays;
+            if (count > 0) {
+                estimates.add(new SpaceSaving.Estimate<>(key, count, sums[1] + missedDays, sums[2]));
+            }
+        });
+        estimates.sort(Comparator.<SpaceSaving.Estimate<K>>comparingLong(SpaceSaving.Estimate::getCount)
+                .thenComparingLong(SpaceSaving.Estimate::getWeight)
+                .reversed());
+        return estimates.size() > limit ? new ArrayList<>(estimates.subList(0, limit)) : estimates;
+    }
+
+    public void clear() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, null);
+        }
+    }
+
+    /**
+     * Bucket for a day, or null if the day is older than the one its slot now holds
+     */
+    private DayBucket<K> bucket(long epochDay) {
+        int index = (int) Math.floorMod(epochDay, (long) buckets.length());
+        while (true) {
+            DayBucket<K> current = buckets.get(index);
+            if (current != null && current.epochDay == epochDay) {
+                return current;
+            }
+            if (current != null && current.epochDay > epochDay) {
+                return null;
+            }
+            DayBucket<K> fresh = new DayBucket<>(epochDay, new SpaceSaving<>(capacity));
+            if (buckets.compareAndSet(index, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class DayBucket<K> {
+        private final long epochDay;
+        private final SpaceSaving<K> summary;
+
+        private DayBucket(long epochDay, SpaceSaving<K> summary) {
+            this.epochDay = epochDay;
+            this.summary = summary;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.fooddelivery.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters summary (Metwally et al.) over at most {@code capacity} keys.
+ *
+ * When a new key arrives and the summary is full, the key with the smallest count is
+ * evicted and the newcomer inherits that count as its error, so every reported count is an
+ * overestimate by at most {@link Estimate#getError()}. Any key seen more often than
+ * total / capacity is guaranteed to be monitored. Each key also carries a secondary weight
+ * (revenue, quantity) summed while it is monitored. Capacity of 0 keeps every key (exact mode).
+ *
+ * @param <K> key type
+ */
+public class SpaceSaving<K> {
+
+    private final int capacity;
+
+    private final Map<K, Counter<K>> counters = new HashMap<>();
+
+    // ascending by count; the first entry is the eviction candidate
+    private final TreeSet<Counter<K>> byCount = new TreeSet<>(
+            Comparator.<Counter<K>>comparingLong(counter -> counter.count).thenComparingLong(counter -> counter.sequence));
+
+    private long nextSequence = 0;
+
+    private long total = 0;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Add to a key's count and weight. Negative counts (corrections such as refunds) only
+     * apply to keys still monitored.
+     */
+    public synchronized void offer(K key, long count, long weight) {
+        Counter<K> counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += count;
+            counter.weight += weight;
+            byCount.add(counter);
+            total += count;
+            return;
+        }
+        if (count <= 0) {
+            return;
+        }
+        total += count;
+
+        long error = 0;
+        if (capacity > 0 && counters.size() >= capacity) {
+            Counter<K> evicted = byCount.pollFirst();
+            counters.remove(evicted.key);
+            error = Math.max(evicted.count, 0);
+        }
+        counter = new Counter<>(key, nextSequence++);
+        counter.count = error + count;
+        counter.error = error;
+        counter.weight = weight;
+        counters.put(key, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * Every monitored key, highest count first
+     */
+    public synchronized List<Estimate<K>> estimates() {
+        List<Estimate<K>> estimates = new ArrayList<>(counters.size());
+        for (Counter<K> counter : byCount.descendingSet()) {
+            estimates.add(new Estimate<>(counter.key, counter.count, counter.error, counter.weight));
+        }
+        return estimates;
+    }
+
+    /**
+     * Total count offered, including keys no longer monitored
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * Upper bound on the count of any key not monitored: the smallest monitored count once
+     * the summary is full, 0 while every key seen is still monitored
+     */
+    public synchronized long unmonitoredBound() {
+        if (capacity == 0 || counters.size() < capacity || byCount.isEmpty()) {
+            return 0;
+        }
+        return Math.max(byCount.first().count, 0);
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static final class Counter<K> {
+        private final K key;
+        private final long sequence;
+        private long count;
+        private long error;
+        private long weight;
+
+        private Counter(K key, long sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Estimated count of a key; the true count lies in [count - error, count]
+     */
+    public static final class Estimate<K> {
+        private final K key;
+        private final long count;
+        private final long error;
+        private final long weight;
+
+        public Estimate(K key, long count, long error, long weight) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+            this.weight = weight;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.fooddelivery;
 
+import com.fooddelivery.model.Category;
+import com.fooddelivery.model.Customer;
+import com.fooddelivery.model.CustomerAddress;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -10,6 +16,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
 
 /**
  * Base class for integration tests
@@ -41,5 +48,73 @@ public abstract class BaseIntegrationTest {
         entityManager.flush();
         entityManager.clear();
     }
-}
 
+    protected User createUser(String email, User.Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setPhone("9999999999");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    protected Customer createCustomer(String email) {
+        Customer customer = new Customer();
+        customer.setUser(createUser(email, User.Role.CUSTOMER));
+        customer.setName("Test Customer");
+        entityManager.persist(customer);
+        return customer;
+    }
+
+    protected CustomerAddress createAddress(Customer customer) {
+        CustomerAddress address = new CustomerAddress();
+        address.setCustomer(customer);
+        address.setAddressType(CustomerAddress.AddressType.HOME);
+        address.setStreet("1 Test Street");
+        address.setCity("Testville");
+        address.setPincode("560001");
+        address.setLat(12.97);
+        address.setLongitude(77.59);
+        entityManager.persist(address);
+        return address;
+    }
+
+    /**
+     * Open, approved restaurant owned by a new RESTAURANT user
+     */
+    protected Restaurant createRestaurant(String email, String name) {
+        return createRestaurant(email, name, 12.9, 77.5);
+    }
+
+    protected Restaurant createRestaurant(String email, String name, double lat, double longitude) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setUser(createUser(email, User.Role.RESTAURANT));
+        restaurant.setName(name);
+        restaurant.setCuisine("Indian");
+        restaurant.setAddress("1 Food Street");
+        restaurant.setLat(lat);
+        restaurant.setLongitude(longitude);
+        restaurant.setIsOpen(true);
+        restaurant.setIsApproved(true);
+        entityManager.persist(restaurant);
+        return restaurant;
+    }
+
+    protected Category createCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        entityManager.persist(category);
+        return category;
+    }
+
+    protected MenuItem createMenuItem(Restaurant restaurant, Category category, String name, String price) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setRestaurant(restaurant);
+        menuItem.setCategory(category);
+        menuItem.setName(name);
+        menuItem.setPrice(new BigDecimal(price));
+        entityManager.persist(menuItem);
+        return menuItem;
+    }
+}
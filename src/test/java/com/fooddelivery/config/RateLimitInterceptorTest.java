@@ -0,0 +1,47 @@
+package com.fooddelivery.config;
+
+import com.fooddelivery.service.LocalRateLimitBackend;
+import com.fooddelivery.service.RateLimitService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies anonymous callers are keyed by address and cannot name another caller's bucket
+ */
+class RateLimitInterceptorTest {
+
+    private final RateLimitService rateLimitService = new RateLimitService(new LocalRateLimitBackend(), 20, 100, 10, 60);
+
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor();
+
+    @Test
+    void forwardedUsernameFallsBackToTheSocketAddress() throws Exception {
+        ReflectionTestUtils.setField(interceptor, "rateLimitService", rateLimitService);
+        RateLimitService.Policy policy = rateLimitService.resolvePolicy("GET", "/api/restaurants/1", null);
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurants/1");
+            request.addHeader("X-Forwarded-For", "victim@test.com");
+            request.setRemoteAddr("10.0.0.9");
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        }
+
+        assertEquals(19, rateLimitService.tryConsume("victim@test.com", policy).getRemainingTokens());
+        assertEquals(14, rateLimitService.tryConsume("10.0.0.9", policy).getRemainingTokens());
+    }
+
+    @Test
+    void recognisesAddressLiterals() {
+        assertTrue(RateLimitInterceptor.isAddressLiteral("203.0.113.7"));
+        assertTrue(RateLimitInterceptor.isAddressLiteral("2001:db8::1"));
+        assertFalse(RateLimitInterceptor.isAddressLiteral("victim@test.com"));
+        assertFalse(RateLimitInterceptor.isAddressLiteral("unknown"));
+        assertFalse(RateLimitInterceptor.isAddressLiteral(""));
+    }
+}
@@ -0,0 +1,185 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.MenuItemRequest;
+import com.fooddelivery.model.Category;
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.service.MenuService;
+import com.fooddelivery.service.MenuSnapshotCache;
+import com.fooddelivery.service.ResponseBytesCache;
+import com.fooddelivery.service.RestaurantService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies public catalog GETs carry ETags and Cache-Control, answer a matching If-None-Match
+ * with 304 without touching the database, and change their tag when the data changes
+ */
+class CatalogConditionalGetTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Restaurant restaurant;
+
+    private Category category;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        restaurant = createRestaurant("etag@test.com", "ETag Kitchen");
+        category = createCategory("Mains");
+        flushAndClear();
+        menuSnapshotCache.invalidateAll();
+        // ids restart after each test's cleanup, so tags from an earlier test could come back
+        responseBytesCache.invalidateAll();
+    }
+
+    @Test
+    void restaurantRevalidatesWithoutQueryingUntilItChanges() throws Exception {
+        String url = "/api/restaurants/" + restaurant.getId();
+        MvcResult first = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        statistics.clear();
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        restaurantService.toggleRestaurantStatus(restaurant.getUser().getId());
+
+        MvcResult changed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void menuIsTaggedWithItsSnapshotVersion() throws Exception {
+        String url = "/api/restaurant/" + restaurant.getId() + "/menu";
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"m-" + restaurant.getId() + "-0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // any filter or page of the same menu revalidates against the same version
+        mockMvc.perform(get(url).param("isVeg", "true").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+
+        MenuItemRequest request = new MenuItemRequest();
+        request.setCategoryId(category.getId());
+        request.setName("Paneer Tikka");
+        request.setPrice(new BigDecimal("180.00"));
+        request.setIsVeg(true);
+        menuService.addMenuItem(restaurant.getUser().getId(), request);
+        // the snapshot is evicted after commit, which never comes in a rolled-back test
+        menuSnapshotCache.invalidateAll();
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"m-" + restaurant.getId() + "-1\""));
+    }
+
+    @Test
+    void categoriesAnswerMatchingTagsWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void menuBytesAreEncodedOnceAndGzippedForClientsThatAcceptIt() throws Exception {
+        Restaurant managed = entityManager.find(Restaurant.class, restaurant.getId());
+        Category mains = entityManager.find(Category.class, category.getId());
+        for (int i = 0; i < 20; i++) {
+            createMenuItem(managed, mains, "Thali " + i, "150.00")
+                    .setDescription("Rice, two curries, dal, roti and a sweet");
+        }
+        flushAndClear();
+
+        String url = "/api/restaurant/" + restaurant.getId() + "/menu";
+        MvcResult plain = mockMvc.perform(get(url).param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        long hits = responseBytesCache.stats().hitCount();
+
+        // same normalized parameters, so the entry encoded above answers this one
+        MvcResult gzipped = mockMvc.perform(get(url).param("size", "20").param("page", "0")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, plain.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andReturn();
+        assertEquals(hits + 1, responseBytesCache.stats().hitCount());
+
+        byte[] body = gzipped.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(plain.getResponse().getContentAsString(),
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void unparsableQualityIsNotAcceptable() throws Exception {
+        Restaurant managed = entityManager.find(Restaurant.class, restaurant.getId());
+        Category mains = entityManager.find(Category.class, category.getId());
+        for (int i = 0; i < 20; i++) {
+            createMenuItem(managed, mains, "Thali " + i, "150.00")
+                    .setDescription("Rice, two curries, dal, roti and a sweet");
+        }
+        flushAndClear();
+
+        mockMvc.perform(get("/api/restaurant/" + restaurant.getId() + "/menu").param("size", "20")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=x"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+}
@@ -0,0 +1,53 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the public nearby search rejects radii, limits and coordinates that would make the
+ * geo lookup unbounded
+ */
+class NearbyRestaurantValidationTest extends BaseIntegrationTest {
+
+    @Test
+    void outOfRangeAndNonFiniteParametersAreRejected() throws Exception {
+        String[][] invalid = {
+                {"radius", "1e6"},
+                {"radius", "NaN"},
+                {"radius", "Infinity"},
+                {"radius", "-1"},
+                {"limit", "0"},
+                {"limit", "100000"},
+                {"lat", "NaN"},
+                {"longitude", "-Infinity"},
+        };
+        for (String[] parameter : invalid) {
+            Map<String, String> parameters = new HashMap<>(Map.of("lat", "12.97", "longitude", "77.59"));
+            parameters.put(parameter[0], parameter[1]);
+
+            MockHttpServletRequestBuilder request = get("/api/restaurants/nearby");
+            parameters.forEach(request::param);
+            mockMvc.perform(request)
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors." + parameter[0]).exists());
+        }
+    }
+
+    @Test
+    void boundedSearchIsServed() throws Exception {
+        mockMvc.perform(get("/api/restaurants/nearby")
+                        .param("lat", "12.97")
+                        .param("longitude", "77.59")
+                        .param("radius", "50")
+                        .param("limit", "10"))
+                .andExpect(status().isOk());
+    }
+}
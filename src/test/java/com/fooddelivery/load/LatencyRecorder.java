@@ -0,0 +1,51 @@
+package com.fooddelivery.load;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and failures of one endpoint during a load run
+ */
+class LatencyRecorder {
+
+    private final String endpoint;
+
+    private long[] latencies = new long[1024];
+
+    private int count;
+
+    private long errors;
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(endpoint, count, errors, count / elapsedSeconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1_000_000.0 : 0.0);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    record Summary(String endpoint, long requests, long errors, double throughput,
+                   double p50Millis, double p99Millis, double maxMillis) {
+    }
+}
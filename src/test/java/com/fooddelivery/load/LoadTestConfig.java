@@ -0,0 +1,43 @@
+package com.fooddelivery.load;
+
+import com.razorpay.Order;
+import com.razorpay.OrderClient;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replaces the Razorpay client with one that creates gateway orders in memory, so checkout
+ * can run under load without network calls. Signatures are still verified with the
+ * configured key secret.
+ */
+@TestConfiguration
+public class LoadTestConfig {
+
+    @Bean
+    @Primary
+    public RazorpayClient fakeRazorpayClient(@Value("${razorpay.key.id}") String keyId,
+                                             @Value("${razorpay.key.secret}") String keySecret) throws RazorpayException {
+        RazorpayClient client = new RazorpayClient(keyId, keySecret);
+        AtomicLong sequence = new AtomicLong();
+        OrderClient orders = Mockito.mock(OrderClient.class);
+        Mockito.when(orders.create(Mockito.any(JSONObject.class))).thenAnswer(invocation -> {
+            JSONObject request = invocation.getArgument(0);
+            return new Order(new JSONObject()
+                    .put("id", "order_load_" + sequence.incrementAndGet())
+                    .put("amount", request.get("amount"))
+                    .put("currency", request.get("currency"))
+                    .put("receipt", request.get("receipt"))
+                    .put("status", "created"));
+        });
+        client.orders = orders;
+        return client;
+    }
+}
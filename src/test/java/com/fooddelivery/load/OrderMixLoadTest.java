@@ -0,0 +1,445 @@
+package com.fooddelivery.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.model.*;
+import com.fooddelivery.repository.*;
+import com.fooddelivery.util.JwtUtil;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.razorpay.Utils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load run through the real controllers over HTTP.
+ *
+ * Seeds restaurants with menus, customers with addresses and delivery partners, then drives a
+ * weighted mix of browse traffic and full order lifecycles (cart, checkout, payment, restaurant
+ * status changes, pickup and delivery) from concurrent workers. Each worker owns its customers
+ * so carts never collide. Razorpay is faked in memory (LoadTestConfig) and mail goes to a
+ * GreenMail server. Reports p50/p99 latency and throughput per endpoint to the log and to
+ * load.report-file.
+ *
+ * Not part of the regular build; run with: mvn -P load-test test [-Dload.customers=500 ...]
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "load"})
+@Import(LoadTestConfig.class)
+class OrderMixLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderMixLoadTest.class);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerAddressRepository customerAddressRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private DeliveryPartnerRepository deliveryPartnerRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${razorpay.key.secret}")
+    private String razorpayKeySecret;
+
+    @Value("${load.restaurants:20}")
+    private int restaurantCount;
+
+    @Value("${load.items-per-restaurant:15}")
+    private int itemsPerRestaurant;
+
+    @Value("${load.customers:200}")
+    private int customerCount;
+
+    @Value("${load.riders:40}")
+    private int riderCount;
+
+    @Value("${load.threads:16}")
+    private int threads;
+
+    @Value("${load.warmup-seconds:10}")
+    private int warmupSeconds;
+
+    @Value("${load.duration-seconds:60}")
+    private int durationSeconds;
+
+    // percentage of iterations that only browse; the rest run a full order lifecycle
+    @Value("${load.browse-weight:70}")
+    private int browseWeight;
+
+    @Value("${load.report-file:target/load-test-report.csv}")
+    private String reportFile;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ConcurrentHashMap<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    private final LongAdder completedOrders = new LongAdder();
+
+    private final LongAdder serverErrors = new LongAdder();
+
+    private volatile boolean recording;
+
+    private List<SeededRestaurant> restaurants;
+
+    private List<SeededCustomer> customers;
+
+    private List<String> riderTokens;
+
+    @Test
+    void orderMixUnderLoad() throws Exception {
+        seed();
+
+        runFor(warmupSeconds);
+        recorders.clear();
+        completedOrders.reset();
+        serverErrors.reset();
+
+        recording = true;
+        long started = System.nanoTime();
+        runFor(durationSeconds);
+        double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        recording = false;
+
+        report(elapsedSeconds);
+        assertTrue(completedOrders.sum() > 0, "No order completed its lifecycle");
+        assertEquals(0L, serverErrors.sum(), "Server errors during the run");
+    }
+
+    private void seed() {
+        assertTrue(customerCount >= threads, "Need at least one customer per worker");
+        long started = System.nanoTime();
+        String password = passwordEncoder.encode("password123");
+
+        Category category = new Category();
+        category.setName("Load Test Mains");
+        category = categoryRepository.save(category);
+
+        restaurants = new ArrayList<>(restaurantCount);
+        for (int r = 0; r < restaurantCount; r++) {
+            User owner = createUser("owner" + r + "@load.test", password, User.Role.RESTAURANT);
+            Restaurant restaurant = new Restaurant();
+            restaurant.setUser(owner);
+            restaurant.setName("Load Restaurant " + r);
+            restaurant.setCuisine(r % 2 == 0 ? "Indian" : "Chinese");
+            restaurant.setAddress(r + " Load Street, Bengaluru");
+            restaurant.setLat(12.90 + (r % 10) * 0.01);
+            restaurant.setLongitude(77.55 + (r / 10) * 0.01);
+            restaurant.setIsOpen(true);
+            restaurant.setIsApproved(true);
+            restaurant = restaurantRepository.save(restaurant);
+
+            List<MenuItem> items = new ArrayList<>(itemsPerRestaurant);
+            for (int i = 0; i < itemsPerRestaurant; i++) {
+                MenuItem item = new MenuItem();
+                item.setRestaurant(restaurant);
+                item.setCategory(category);
+                item.setName("Dish " + r + "-" + i);
+                item.setDescription("Load test dish");
+                item.setPrice(new BigDecimal("99.00").add(BigDecimal.valueOf(i * 10L)));
+                items.add(item);
+            }
+            List<Long> itemIds = menuItemRepository.saveAll(items).stream().map(MenuItem::getId).toList();
+            restaurants.add(new SeededRestaurant(restaurant.getId(), itemIds, token(owner)));
+        }
+
+        customers = new ArrayList<>(customerCount);
+        for (int c = 0; c < customerCount; c++) {
+            User user = createUser("customer" + c + "@load.test", password, User.Role.CUSTOMER);
+            Customer customer = new Customer();
+            customer.setUser(user);
+            customer.setName("Load Customer " + c);
+            customer = customerRepository.save(customer);
+
+            CustomerAddress address = new CustomerAddress();
+            address.setCustomer(customer);
+            address.setAddressType(CustomerAddress.AddressType.HOME);
+            address.setStreet(c + " Customer Road");
+            address.setCity("Bengaluru");
+            address.setPincode("560001");
+            address.setLat(12.92 + (c % 20) * 0.005);
+            address.setLongitude(77.57 + (c % 7) * 0.005);
+            address.setIsDefault(true);
+            address = customerAddressRepository.save(address);
+            customers.add(new SeededCustomer(address.getId(), token(user)));
+        }
+
+        riderTokens = new ArrayList<>(riderCount);
+        for (int d = 0; d < riderCount; d++) {
+            User user = createUser("rider" + d + "@load.test", password, User.Role.DELIVERY);
+            DeliveryPartner partner = new DeliveryPartner();
+            partner.setUser(user);
+            partner.setName("Load Rider " + d);
+            partner.setVehicleType(DeliveryPartner.VehicleType.BIKE);
+            partner.setIsAvailable(true);
+            partner.setCurrentLat(12.93);
+            partner.setCurrentLong(77.58);
+            deliveryPartnerRepository.save(partner);
+            riderTokens.add(token(user));
+        }
+
+        log.warn("Seeded {} restaurants x {} items, {} customers, {} riders in {} ms",
+                restaurantCount, itemsPerRestaurant, customerCount, riderCount,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private User createUser(String email, String password, User.Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setPhone("9000000000");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private String token(User user) {
+        return jwtUtil.generateToken(user);
+    }
+
+    /**
+     * Run the mix on every worker until the deadline; worker w owns customers w, w + threads, ...
+     */
+    private void runFor(int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int w = 0; w < threads; w++) {
+                List<SeededCustomer> owned = new ArrayList<>();
+                for (int c = w; c < customers.size(); c += threads) {
+                    owned.add(customers.get(c));
+                }
+                futures.add(workers.submit(() -> {
+                    int next = 0;
+                    while (System.nanoTime() < deadline) {
+                        SeededCustomer customer = owned.get(next++ % owned.size());
+                        if (ThreadLocalRandom.current().nextInt(100) < browseWeight) {
+                            browse();
+                        } else {
+                            orderLifecycle(customer);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void browse() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededRestaurant restaurant = restaurants.get(random.nextInt(restaurants.size()));
+        call("GET /api/restaurants", "GET", "/api/restaurants?page=" + random.nextInt(3) + "&size=10", null, null);
+        call("GET /api/restaurants/nearby", "GET",
+                "/api/restaurants/nearby?lat=12.93&longitude=77.58&radius=5&limit=10", null, null);
+        call("GET /api/restaurants/{id}", "GET", "/api/restaurants/" + restaurant.id(), null, null);
+        call("GET /api/restaurant/{id}/menu", "GET", "/api/restaurant/" + restaurant.id() + "/menu", null, null);
+    }
+
+    private void orderLifecycle(SeededCustomer customer) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededRestaurant restaurant = restaurants.get(random.nextInt(restaurants.size()));
+        String rider = riderTokens.get(random.nextInt(riderTokens.size()));
+
+        // Cart and checkout; a cart left behind by an earlier failed checkout is cleared first
+        if (customer.cartDirty) {
+            call("DELETE /api/cart/clear", "DELETE", "/api/cart/clear", customer.token, null);
+        }
+        customer.cartDirty = true;
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            Long menuItemId = restaurant.menuItemIds().get(random.nextInt(restaurant.menuItemIds().size()));
+            call("POST /api/cart/add", "POST", "/api/cart/add", customer.token,
+                    "{\"menuItemId\":" + menuItemId + ",\"quantity\":" + (1 + random.nextInt(2)) + "}");
+        }
+        call("GET /api/cart", "GET", "/api/cart", customer.token, null);
+        JsonNode order = call("POST /api/orders/place", "POST", "/api/orders/place", customer.token,
+                "{\"addressId\":" + customer.addressId + "}");
+        if (order == null) {
+            return;
+        }
+        customer.cartDirty = false;
+        long orderId = order.get("id").asLong();
+
+        // Payment through the faked gateway, with a correctly signed verification
+        JsonNode payment = call("POST /api/payments/create-order", "POST", "/api/payments/create-order", customer.token,
+                "{\"orderId\":" + orderId + ",\"paymentMethod\":\"UPI\"}");
+        if (payment == null) {
+            return;
+        }
+        String razorpayOrderId = payment.get("razorpayOrderId").asText();
+        String razorpayPaymentId = "pay_load_" + orderId;
+        String signature = Utils.getHash(razorpayOrderId + "|" + razorpayPaymentId, razorpayKeySecret);
+        call("POST /api/payments/verify", "POST", "/api/payments/verify", customer.token,
+                "{\"orderId\":" + orderId + ",\"razorpayOrderId\":\"" + razorpayOrderId
+                        + "\",\"razorpayPaymentId\":\"" + razorpayPaymentId
+                        + "\",\"razorpaySignature\":\"" + signature + "\"}");
+
+        // Restaurant and delivery status transitions
+        if (call("PUT /api/restaurant/orders/{id}/confirm", "PUT",
+                "/api/restaurant/orders/" + orderId + "/confirm", restaurant.ownerToken(), null) == null
+                || call("PUT /api/restaurant/orders/{id}/ready", "PUT",
+                "/api/restaurant/orders/" + orderId + "/ready", restaurant.ownerToken(), null) == null
+                || call("POST /api/delivery/orders/{id}/accept", "POST",
+                "/api/delivery/orders/" + orderId + "/accept", rider, null) == null
+                || call("PUT /api/delivery/orders/{id}/deliver", "PUT",
+                "/api/delivery/orders/" + orderId + "/deliver", rider, null) == null) {
+            return;
+        }
+        completedOrders.increment();
+
+        call("GET /api/orders/{id}", "GET", "/api/orders/" + orderId, customer.token, null);
+        call("GET /api/delivery/earnings", "GET", "/api/delivery/earnings", rider, null);
+    }
+
+    /**
+     * Send one request and record its latency under the endpoint name; returns the parsed body on 2xx
+     */
+    private JsonNode call(String endpoint, String method, String path, String token, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, json != null
+                        ? HttpRequest.BodyPublishers.ofString(json)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        long started = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        long elapsed = System.nanoTime() - started;
+
+        boolean success = response.statusCode() / 100 == 2;
+        if (recording) {
+            recorders.computeIfAbsent(endpoint, LatencyRecorder::new).record(elapsed, success);
+            if (response.statusCode() >= 500) {
+                serverErrors.increment();
+            }
+        }
+        if (!success) {
+            log.debug("{} {} -> {} {}", method, path, response.statusCode(), response.body());
+            return null;
+        }
+        return response.body().isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(response.body());
+    }
+
+    private void report(double elapsedSeconds) throws IOException {
+        List<LatencyRecorder.Summary> summaries = recorders.values().stream()
+                .map(recorder -> recorder.summarize(elapsedSeconds))
+                .sorted(Comparator.comparing(LatencyRecorder.Summary::endpoint))
+                .toList();
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%n%-42s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        long totalRequests = 0;
+        for (LatencyRecorder.Summary summary : summaries) {
+            table.append(String.format(Locale.ROOT, "%-42s %9d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                    summary.endpoint(), summary.requests(), summary.errors(), summary.throughput(),
+                    summary.p50Millis(), summary.p99Millis(), summary.maxMillis()));
+            totalRequests += summary.requests();
+        }
+        table.append(String.format(Locale.ROOT, "%d requests (%.1f req/s), %d orders delivered in %.1f s with %d workers",
+                totalRequests, totalRequests / elapsedSeconds, completedOrders.sum(), elapsedSeconds, threads));
+        log.warn("Load test results:{}", table);
+
+        Path path = Path.of(reportFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("endpoint,requests,errors,throughput_per_s,p50_ms,p99_ms,max_ms");
+            for (LatencyRecorder.Summary summary : summaries) {
+                writer.printf(Locale.ROOT, "\"%s\",%d,%d,%.2f,%.3f,%.3f,%.3f%n",
+                        summary.endpoint(), summary.requests(), summary.errors(), summary.throughput(),
+                        summary.p50Millis(), summary.p99Millis(), summary.maxMillis());
+            }
+        }
+    }
+
+    private record SeededRestaurant(Long id, List<Long> menuItemIds, String ownerToken) {
+    }
+
+    // used by a single worker only
+    private static final class SeededCustomer {
+        private final Long addressId;
+        private final String token;
+        private boolean cartDirty;
+
+        private SeededCustomer(Long addressId, String token) {
+            this.addressId = addressId;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.fooddelivery.security;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.model.User;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.service.AdminService;
+import com.fooddelivery.util.JwtUtil;
+import com.fooddelivery.util.SecurityUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifies authentication from token claims alone and revocation of tokens on deactivation
+ */
+class JwtAuthenticationFilterTest extends BaseIntegrationTest {
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SecurityUtil securityUtil;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+        // never persisted: the filter must not need the users table
+        User user = new User();
+        user.setId(4242L);
+        user.setEmail("claims@test.com");
+        user.setRole(User.Role.CUSTOMER);
+
+        Authentication authentication = authenticate(jwtUtil.generateToken(user));
+
+        assertNotNull(authentication);
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+        assertEquals("claims@test.com", principal.getUsername());
+        assertEquals("ROLE_CUSTOMER", authentication.getAuthorities().iterator().next().getAuthority());
+        assertEquals(4242L, securityUtil.getUserIdFromAuthentication(authentication));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deactivationRevokesTokensIssuedBeforeIt() throws Exception {
+        User user = transactionTemplate.execute(status -> createUser("revoked@test.com", User.Role.DELIVERY));
+
+        String issuedBefore = jwtUtil.generateToken(user);
+        String legacy = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        assertNotNull(authenticate(issuedBefore));
+
+        adminService.activateUser(user.getId(), false);
+
+        assertNull(authenticate(issuedBefore));
+        assertNull(authenticate(legacy));
+
+        adminService.activateUser(user.getId(), true);
+        String issuedAfter = jwtUtil.generateToken(userRepository.findById(user.getId()).orElseThrow());
+
+        assertNull(authenticate(issuedBefore));
+        assertNotNull(authenticate(issuedAfter));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customer/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
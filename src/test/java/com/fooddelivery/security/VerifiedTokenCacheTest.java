@@ -0,0 +1,38 @@
+package com.fooddelivery.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Cached tokens must never outlive their exp claim and must drop out when their user is evicted
+ */
+class VerifiedTokenCacheTest {
+
+    @Test
+    void servesTokenUntilItsExpiryAndEvictsByUser() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 300);
+        AuthenticatedUser alice = new AuthenticatedUser(1L, "alice@test.com", "CUSTOMER", 0);
+        AuthenticatedUser bob = new AuthenticatedUser(2L, "bob@test.com", "DELIVERY", 0);
+        Date inAnHour = new Date(System.currentTimeMillis() + 3_600_000);
+
+        cache.put("token-a1", alice, inAnHour);
+        cache.put("token-a2", alice, inAnHour);
+        cache.put("token-b", bob, inAnHour);
+        cache.put("token-expired", bob, new Date(System.currentTimeMillis() - 1_000));
+
+        assertSame(alice, cache.get("token-a1"));
+        assertSame(bob, cache.get("token-b"));
+        assertNull(cache.get("token-expired"));
+        assertNull(cache.get("token-unknown"));
+
+        cache.evictUser("alice@test.com");
+
+        assertNull(cache.get("token-a1"));
+        assertNull(cache.get("token-a2"));
+        assertSame(bob, cache.get("token-b"));
+    }
+}
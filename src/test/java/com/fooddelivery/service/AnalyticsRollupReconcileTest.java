@@ -0,0 +1,112 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.model.Customer;
+import com.fooddelivery.model.CustomerAddress;
+import com.fooddelivery.model.Order;
+import com.fooddelivery.model.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies an order committing while a reconcile recounts its day is counted exactly once
+ */
+class AnalyticsRollupReconcileTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void commitInFlightDuringReconcileIsCountedOnce() throws Exception {
+        LocalDate today = LocalDate.now();
+        Order[] first = new Order[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = createCustomer("customer@test.com");
+            CustomerAddress address = createAddress(customer);
+            Restaurant restaurant = createRestaurant("restaurant@test.com", "Test Restaurant");
+            first[0] = createPaidOrder(customer, restaurant, address, "100.00");
+        });
+        analyticsRollupService.reconcile(today, today);
+
+        CountDownLatch fenced = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread payer = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            Order order = createPaidOrder(first[0].getCustomer(), first[0].getRestaurant(), first[0].getAddress(), "250.00");
+            analyticsRollupService.recordPaid(order);
+            // Registered after the rollup's own synchronization, so it holds the commit inside the fence
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    fenced.countDown();
+                    await(release);
+                }
+            });
+        }));
+        payer.start();
+        assertTrue(fenced.await(10, TimeUnit.SECONDS));
+
+        CountDownLatch reconciled = new CountDownLatch(1);
+        Thread reconciler = new Thread(() -> {
+            analyticsRollupService.reconcile(today, today);
+            reconciled.countDown();
+        });
+        reconciler.start();
+        assertFalse(reconciled.await(200, TimeUnit.MILLISECONDS), "reconcile must wait for the commit in flight");
+
+        release.countDown();
+        payer.join(10_000);
+        reconciler.join(10_000);
+        assertEquals(0, reconciled.getCount());
+
+        // The recount includes the 250.00 order, so its buffered delta must not be added again
+        analyticsRollupService.flush();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT paid_orders, revenue FROM daily_order_rollup WHERE rollup_date = ?", today);
+        assertEquals(2L, ((Number) row.get("paid_orders")).longValue());
+        assertEquals(0, new BigDecimal("350.00").compareTo((BigDecimal) row.get("revenue")));
+    }
+
+    private Order createPaidOrder(Customer customer, Restaurant restaurant, CustomerAddress address, String amount) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setAddress(address);
+        order.setTotalAmount(new BigDecimal(amount));
+        order.setPaymentStatus(Order.PaymentStatus.PAID);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        entityManager.persist(order);
+        return order;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.AdminAnalyticsOverviewResponse;
+import com.fooddelivery.dto.OrderTrendResponse;
+import com.fooddelivery.dto.TopCustomerResponse;
+import com.fooddelivery.dto.TopRestaurantResponse;
+import com.fooddelivery.model.*;
+import com.fooddelivery.repository.DailyCustomerRollupRepository;
+import com.fooddelivery.repository.DailyRestaurantRollupRepository;
+import com.fooddelivery.repository.projection.CustomerRollupTotal;
+import com.fooddelivery.repository.projection.RestaurantRollupTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies the daily rollups and top-K sketch behind admin analytics
+ */
+class AnalyticsRollupServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private AdminAnalyticsService adminAnalyticsService;
+
+    @Autowired
+    private HeavyHitterStore heavyHitterStore;
+
+    @Autowired
+    private DailyRestaurantRollupRepository dailyRestaurantRollupRepository;
+
+    @Autowired
+    private DailyCustomerRollupRepository dailyCustomerRollupRepository;
+
+    private Customer customer;
+
+    private Restaurant restaurant;
+
+    @BeforeEach
+    public void setUp() {
+        customer = createCustomer("customer@test.com");
+        CustomerAddress address = createAddress(customer);
+        restaurant = createRestaurant("restaurant@test.com", "Test Restaurant");
+
+        createOrder(address, "100.00", Order.PaymentStatus.PAID, Order.OrderStatus.DELIVERED);
+        createOrder(address, "250.00", Order.PaymentStatus.PAID, Order.OrderStatus.CONFIRMED);
+        createOrder(address, "40.00", Order.PaymentStatus.PENDING, Order.OrderStatus.PENDING);
+
+        flushAndClear();
+    }
+
+    @Test
+    void reconcileRebuildsRollupsFromOrders() {
+        analyticsRollupService.reconcile(LocalDate.now(), LocalDate.now());
+        flushAndClear();
+
+        AdminAnalyticsOverviewResponse overview = adminAnalyticsService.getOverview();
+        assertEquals(3L, overview.getTotalOrders());
+        assertEquals(0, new BigDecimal("350.00").compareTo(overview.getTotalRevenue()));
+        assertEquals(1L, overview.getCompletedOrders());
+        assertEquals(1L, overview.getPendingOrders());
+        assertEquals(1L, overview.getActiveRestaurants());
+
+        List<OrderTrendResponse> trend = adminAnalyticsService.getOrdersTrend("daily");
+        assertEquals(1, trend.size());
+        assertEquals(LocalDate.now(), trend.get(0).getDate());
+        assertEquals(2L, trend.get(0).getOrderCount());
+
+        List<RestaurantRollupTotal> topRestaurants = dailyRestaurantRollupRepository
+                .findTopRestaurants(LocalDate.now().minusMonths(1), PageRequest.of(0, 10));
+        assertEquals(1, topRestaurants.size());
+        assertEquals(restaurant.getId(), topRestaurants.get(0).getRestaurantId());
+        assertEquals(2L, topRestaurants.get(0).getOrderCount());
+    }
+
+    @Test
+    void flushAppliesBufferedChanges() {
+        analyticsRollupService.reconcile(LocalDate.now(), LocalDate.now());
+
+        // A new order placed and the 250.00 order refunded
+        analyticsRollupService.accumulate(LocalDate.now(), restaurant.getId(), customer.getId(), 1, 0, 0, BigDecimal.ZERO);
+        analyticsRollupService.accumulate(LocalDate.now(), restaurant.getId(), customer.getId(), 0, -1, 0, new BigDecimal("-250.00"));
+        analyticsRollupService.flush();
+        flushAndClear();
+
+        AdminAnalyticsOverviewResponse overview = adminAnalyticsService.getOverview();
+        assertEquals(4L, overview.getTotalOrders());
+        assertEquals(0, new BigDecimal("100.00").compareTo(overview.getTotalRevenue()));
+
+        List<CustomerRollupTotal> topCustomers = dailyCustomerRollupRepository
+                .findTopCustomers(LocalDate.now().minusMonths(1), PageRequest.of(0, 10));
+        assertEquals(1, topCustomers.size());
+        assertEquals(1L, topCustomers.get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("100.00").compareTo(topCustomers.get(0).getRevenue()));
+    }
+
+    @Test
+    void topListsAreServedFromTheSketch() {
+        heavyHitterStore.rebuild();
+
+        List<TopRestaurantResponse> topRestaurants = adminAnalyticsService.getTopRestaurants(10);
+        assertEquals(1, topRestaurants.size());
+        assertEquals(restaurant.getId(), topRestaurants.get(0).getRestaurantId());
+        assertEquals(2L, topRestaurants.get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("350.00").compareTo(topRestaurants.get(0).getTotalRevenue()));
+
+        List<TopCustomerResponse> topCustomers = adminAnalyticsService.getTopCustomers(10);
+        assertEquals(1, topCustomers.size());
+        assertEquals("Test Customer", topCustomers.get(0).getCustomerName());
+    }
+
+    private void createOrder(CustomerAddress address, String amount, Order.PaymentStatus paymentStatus, Order.OrderStatus status) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setAddress(address);
+        order.setTotalAmount(new BigDecimal(amount));
+        order.setPaymentStatus(paymentStatus);
+        order.setStatus(status);
+        entityManager.persist(order);
+    }
+}
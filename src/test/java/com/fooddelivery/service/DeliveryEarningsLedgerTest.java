@@ -0,0 +1,102 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.DeliveryAnalyticsResponse;
+import com.fooddelivery.dto.EarningsResponse;
+import com.fooddelivery.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies delivery earnings served from the running ledger and from aggregate queries
+ */
+class DeliveryEarningsLedgerTest extends BaseIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DeliveryPartnerService deliveryPartnerService;
+
+    @Autowired
+    private DeliveryAnalyticsService deliveryAnalyticsService;
+
+    @Autowired
+    private DeliveryEarningsLedgerService deliveryEarningsLedgerService;
+
+    private Long partnerUserId;
+
+    private Order first;
+
+    private Order second;
+
+    @BeforeEach
+    public void setUp() {
+        Customer customer = createCustomer("customer@test.com");
+        CustomerAddress address = createAddress(customer);
+        Restaurant restaurant = createRestaurant("restaurant@test.com", "Test Restaurant");
+
+        DeliveryPartner partner = new DeliveryPartner();
+        partner.setUser(createUser("rider@test.com", User.Role.DELIVERY));
+        partner.setName("Test Rider");
+        partner.setVehicleType(DeliveryPartner.VehicleType.BIKE);
+        entityManager.persist(partner);
+        partnerUserId = partner.getUser().getId();
+
+        first = createOrder(customer, restaurant, address, partner, "300.00", Order.OrderStatus.OUT_FOR_DELIVERY);
+        second = createOrder(customer, restaurant, address, partner, "155.00", Order.OrderStatus.OUT_FOR_DELIVERY);
+        createOrder(customer, restaurant, address, partner, "90.00", Order.OrderStatus.PREPARING);
+
+        flushAndClear();
+    }
+
+    @Test
+    void deliveriesAreAddedToTheLedger() {
+        orderService.markOrderDelivered(partnerUserId, first.getId());
+        orderService.markOrderDelivered(partnerUserId, second.getId());
+
+        EarningsResponse earnings = deliveryPartnerService.getEarnings(partnerUserId, null, null);
+        assertEquals(2L, earnings.getTotalDeliveries());
+        assertEquals(new BigDecimal("45.50"), earnings.getTotalEarnings());
+        assertEquals(new BigDecimal("22.75"), earnings.getAverageEarningPerDelivery());
+
+        EarningsResponse windowed = deliveryPartnerService.getEarnings(partnerUserId,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusMinutes(1));
+        assertEquals(2L, windowed.getTotalDeliveries());
+        assertEquals(new BigDecimal("45.50"), windowed.getTotalEarnings());
+
+        DeliveryAnalyticsResponse analytics = deliveryAnalyticsService.getAnalytics(partnerUserId, "ALL");
+        assertEquals(2L, analytics.getCompletedDeliveries());
+        assertEquals(new BigDecimal("45.50"), analytics.getTotalEarnings());
+        assertEquals(3L, analytics.getTotalOrdersAssigned());
+    }
+
+    @Test
+    void rebuildRecomputesTheLedgerFromOrders() {
+        orderService.markOrderDelivered(partnerUserId, first.getId());
+        deliveryEarningsLedgerService.rebuild();
+
+        EarningsResponse earnings = deliveryPartnerService.getEarnings(partnerUserId, null, null);
+        assertEquals(1L, earnings.getTotalDeliveries());
+        assertEquals(new BigDecimal("30.00"), earnings.getTotalEarnings());
+    }
+
+    private Order createOrder(Customer customer, Restaurant restaurant, CustomerAddress address,
+                              DeliveryPartner partner, String amount, Order.OrderStatus status) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setAddress(address);
+        order.setDeliveryPartner(partner);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal(amount));
+        entityManager.persist(order);
+        return order;
+    }
+}
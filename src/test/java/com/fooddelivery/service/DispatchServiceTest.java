@@ -0,0 +1,119 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies partner matching and that an order can only be assigned once
+ */
+class DispatchServiceTest extends BaseIntegrationTest {
+
+    private static final double RESTAURANT_LAT = 12.9716;
+    private static final double RESTAURANT_LONG = 77.5946;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private DeliveryLocationStore deliveryLocationStore;
+
+    private final List<Long> trackedPartnerIds = new ArrayList<>();
+
+    private Order order;
+
+    private DeliveryPartner nearBicycle;
+
+    private DeliveryPartner farBike;
+
+    @BeforeEach
+    public void setUp() {
+        Customer customer = createCustomer("customer@test.com");
+        CustomerAddress address = createAddress(customer);
+        Restaurant restaurant = createRestaurant("restaurant@test.com", "Test Restaurant", RESTAURANT_LAT, RESTAURANT_LONG);
+
+        order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setAddress(address);
+        order.setStatus(Order.OrderStatus.PREPARING);
+        order.setTotalAmount(new BigDecimal("300.00"));
+        entityManager.persist(order);
+
+        // ~1km away on a bicycle (~5 min pickup) versus ~4km away on a bike (~8 min pickup)
+        nearBicycle = createPartner("near@test.com", DeliveryPartner.VehicleType.BICYCLE, RESTAURANT_LAT + 0.009);
+        farBike = createPartner("far@test.com", DeliveryPartner.VehicleType.BIKE, RESTAURANT_LAT + 0.036);
+
+        flushAndClear();
+    }
+
+    @AfterEach
+    public void untrackPartners() {
+        // The location store outlives the rolled-back test data
+        trackedPartnerIds.forEach(deliveryLocationStore::remove);
+    }
+
+    @Test
+    void batchAssignsBestScoringAvailablePartner() {
+        dispatchService.queueNow(order.getId());
+        dispatchService.runBatch();
+        flushAndClear();
+
+        Order assigned = entityManager.find(Order.class, order.getId());
+        assertEquals(Order.OrderStatus.OUT_FOR_DELIVERY, assigned.getStatus());
+        assertEquals(nearBicycle.getId(), assigned.getDeliveryPartner().getId());
+    }
+
+    @Test
+    void orderCanOnlyBeAssignedOnce() {
+        assertTrue(dispatchService.tryAssign(order.getId(), nearBicycle.getId()));
+        assertFalse(dispatchService.tryAssign(order.getId(), farBike.getId()));
+        flushAndClear();
+
+        Order assigned = entityManager.find(Order.class, order.getId());
+        assertEquals(nearBicycle.getId(), assigned.getDeliveryPartner().getId());
+    }
+
+    @Test
+    void partnerOutOfVehicleRangeIsNotAssigned() {
+        deliveryLocationStore.remove(nearBicycle.getId());
+        deliveryLocationStore.remove(farBike.getId());
+        // Bicycle range is 3km; the only partner left is ~5.5km away
+        createPartner("distant@test.com", DeliveryPartner.VehicleType.BICYCLE, RESTAURANT_LAT - 0.05);
+        flushAndClear();
+
+        dispatchService.queueNow(order.getId());
+        dispatchService.runBatch();
+        flushAndClear();
+
+        Order pending = entityManager.find(Order.class, order.getId());
+        assertEquals(Order.OrderStatus.PREPARING, pending.getStatus());
+        assertNull(pending.getDeliveryPartner());
+    }
+
+    private DeliveryPartner createPartner(String email, DeliveryPartner.VehicleType vehicleType, double lat) {
+        DeliveryPartner partner = new DeliveryPartner();
+        partner.setUser(createUser(email, User.Role.DELIVERY));
+        partner.setName(email);
+        partner.setVehicleType(vehicleType);
+        partner.setIsAvailable(true);
+        partner.setCurrentLat(lat);
+        partner.setCurrentLong(RESTAURANT_LONG);
+        entityManager.persist(partner);
+        deliveryLocationStore.register(partner);
+        trackedPartnerIds.add(partner.getId());
+        return partner;
+    }
+}
@@ -0,0 +1,77 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.model.EmailOutbox;
+import com.fooddelivery.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Sends outbox emails through a GreenMail fake SMTP server (localhost:3025)
+ */
+class EmailOutboxDispatcherTest extends BaseIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void queuedEmailsAreSentInOneBatch() {
+        emailService.sendOrderConfirmation("a@test.com", "A", 1L, new BigDecimal("100.00"), "1 Street");
+        emailService.sendOrderStatusUpdate("b@test.com", "B", 2L, "CONFIRMED", "Confirmed");
+        emailService.sendDeliveryOTP("c@test.com", "C", "123456", 3L);
+
+        assertEquals(3, emailOutboxDispatcher.dispatchBatch());
+        flushAndClear();
+
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        List<EmailOutbox> outbox = emailOutboxRepository.findAll();
+        outbox.forEach(email -> {
+            assertEquals(EmailOutbox.OutboxStatus.SENT, email.getStatus());
+            assertNotNull(email.getSentAt());
+        });
+        assertEquals(0, emailOutboxDispatcher.dispatchBatch());
+    }
+
+    @Test
+    void failedSendIsRescheduledWithBackoff() {
+        greenMail.stop();
+        emailService.sendDeliveryOTP("c@test.com", "C", "123456", 3L);
+
+        // truncated because the column may store less precision than the clock
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        emailOutboxDispatcher.dispatchBatch();
+        LocalDateTime after = LocalDateTime.now();
+        flushAndClear();
+
+        EmailOutbox email = emailOutboxRepository.findAll().get(0);
+        assertEquals(EmailOutbox.OutboxStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getLastError());
+        // First retry waits the base backoff (60s in the test profile), not the 120s claim lease
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+        assertFalse(email.getNextAttemptAt().isAfter(after.plusSeconds(60)));
+        // Not due again until the backoff expires
+        assertEquals(0, emailOutboxDispatcher.dispatchBatch());
+    }
+}
@@ -0,0 +1,92 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.MenuItemRequest;
+import com.fooddelivery.dto.MenuItemResponse;
+import com.fooddelivery.model.Category;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifies every view of a menu comes from one snapshot, and that an edit replaces only the
+ * edited restaurant's snapshot with a newer version
+ */
+class MenuSnapshotCacheTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void editReplacesOnlyTheEditedRestaurantsSnapshot() {
+        // committed up front: the menu service reads and edits them in transactions of its own
+        Category mains = transactionTemplate.execute(status -> createCategory("Mains"));
+        Category desserts = transactionTemplate.execute(status -> createCategory("Desserts"));
+        Restaurant edited = transactionTemplate.execute(status -> createRestaurant("edited@test.com", "Edited Restaurant"));
+        Restaurant untouched = transactionTemplate.execute(status -> createRestaurant("untouched@test.com", "Untouched Restaurant"));
+        MenuItem firstItem = null;
+        for (int i = 0; i < 5; i++) {
+            MenuItem item = saveMenuItem(edited, i < 3 ? mains : desserts, "Dish " + i, i % 2 == 0);
+            if (firstItem == null) {
+                firstItem = item;
+            }
+        }
+        saveMenuItem(untouched, mains, "Other dish", true);
+        menuSnapshotCache.invalidateAll();
+
+        long missesBefore = menuSnapshotCache.stats().missCount();
+        Page<MenuItemResponse> firstPage = menuService.getMenuItems(edited.getId(), null, null, null, PageRequest.of(0, 2));
+        Page<MenuItemResponse> dessertPage = menuService.getMenuItems(edited.getId(), desserts.getId(), null, null, PageRequest.of(0, 10));
+        Page<MenuItemResponse> vegLastPage = menuService.getMenuItems(edited.getId(), null, true, null, PageRequest.of(1, 2));
+        assertEquals(1, menuSnapshotCache.stats().missCount() - missesBefore);
+
+        assertEquals(5, firstPage.getTotalElements());
+        assertEquals(3, firstPage.getTotalPages());
+        assertEquals("Dish 0", firstPage.getContent().get(0).getName());
+        assertEquals(2, dessertPage.getTotalElements());
+        assertEquals(3, vegLastPage.getTotalElements());
+        assertEquals("Dish 4", vegLastPage.getContent().get(0).getName());
+
+        MenuSnapshotCache.MenuSnapshot untouchedBefore = menuService.getMenuSnapshot(untouched.getId());
+        long versionBefore = menuService.getMenuSnapshot(edited.getId()).version();
+
+        MenuItemRequest request = new MenuItemRequest();
+        request.setCategoryId(mains.getId());
+        request.setName("Dish 0 (new recipe)");
+        request.setPrice(new BigDecimal("120.00"));
+        request.setIsVeg(true);
+        request.setIsAvailable(true);
+        menuService.updateMenuItem(edited.getUser().getId(), firstItem.getId(), request);
+
+        MenuSnapshotCache.MenuSnapshot editedAfter = menuService.getMenuSnapshot(edited.getId());
+        assertEquals(versionBefore + 1, editedAfter.version());
+        assertEquals("Dish 0 (new recipe)", editedAfter.items().get(0).getName());
+        assertSame(untouchedBefore, menuService.getMenuSnapshot(untouched.getId()));
+    }
+
+    private MenuItem saveMenuItem(Restaurant restaurant, Category category, String name, boolean isVeg) {
+        return transactionTemplate.execute(status -> {
+            MenuItem menuItem = createMenuItem(restaurant, category, name, "100.00");
+            menuItem.setIsVeg(isVeg);
+            return menuItem;
+        });
+    }
+}
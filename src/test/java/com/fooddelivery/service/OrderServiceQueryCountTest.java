@@ -0,0 +1,128 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.OrderResponse;
+import com.fooddelivery.exception.ResourceNotFoundException;
+import com.fooddelivery.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that paged order listings load in a bounded number of statements
+ */
+class OrderServiceQueryCountTest extends BaseIntegrationTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int RESTAURANTS = 4;
+    private static final int PAGE_STATEMENTS = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long customerUserId;
+
+    private Long restaurantUserId;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        Customer customer = createCustomer("customer@test.com");
+        customerUserId = customer.getUser().getId();
+        CustomerAddress address = createAddress(customer);
+        Category category = createCategory("Mains");
+
+        for (int r = 0; r < RESTAURANTS; r++) {
+            Restaurant restaurant = createRestaurant("restaurant" + r + "@test.com", "Restaurant " + r);
+            restaurantUserId = restaurant.getUser().getId();
+            MenuItem first = createMenuItem(restaurant, category, "Dish A" + r, "150.00");
+            MenuItem second = createMenuItem(restaurant, category, "Dish B" + r, "150.00");
+
+            for (int o = 0; o < PAGE_SIZE / RESTAURANTS; o++) {
+                Order order = new Order();
+                order.setCustomer(customer);
+                order.setRestaurant(restaurant);
+                order.setAddress(address);
+                order.setTotalAmount(new BigDecimal("300.00"));
+                entityManager.persist(order);
+
+                order.getOrderItems().add(createOrderItem(order, first));
+                order.getOrderItems().add(createOrderItem(order, second));
+            }
+        }
+
+        flushAndClear();
+        statistics.clear();
+    }
+
+    @Test
+    void customerOrderPageLoadsInBoundedStatements() {
+        Page<OrderResponse> page = orderService.getCustomerOrders(customerUserId, null, PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        page.getContent().forEach(order -> assertEquals(2, order.getItems().size()));
+        assertBounded(statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void restaurantOrderPageLoadsInBoundedStatements() {
+        Page<OrderResponse> page = orderService.getRestaurantOrders(restaurantUserId, null, PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE / RESTAURANTS, page.getNumberOfElements());
+        assertBounded(statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithPageSize() {
+        orderService.getCustomerOrders(customerUserId, null, PageRequest.of(0, 1));
+        long singleOrderStatements = statistics.getPrepareStatementCount();
+
+        flushAndClear();
+        statistics.clear();
+
+        orderService.getCustomerOrders(customerUserId, null, PageRequest.of(0, PAGE_SIZE));
+        assertEquals(singleOrderStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void unknownCustomerIsStillReported() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> orderService.getCustomerOrders(-1L, null, PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    /**
+     * Page rows, count and one batched order-item query; the owner is matched by user id in the page query
+     */
+    private void assertBounded(long statements) {
+        assertTrue(statements <= PAGE_STATEMENTS,
+                "Expected at most " + PAGE_STATEMENTS + " statements but was " + statements);
+    }
+
+    private OrderItem createOrderItem(Order order, MenuItem menuItem) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setOrder(order);
+        orderItem.setMenuItem(menuItem);
+        orderItem.setQuantity(1);
+        orderItem.setPrice(menuItem.getPrice());
+        entityManager.persist(orderItem);
+        return orderItem;
+    }
+}
@@ -0,0 +1,96 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.OrderResponse;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.ConflictException;
+import com.fooddelivery.exception.ResourceNotFoundException;
+import com.fooddelivery.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies conditional status transitions and their conflict responses, and the delivery
+ * partner check on location pings
+ */
+class OrderTransitionTest extends BaseIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    private Long restaurantUserId;
+
+    private Long otherRestaurantUserId;
+
+    private Long customerUserId;
+
+    private Order order;
+
+    @BeforeEach
+    public void setUp() {
+        Customer customer = createCustomer("customer@test.com");
+        customerUserId = customer.getUser().getId();
+        CustomerAddress address = createAddress(customer);
+
+        Restaurant restaurant = createRestaurant("restaurant@test.com", "Test Restaurant");
+        restaurantUserId = restaurant.getUser().getId();
+        otherRestaurantUserId = createRestaurant("other@test.com", "Other Restaurant").getUser().getId();
+
+        order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setAddress(address);
+        order.setTotalAmount(new BigDecimal("300.00"));
+        entityManager.persist(order);
+
+        flushAndClear();
+    }
+
+    @Test
+    void transitionAdvancesStatusAndVersion() {
+        OrderResponse response = orderService.confirmOrder(restaurantUserId, order.getId());
+        flushAndClear();
+
+        assertEquals(Order.OrderStatus.CONFIRMED, response.getStatus());
+        assertEquals(1L, entityManager.find(Order.class, order.getId()).getVersion());
+    }
+
+    @Test
+    void repeatedTransitionIsConflict() {
+        orderService.confirmOrder(restaurantUserId, order.getId());
+
+        assertThrows(ConflictException.class, () -> orderService.confirmOrder(restaurantUserId, order.getId()));
+        assertThrows(ConflictException.class, () -> orderService.cancelOrder(customerUserId, order.getId()));
+    }
+
+    @Test
+    void transitionByNonOwnerIsRejected() {
+        assertThrows(BadRequestException.class, () -> orderService.confirmOrder(otherRestaurantUserId, order.getId()));
+        flushAndClear();
+
+        assertEquals(Order.OrderStatus.PENDING, entityManager.find(Order.class, order.getId()).getStatus());
+    }
+
+    @Test
+    void locationPingRequiresTheOrderToBeAssignedToTheCaller() {
+        DeliveryPartner partner = new DeliveryPartner();
+        partner.setUser(createUser("delivery@test.com", User.Role.DELIVERY));
+        partner.setName("Delivery Partner");
+        partner.setVehicleType(DeliveryPartner.VehicleType.BIKE);
+        entityManager.persist(partner);
+        Long partnerUserId = partner.getUser().getId();
+
+        assertThrows(BadRequestException.class, () -> orderService.assertAssignedToDeliveryPartner(partnerUserId, order.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> orderService.assertAssignedToDeliveryPartner(partnerUserId, -1L));
+
+        entityManager.find(Order.class, order.getId()).setDeliveryPartner(partner);
+        flushAndClear();
+        orderService.assertAssignedToDeliveryPartner(partnerUserId, order.getId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.VerifyPaymentRequest;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.model.*;
+import com.fooddelivery.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies a failed payment verification still queues its failure email
+ */
+class PaymentVerificationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void invalidSignatureQueuesFailureEmail() {
+        Order order = transactionTemplate.execute(status -> {
+            Customer customer = createCustomer("customer@test.com");
+            CustomerAddress address = createAddress(customer);
+            Order placed = new Order();
+            placed.setCustomer(customer);
+            placed.setRestaurant(createRestaurant("restaurant@test.com", "Test Restaurant"));
+            placed.setAddress(address);
+            placed.setTotalAmount(new BigDecimal("300.00"));
+            entityManager.persist(placed);
+
+            Payment payment = new Payment();
+            payment.setOrder(placed);
+            payment.setAmount(placed.getTotalAmount());
+            payment.setMethod(Payment.PaymentMethod.UPI);
+            entityManager.persist(payment);
+            return placed;
+        });
+
+        VerifyPaymentRequest request = new VerifyPaymentRequest();
+        request.setOrderId(order.getId());
+        request.setRazorpayOrderId("order_test");
+        request.setRazorpayPaymentId("pay_test");
+        request.setRazorpaySignature("not-a-signature");
+        Long userId = order.getCustomer().getUser().getId();
+
+        // The verification's own transaction rolls back
+        assertThrows(BadRequestException.class, () -> paymentService.verifyPayment(request, userId));
+
+        List<EmailOutbox> outbox = emailOutboxRepository.findAll();
+        assertEquals(1, outbox.size());
+        assertEquals("customer@test.com", outbox.get(0).getRecipient());
+        assertEquals("Payment Failed - Order #" + order.getId(), outbox.get(0).getSubject());
+    }
+}
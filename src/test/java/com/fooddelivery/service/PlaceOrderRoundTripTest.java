@@ -0,0 +1,77 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.OrderResponse;
+import com.fooddelivery.dto.PlaceOrderRequest;
+import com.fooddelivery.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round-trip benchmark for checkout: counts the JDBC statements placeOrder issues for
+ * 1, 10 and 50-item carts. Order items are batch-inserted and the cart is cleared with a
+ * single bulk delete, so the count must not grow with cart size.
+ */
+class PlaceOrderRoundTripTest extends BaseIntegrationTest {
+
+    // Lookups (customer, cart, cart items, address), order insert, sequence allocation (up to 2),
+    // one item insert batch, one cart delete, one email outbox insert.
+    // Before batching: 8 / 17 / 57 for 1 / 10 / 50 items.
+    private static final int CHECKOUT_STATEMENTS = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ParameterizedTest(name = "{0}-item cart")
+    @ValueSource(ints = {1, 10, 50})
+    void checkoutRoundTripsDoNotGrowWithCartSize(int cartSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        Customer customer = createCustomer("customer@test.com");
+        CustomerAddress address = createAddress(customer);
+        Restaurant restaurant = createRestaurant("restaurant@test.com", "Test Restaurant");
+        Category category = createCategory("Mains");
+
+        Cart cart = new Cart();
+        cart.setCustomer(customer);
+        cart.setRestaurant(restaurant);
+        entityManager.persist(cart);
+
+        for (int i = 0; i < cartSize; i++) {
+            MenuItem menuItem = createMenuItem(restaurant, category, "Dish " + i, "100.00");
+
+            CartItem cartItem = new CartItem();
+            cartItem.setCart(cart);
+            cartItem.setMenuItem(menuItem);
+            cartItem.setQuantity(1);
+            cartItem.setPrice(menuItem.getPrice());
+            entityManager.persist(cartItem);
+        }
+
+        flushAndClear();
+        statistics.clear();
+
+        PlaceOrderRequest request = new PlaceOrderRequest();
+        request.setAddressId(address.getId());
+        OrderResponse response = orderService.placeOrder(customer.getUser().getId(), request);
+        entityManager.flush();
+
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(cartSize, response.getItems().size());
+        assertTrue(statements <= CHECKOUT_STATEMENTS,
+                "Expected at most " + CHECKOUT_STATEMENTS + " statements but was " + statements);
+    }
+}
@@ -0,0 +1,74 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that shared backends enforce one limit across several RateLimitService nodes
+ */
+class RateLimitBackendTest extends BaseIntegrationTest {
+
+    private static final int LIMIT = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void localBackendLimitsEachNodeSeparately() {
+        assertEquals(2 * LIMIT, consumeOnTwoNodes(new LocalRateLimitBackend(), new LocalRateLimitBackend()));
+    }
+
+    @Test
+    void sharedBackendLimitsAllNodesTogether() {
+        RateLimitBackend cas = new ProxyManagerRateLimitBackend(new InMemoryCompareAndSwapProxyManager(), 0, Duration.ZERO);
+        assertEquals(LIMIT, consumeOnTwoNodes(cas, cas));
+
+        RateLimitBackend jdbc = new ProxyManagerRateLimitBackend(
+                new JdbcCompareAndSwapProxyManager(jdbcTemplate, Duration.ofSeconds(60)), 0, Duration.ZERO);
+        assertEquals(LIMIT, consumeOnTwoNodes(jdbc, jdbc));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_bucket", Integer.class));
+
+        // a bucket that is still refilling is kept
+        jdbc.purgeExpired();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_bucket", Integer.class));
+    }
+
+    @Test
+    void prefetchOvershootsByAtMostThePrefetchedTokensPerNode() {
+        int prefetch = 3;
+        RateLimitBackend cas = new ProxyManagerRateLimitBackend(
+                new InMemoryCompareAndSwapProxyManager(), prefetch, Duration.ofSeconds(5));
+
+        int consumed = consumeOnTwoNodes(cas, cas);
+
+        assertTrue(consumed >= LIMIT, "consumed " + consumed);
+        assertTrue(consumed <= LIMIT + 2 * prefetch, "consumed " + consumed);
+    }
+
+    /**
+     * Tokens granted to one client when two nodes alternate requests until both are refused
+     */
+    private int consumeOnTwoNodes(RateLimitBackend first, RateLimitBackend second) {
+        RateLimitService nodeA = new RateLimitService(first, LIMIT, LIMIT, LIMIT, 60);
+        RateLimitService nodeB = new RateLimitService(second, LIMIT, LIMIT, LIMIT, 60);
+        RateLimitService.Policy policyA = nodeA.resolvePolicy("GET", "/api/restaurants", null);
+        RateLimitService.Policy policyB = nodeB.resolvePolicy("GET", "/api/restaurants", null);
+        int consumed = 0;
+        for (int i = 0; i < 10 * LIMIT; i++) {
+            boolean granted = i % 2 == 0
+                    ? nodeA.tryConsume("10.0.0.1", policyA).isConsumed()
+                    : nodeB.tryConsume("10.0.0.1", policyB).isConsumed();
+            if (granted) {
+                consumed++;
+            }
+        }
+        return consumed;
+    }
+}
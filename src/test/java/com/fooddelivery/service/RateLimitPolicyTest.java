@@ -0,0 +1,96 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies requests resolve to the most specific policy of the shipped file, pay its cost,
+ * and pick up edits to the file without losing tokens already spent
+ */
+class RateLimitPolicyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void resolvesMostSpecificPolicyForMethodAndRole() {
+        RateLimitService service = new RateLimitService(new LocalRateLimitBackend(), objectMapper,
+                "classpath:rate-limit-policies.json", 20, 100, 10, 60);
+
+        assertPolicy(service, "GET", "/api/restaurants/7", null, "browse", 1);
+        assertPolicy(service, "GET", "/api/restaurant/7/menu", null, "browse", 1);
+        assertPolicy(service, "GET", "/api/restaurant/menu/items/3", null, "browse", 1);
+        assertPolicy(service, "POST", "/api/restaurant/menu/items/3/upload-image", "RESTAURANT", "authenticated", 10);
+        assertPolicy(service, "GET", "/api/restaurant/orders", "RESTAURANT", "authenticated", 1);
+        assertPolicy(service, "POST", "/api/orders/place", "CUSTOMER", "authenticated", 10);
+        assertPolicy(service, "GET", "/api/orders/place/", "CUSTOMER", "authenticated", 1);
+        assertPolicy(service, "POST", "/api/payments/create-order", "CUSTOMER", "payment", 2);
+        assertPolicy(service, "POST", "/api/payments/verify", "CUSTOMER", "payment", 1);
+        assertPolicy(service, "GET", "/api/payments", "CUSTOMER", "payment", 1);
+        assertPolicy(service, "GET", "/api/admin/users", "ADMIN", "admin", 1);
+        assertPolicy(service, "GET", "/api/admin/users", "CUSTOMER", "authenticated", 1);
+        assertPolicy(service, "POST", "/api/auth/login", null, "public", 4);
+        assertPolicy(service, "GET", "/", null, "public", 1);
+    }
+
+    @Test
+    void costlyRequestsDrainTheBucketFaster() {
+        RateLimitService service = new RateLimitService(new LocalRateLimitBackend(), objectMapper,
+                "classpath:rate-limit-policies.json", 20, 100, 10, 60);
+        RateLimitService.Policy placeOrder = service.resolvePolicy("POST", "/api/orders/place", "CUSTOMER");
+        RateLimitService.Policy viewOrder = service.resolvePolicy("GET", "/api/orders/1", "CUSTOMER");
+
+        for (int i = 0; i < 9; i++) {
+            assertTrue(service.tryConsume("alice@test.com", placeOrder).isConsumed());
+        }
+        assertEquals(9, service.tryConsume("alice@test.com", viewOrder).getRemainingTokens());
+        assertFalse(service.tryConsume("alice@test.com", placeOrder).isConsumed());
+        assertTrue(service.tryConsume("alice@test.com", viewOrder).isConsumed());
+    }
+
+    @Test
+    void reloadAppliesEditedFileAndKeepsUnchangedBuckets(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("policies.json");
+        writePolicies(file, 3);
+        RateLimitService service = new RateLimitService(new LocalRateLimitBackend(), objectMapper,
+                "file:" + file, 20, 100, 10, 60);
+
+        RateLimitService.Policy search = service.resolvePolicy("GET", "/api/restaurants/nearby", null);
+        assertEquals(3, search.getCost());
+        assertEquals(47, service.tryConsume("10.0.0.1", search).getRemainingTokens());
+
+        writePolicies(file, 5);
+        service.reloadPolicies();
+
+        search = service.resolvePolicy("GET", "/api/restaurants/nearby", null);
+        assertEquals(5, search.getCost());
+        assertEquals(42, service.tryConsume("10.0.0.1", search).getRemainingTokens());
+
+        // a broken file is rejected and the policies in force stay
+        Files.writeString(file, "{\"policies\":[{\"path\":\"/api/**\",\"bucket\":\"missing\"}]}");
+        assertThrows(IllegalArgumentException.class, service::reloadPolicies);
+        assertEquals(5, service.resolvePolicy("GET", "/api/restaurants/nearby", null).getCost());
+    }
+
+    private static void assertPolicy(RateLimitService service, String method, String path, String role,
+                                     String bucket, int cost) {
+        RateLimitService.Policy policy = service.resolvePolicy(method, path, role);
+        assertEquals(bucket, policy.getBucket(), method + " " + path);
+        assertEquals(cost, policy.getCost(), method + " " + path);
+    }
+
+    private static void writePolicies(Path file, int searchCost) throws IOException {
+        Files.writeString(file, "{\"buckets\":{\"search\":{\"capacity\":50,\"refillSeconds\":60}},"
+                + "\"policies\":[{\"path\":\"/api/restaurants/nearby\",\"method\":\"GET\","
+                + "\"bucket\":\"search\",\"cost\":" + searchCost + "}]}");
+    }
+}
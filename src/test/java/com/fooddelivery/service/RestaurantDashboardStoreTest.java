@@ -0,0 +1,119 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.OrderHeatmapResponse;
+import com.fooddelivery.dto.PeakHourResponse;
+import com.fooddelivery.dto.RestaurantDashboardResponse;
+import com.fooddelivery.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies the in-memory restaurant dashboard counters rebuilt from the database
+ */
+class RestaurantDashboardStoreTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RestaurantDashboardStore restaurantDashboardStore;
+
+    @Autowired
+    private RestaurantAnalyticsService restaurantAnalyticsService;
+
+    private Restaurant restaurant;
+
+    private Customer customer;
+
+    private CustomerAddress address;
+
+    private MenuItem biryani;
+
+    private MenuItem naan;
+
+    @BeforeEach
+    public void setUp() {
+        customer = createCustomer("customer@test.com");
+        address = createAddress(customer);
+        restaurant = createRestaurant("restaurant@test.com", "Test Restaurant");
+
+        Category category = createCategory("Mains");
+        biryani = createMenuItem(restaurant, category, "Biryani", "75.00");
+        naan = createMenuItem(restaurant, category, "Naan", "75.00");
+
+        Order first = createOrder("300.00", Order.PaymentStatus.PAID, biryani, 2);
+        addItem(first, naan, 4);
+        createOrder("150.00", Order.PaymentStatus.PAID, biryani, 1);
+        createOrder("90.00", Order.PaymentStatus.PENDING, biryani, 1);
+
+        Review review = new Review();
+        review.setOrder(first);
+        review.setCustomer(customer);
+        review.setRestaurant(restaurant);
+        review.setRating(4);
+        entityManager.persist(review);
+
+        flushAndClear();
+    }
+
+    @Test
+    void dashboardIsServedFromRebuiltCounters() {
+        restaurantDashboardStore.rebuild();
+
+        RestaurantDashboardResponse dashboard = restaurantAnalyticsService.getDashboard(restaurant.getUser().getId());
+
+        assertEquals(3L, dashboard.getOrdersToday());
+        assertEquals(0, new BigDecimal("450.00").compareTo(dashboard.getRevenueToday()));
+        assertEquals(3L, dashboard.getTotalOrders());
+        assertEquals(0, new BigDecimal("450.00").compareTo(dashboard.getTotalRevenue()));
+        assertEquals(0, new BigDecimal("4.00").compareTo(dashboard.getAverageRating()));
+
+        assertEquals(2, dashboard.getPopularItems().size());
+        assertEquals(biryani.getId(), dashboard.getPopularItems().get(0).getMenuItemId());
+        assertEquals(3L, dashboard.getPopularItems().get(0).getOrderCount());
+        assertEquals(4L, dashboard.getPopularItems().get(0).getTotalQuantity());
+        assertEquals(1L, dashboard.getPopularItems().get(1).getOrderCount());
+    }
+
+    @Test
+    void peakHoursAndHeatmapAreServedFromTheHistogram() {
+        restaurantDashboardStore.rebuild();
+        Long userId = restaurant.getUser().getId();
+
+        List<PeakHourResponse> peakHours = restaurantAnalyticsService.getPeakHours(userId);
+        assertEquals(1, peakHours.size());
+        assertEquals(3L, peakHours.get(0).getOrderCount());
+
+        OrderHeatmapResponse heatmap = restaurantAnalyticsService.getHeatmap(userId);
+        long[] today = heatmap.getOrdersByDayAndHour().get(LocalDate.now().getDayOfWeek());
+        assertEquals(3L, today[peakHours.get(0).getHour()]);
+        assertEquals(3L, heatmap.getOrdersByDayAndHour().values().stream().flatMapToLong(LongStream::of).sum());
+    }
+
+    private Order createOrder(String amount, Order.PaymentStatus paymentStatus, MenuItem item, int quantity) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setAddress(address);
+        order.setTotalAmount(new BigDecimal(amount));
+        order.setPaymentStatus(paymentStatus);
+        entityManager.persist(order);
+        addItem(order, item, quantity);
+        return order;
+    }
+
+    private void addItem(Order order, MenuItem menuItem, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setMenuItem(menuItem);
+        item.setQuantity(quantity);
+        item.setPrice(menuItem.getPrice());
+        entityManager.persist(item);
+    }
+}
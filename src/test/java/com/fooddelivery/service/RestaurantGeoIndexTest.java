@@ -0,0 +1,65 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.dto.RestaurantResponse;
+import com.fooddelivery.model.Restaurant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the in-memory nearby index follows the owner's activity like the SQL fallback does
+ */
+class RestaurantGeoIndexTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void emptyIndex() {
+        restaurantGeoIndex.load(List.of());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void ownerActivityListsAndUnlistsTheRestaurant() {
+        Restaurant restaurant = transactionTemplate.execute(status ->
+                createRestaurant("restaurant@test.com", "Test Restaurant"));
+        Long ownerId = restaurant.getUser().getId();
+        restaurantService.loadGeoIndex();
+        assertEquals(List.of(restaurant.getId()), nearbyIds());
+
+        adminService.activateUser(ownerId, false);
+        assertTrue(nearbyIds().isEmpty());
+
+        // Approval does not list a restaurant whose owner is inactive
+        adminService.approveRestaurant(restaurant.getId(), true);
+        assertTrue(nearbyIds().isEmpty());
+
+        adminService.activateUser(ownerId, true);
+        assertEquals(List.of(restaurant.getId()), nearbyIds());
+    }
+
+    private List<Long> nearbyIds() {
+        return restaurantService.getNearbyRestaurants(12.9, 77.5, 5.0).stream()
+                .map(RestaurantResponse::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.BaseIntegrationTest;
+import com.fooddelivery.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies repeat user lookups are served from the user cache until the user is evicted
+ */
+class UserCacheTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Test
+    void servesRepeatLookupsFromCacheUntilEvicted() {
+        User user = createUser("cached@test.com", User.Role.CUSTOMER);
+        flushAndClear();
+        userCache.invalidateAll();
+
+        long missesBefore = userCache.stats().missCount();
+        long hitsBefore = userCache.stats().hitCount();
+
+        assertTrue(customUserDetailsService.loadUserByUsername("cached@test.com").isEnabled());
+        assertTrue(customUserDetailsService.loadUserByUsername("cached@test.com").isEnabled());
+        assertEquals(1, userCache.stats().missCount() - missesBefore);
+        assertEquals(1, userCache.stats().hitCount() - hitsBefore);
+
+        // a change made behind the cache's back is not seen until the entry is evicted
+        User stored = entityManager.find(User.class, user.getId());
+        stored.setIsActive(false);
+        flushAndClear();
+        assertTrue(customUserDetailsService.loadUserByUsername("cached@test.com").isEnabled());
+
+        // evict() waits for a commit, which never comes in a rolled-back test
+        userCache.invalidateAll();
+        UserDetails reloaded = customUserDetailsService.loadUserByUsername("cached@test.com");
+        assertFalse(reloaded.isEnabled());
+    }
+}
@@ -0,0 +1,122 @@
+package com.fooddelivery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GeoGrid results must match a brute-force Haversine scan
+ */
+class GeoGridTest {
+
+    private static final double CENTER_LAT = 12.97;
+    private static final double CENTER_LONG = 77.59;
+
+    @Test
+    void radiusQueryMatchesBruteForce() {
+        GeoGrid<String> grid = new GeoGrid<>(0.05);
+        List<double[]> points = randomPoints(2000, new Random(42));
+        for (int i = 0; i < points.size(); i++) {
+            grid.put((long) i, points.get(i)[0], points.get(i)[1], "p" + i);
+        }
+
+        List<Long> expected = bruteForce(points, 5.0);
+        List<Long> actual = grid.withinRadius(CENTER_LAT, CENTER_LONG, 5.0).stream()
+                .map(GeoGrid.Neighbor::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void nearestReturnsClosestPointsInOrder() {
+        GeoGrid<String> grid = new GeoGrid<>(0.05);
+        List<double[]> points = randomPoints(2000, new Random(7));
+        for (int i = 0; i < points.size(); i++) {
+            grid.put((long) i, points.get(i)[0], points.get(i)[1], "p" + i);
+        }
+
+        List<Long> expected = bruteForce(points, 50.0).subList(0, 10);
+        List<Long> actual = grid.nearest(CENTER_LAT, CENTER_LONG, 10, 50.0).stream()
+                .map(GeoGrid.Neighbor::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void movedAndRemovedPointsAreReportedFromTheirCurrentCell() {
+        GeoGrid<String> grid = new GeoGrid<>(0.05);
+        grid.put(1L, CENTER_LAT, CENTER_LONG, "a");
+        grid.put(1L, CENTER_LAT + 1.0, CENTER_LONG, "b");
+
+        assertTrue(grid.withinRadius(CENTER_LAT, CENTER_LONG, 1.0).isEmpty());
+        assertEquals("b", grid.withinRadius(CENTER_LAT + 1.0, CENTER_LONG, 1.0).get(0).getValue());
+
+        grid.remove(1L);
+        assertNull(grid.get(1L));
+        assertEquals(0, grid.size());
+        assertTrue(grid.withinRadius(CENTER_LAT + 1.0, CENTER_LONG, 1.0).isEmpty());
+    }
+
+    @Test
+    void oversizedRadiusScansOccupiedCellsOnly() {
+        GeoGrid<String> grid = new GeoGrid<>(0.001);
+        List<double[]> points = randomPoints(500, new Random(3));
+        for (int i = 0; i < points.size(); i++) {
+            grid.put((long) i, points.get(i)[0], points.get(i)[1], "p" + i);
+        }
+
+        // the box covers the whole globe, hundreds of billions of 0.001 degree cells
+        List<Long> actual = grid.withinRadius(CENTER_LAT, CENTER_LONG, 1e6).stream()
+                .map(GeoGrid.Neighbor::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(bruteForce(points, 1e6), actual);
+        assertEquals(10, grid.nearest(CENTER_LAT, CENTER_LONG, 10, 1e6).size());
+    }
+
+    @Test
+    void nonFiniteQueriesAreRejected() {
+        GeoGrid<String> grid = new GeoGrid<>(0.05);
+        grid.put(1L, CENTER_LAT, CENTER_LONG, "a");
+
+        assertThrows(IllegalArgumentException.class, () -> grid.withinRadius(CENTER_LAT, CENTER_LONG, Double.NaN));
+        assertThrows(IllegalArgumentException.class,
+                () -> grid.nearest(CENTER_LAT, CENTER_LONG, 5, Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> grid.withinRadius(Double.NaN, CENTER_LONG, 5.0));
+    }
+
+    private List<double[]> randomPoints(int count, Random random) {
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new double[]{
+                    CENTER_LAT + (random.nextDouble() - 0.5) * 0.6,
+                    CENTER_LONG + (random.nextDouble() - 0.5) * 0.6
+            });
+        }
+        return points;
+    }
+
+    private List<Long> bruteForce(List<double[]> points, double radiusKm) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            double distance = GeoGrid.distanceKm(CENTER_LAT, CENTER_LONG, points.get(i)[0], points.get(i)[1]);
+            if (distance <= radiusKm) {
+                ids.add((long) i);
+            }
+        }
+        ids.sort(Comparator.comparingDouble(id -> GeoGrid.distanceKm(CENTER_LAT, CENTER_LONG,
+                points.get(id.intValue())[0], points.get(id.intValue())[1])));
+        return ids;
+    }
+}
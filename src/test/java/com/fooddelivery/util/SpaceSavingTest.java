@@ -0,0 +1,110 @@
+package com.fooddelivery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Space-Saving estimates must bound the exact counts and find every heavy hitter
+ */
+class SpaceSavingTest {
+
+    @Test
+    void estimatesBoundExactCountsAndKeepHeavyHitters() {
+        SpaceSaving<Long> sketch = new SpaceSaving<>(50);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long key = skewedKey(random);
+            sketch.offer(key, 1, 10);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        long total = sketch.getTotal();
+        assertEquals(20_000, total);
+        assertEquals(50, sketch.size());
+        for (SpaceSaving.Estimate<Long> estimate : sketch.estimates()) {
+            long trueCount = exact.getOrDefault(estimate.getKey(), 0L);
+            assertTrue(estimate.getCount() >= trueCount);
+            assertTrue(estimate.getCount() - estimate.getError() <= trueCount);
+        }
+
+        List<Long> monitored = sketch.estimates().stream().map(SpaceSaving.Estimate::getKey).collect(Collectors.toList());
+        exact.forEach((key, count) -> {
+            if (count > total / 50) {
+                assertTrue(monitored.contains(key), "heavy hitter " + key + " was evicted");
+            }
+        });
+    }
+
+    @Test
+    void exactModeMatchesExactTopK() {
+        SlidingTopK<Long> window = new SlidingTopK<>(7, 0);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(11);
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        for (int i = 0; i < 5_000; i++) {
+            long key = skewedKey(random);
+            window.offer(today.minusDays(random.nextInt(7)), key, 1, 1);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        List<Long> expected = exact.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(5)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        List<Long> actual = window.top(today, 5).stream()
+                .map(SpaceSaving.Estimate::getCount)
+                .collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void mergedWindowEstimatesBoundExactCounts() {
+        SlidingTopK<Long> window = new SlidingTopK<>(7, 20);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(13);
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        for (int i = 0; i < 20_000; i++) {
+            long key = skewedKey(random);
+            window.offer(today.minusDays(random.nextInt(7)), key, 1, 1);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        for (SpaceSaving.Estimate<Long> estimate : window.top(today, 100)) {
+            long trueCount = exact.getOrDefault(estimate.getKey(), 0L);
+            assertTrue(estimate.getCount() >= trueCount, "undercounted " + estimate.getKey());
+            assertTrue(estimate.getCount() - estimate.getError() <= trueCount, "error too small for " + estimate.getKey());
+        }
+    }
+
+    @Test
+    void daysOutsideTheWindowAreDropped() {
+        SlidingTopK<String> window = new SlidingTopK<>(3, 10);
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        window.offer(today.minusDays(5), "old", 100, 0);
+        window.offer(today.minusDays(2), "recent", 2, 0);
+        window.offer(today, "today", 1, 0);
+
+        List<String> keys = window.top(today, 10).stream().map(SpaceSaving.Estimate::getKey).collect(Collectors.toList());
+        assertEquals(List.of("recent", "today"), keys);
+
+        // A slot reused by a newer day ignores late events for the day it replaced
+        window.offer(today.minusDays(3), "late", 5, 0);
+        assertEquals(2, window.top(today, 10).size());
+    }
+
+    // Zipf-like: a few keys dominate, with a long tail
+    private static long skewedKey(Random random) {
+        return (long) Math.floor(Math.pow(1000, random.nextDouble() * random.nextDouble()));
+    }
+}
@@ -1,22 +1,27 @@
 -- Cleanup script to run after each test
--- Truncate all tables in reverse order of dependencies
+-- Delete all rows in reverse order of dependencies (DELETE works on both H2 and PostgreSQL)
 
-TRUNCATE TABLE review CASCADE;
-TRUNCATE TABLE payment CASCADE;
-TRUNCATE TABLE order_item CASCADE;
-TRUNCATE TABLE "order" CASCADE;
-TRUNCATE TABLE cart_item CASCADE;
-TRUNCATE TABLE cart CASCADE;
-TRUNCATE TABLE menu_item CASCADE;
-TRUNCATE TABLE category CASCADE;
-TRUNCATE TABLE delivery_partner CASCADE;
-TRUNCATE TABLE customer_address CASCADE;
-TRUNCATE TABLE customer CASCADE;
-TRUNCATE TABLE restaurant CASCADE;
-TRUNCATE TABLE "user" CASCADE;
+DELETE FROM email_outbox;
+DELETE FROM daily_order_rollup;
+DELETE FROM daily_restaurant_rollup;
+DELETE FROM daily_customer_rollup;
+DELETE FROM delivery_earnings_ledger;
+DELETE FROM rate_limit_bucket;
+DELETE FROM review;
+DELETE FROM payment;
+DELETE FROM order_item;
+DELETE FROM "order";
+DELETE FROM cart_item;
+DELETE FROM cart;
+DELETE FROM menu_item;
+DELETE FROM category;
+DELETE FROM delivery_partner;
+DELETE FROM customer_address;
+DELETE FROM customer;
+DELETE FROM restaurant;
+DELETE FROM users;
 
 -- Reset sequences (if using PostgreSQL sequences)
 -- ALTER SEQUENCE user_id_seq RESTART WITH 1;
 -- ALTER SEQUENCE customer_id_seq RESTART WITH 1;
 -- ... (add other sequences as needed)
-